@@ -0,0 +1,241 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.nico.core.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class HistoryJournalTest {
+	
+	
+	private static class Records implements HistoryJournal.RecordHandler {
+		
+		private final List<String> commands= new ArrayList<>();
+		private final List<SubmitType> submitTypes= new ArrayList<>();
+		
+		@Override
+		public void add(final long timeStamp, final SubmitType submitType,
+				final ByteBuffer data, final int offset, final int length) {
+			final ByteBuffer command= data.duplicate();
+			command.limit(offset + length);
+			command.position(offset);
+			this.commands.add(StandardCharsets.UTF_8.decode(command).toString());
+			this.submitTypes.add(submitType);
+		}
+		
+	}
+	
+	
+	private File dir;
+	private File textFile;
+	private File journalFile;
+	
+	
+	public HistoryJournalTest() {
+	}
+	
+	
+	@Before
+	public void createFiles() throws IOException {
+		this.dir= Files.createTempDirectory("journaltest").toFile(); //$NON-NLS-1$
+		this.textFile= new File(this.dir, "history.txt"); //$NON-NLS-1$
+		this.journalFile= new File(this.dir, "history.txt.journal"); //$NON-NLS-1$
+		writeText("a <- 1\n"); //$NON-NLS-1$
+	}
+	
+	@After
+	public void deleteFiles() {
+		for (final File file : this.dir.listFiles()) {
+			file.delete();
+		}
+		this.dir.delete();
+	}
+	
+	private void writeText(final String text) throws IOException {
+		Files.write(this.textFile.toPath(), text.getBytes(StandardCharsets.UTF_8),
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND );
+	}
+	
+	private HistoryJournal createJournal() {
+		return new HistoryJournal(this.journalFile, this.textFile);
+	}
+	
+	private Records read(final HistoryJournal journal, final int maxCount) throws IOException {
+		final Records records= new Records();
+		if (!journal.read(maxCount, records)) {
+			fail("journal is not current"); //$NON-NLS-1$
+		}
+		return records;
+	}
+	
+	
+	@Test
+	public void importAndRead() throws IOException {
+		final HistoryJournal journal= createJournal();
+		assertEquals(false, journal.exists());
+		
+		assertEquals(true, journal.importEntries(null));
+		assertEquals(true, journal.exists());
+		assertEquals(0, read(journal, 10).commands.size());
+		
+		journal.append(1, SubmitType.CONSOLE, "x"); //$NON-NLS-1$
+		journal.append(2, null, "y \u00E4"); //$NON-NLS-1$
+		final Records records= read(createJournal(), 10);
+		assertEquals(2, records.commands.size());
+		assertEquals("x", records.commands.get(0)); //$NON-NLS-1$
+		assertEquals("y \u00E4", records.commands.get(1)); //$NON-NLS-1$
+		assertEquals(SubmitType.CONSOLE, records.submitTypes.get(0));
+		assertEquals(null, records.submitTypes.get(1));
+	}
+	
+	@Test
+	public void read_maxCount() throws IOException {
+		final HistoryJournal journal= createJournal();
+		journal.importEntries(null);
+		for (int i= 0; i < 10; i++) {
+			journal.append(i, SubmitType.CONSOLE, Integer.toString(i));
+		}
+		
+		final Records records= read(createJournal(), 3);
+		assertEquals(3, records.commands.size());
+		assertEquals("7", records.commands.get(0)); //$NON-NLS-1$
+		assertEquals("9", records.commands.get(2)); //$NON-NLS-1$
+	}
+	
+	@Test
+	public void read_textChanged() throws IOException {
+		final HistoryJournal journal= createJournal();
+		journal.importEntries(null);
+		
+		// written by someone else
+		writeText("b <- 2\n"); //$NON-NLS-1$
+		assertEquals(false, createJournal().read(10, new Records()));
+		
+		assertEquals(true, createJournal().importEntries(null));
+		assertEquals(true, createJournal().read(10, new Records()));
+	}
+	
+	@Test
+	public void read_textWrittenWithStamp() throws IOException {
+		final HistoryJournal journal= createJournal();
+		journal.importEntries(null);
+		
+		// written by a console with journal, later than the journal is detached
+		writeText("b <- 2\n"); //$NON-NLS-1$
+		journal.updateTextStamp();
+		assertEquals(true, createJournal().read(10, new Records()));
+	}
+	
+	@Test
+	public void read_withoutTextFile() throws IOException {
+		final HistoryJournal journal= new HistoryJournal(this.journalFile, null);
+		journal.importEntries(null);
+		journal.append(1, SubmitType.CONSOLE, "x"); //$NON-NLS-1$
+		
+		writeText("b <- 2\n"); //$NON-NLS-1$
+		assertEquals(1, read(new HistoryJournal(this.journalFile, null), 10).commands.size());
+	}
+	
+	@Test
+	public void read_invalid() throws IOException {
+		Files.write(this.journalFile.toPath(), "invalid journal content".getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$
+		try {
+			createJournal().read(10, new Records());
+			fail("IOException expected"); //$NON-NLS-1$
+		}
+		catch (final IOException e) {
+		}
+		
+		assertEquals(true, createJournal().importEntries(null));
+		assertEquals(0, read(createJournal(), 10).commands.size());
+	}
+	
+	@Test
+	public void read_incompleteRecord() throws IOException {
+		final HistoryJournal journal= createJournal();
+		journal.importEntries(null);
+		journal.append(1, SubmitType.CONSOLE, "x"); //$NON-NLS-1$
+		Files.write(this.journalFile.toPath(), new byte[] { 0, 0, 0, 0, 0, 0, 0, 2, 1, 0, 0 },
+				StandardOpenOption.APPEND );
+		
+		assertEquals(1, read(createJournal(), 10).commands.size());
+	}
+	
+	@Test
+	public void importEntries_alreadyImported() throws IOException {
+		final HistoryJournal journal1= createJournal();
+		final HistoryJournal journal2= createJournal();
+		assertEquals(true, journal1.importEntries(null));
+		journal1.append(1, SubmitType.CONSOLE, "x"); //$NON-NLS-1$
+		
+		assertEquals(false, journal2.importEntries(null));
+		assertEquals(1, read(journal2, 10).commands.size());
+	}
+	
+	@Test
+	public void twoWriters() throws IOException {
+		final HistoryJournal journal1= createJournal();
+		final HistoryJournal journal2= createJournal();
+		journal1.importEntries(null);
+		read(journal2, 10);
+		
+		for (int i= 0; i < 6; i++) {
+			((i % 2 == 0) ? journal1 : journal2).append(i, SubmitType.CONSOLE, Integer.toString(i));
+			writeText(i + "\n"); //$NON-NLS-1$
+			((i % 2 == 0) ? journal1 : journal2).updateTextStamp();
+		}
+		
+		final Records records= read(createJournal(), 10);
+		assertEquals(6, records.commands.size());
+		for (int i= 0; i < 6; i++) {
+			assertEquals(Integer.toString(i), records.commands.get(i));
+		}
+	}
+	
+	@Test
+	public void compact() throws IOException {
+		final HistoryJournal journal1= createJournal();
+		final HistoryJournal journal2= createJournal();
+		journal1.importEntries(null);
+		read(journal2, 10);
+		for (int i= 0; i < 10; i++) {
+			((i < 2) ? journal1 : journal2).append(i, SubmitType.CONSOLE, Integer.toString(i));
+		}
+		assertEquals(true, journal2.isCompactionRequired(2));
+		assertEquals(false, journal1.isCompactionRequired(2));
+		
+		// keeps the newest records of the journal, also of the other writer
+		journal1.compact(3);
+		final Records records= read(createJournal(), 10);
+		assertEquals(3, records.commands.size());
+		assertEquals("7", records.commands.get(0)); //$NON-NLS-1$
+		assertEquals("9", records.commands.get(2)); //$NON-NLS-1$
+		
+		journal2.append(10, SubmitType.CONSOLE, "10"); //$NON-NLS-1$
+		assertEquals(4, read(createJournal(), 10).commands.size());
+	}
+	
+}
@@ -12,7 +12,10 @@
 package de.walware.statet.nico.core.runtime;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.Map;
@@ -20,6 +23,7 @@ import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -45,6 +49,7 @@ import de.walware.statet.nico.core.NicoCore;
 import de.walware.statet.nico.core.NicoCoreMessages;
 import de.walware.statet.nico.core.NicoPreferenceNodes;
 import de.walware.statet.nico.internal.core.Messages;
+import de.walware.statet.nico.internal.core.NicoCorePlugin;
 import de.walware.statet.nico.internal.core.preferences.HistoryPreferences;
 
 
@@ -70,22 +75,42 @@ public class History {
 	
 	private volatile Entry[] fArrayCache;
 	
+	private HistoryJournal fJournal;
+	
 	
 	/**
 	 * An entry of this history.
 	 */
 	public final class Entry {
 		
-		private final String fCommand;
+		private volatile String fCommand;
+		private volatile ByteBuffer fCommandData;
+		private final int fCommandOffset;
+		private final int fCommandLength;
 		private final long fTimeStamp;
 		private final SubmitType fSubmitType;
-		private final int fIsEmpty;
+		private volatile int fIsEmpty = Integer.MIN_VALUE;
 		private volatile Entry fOlder;
 		private volatile Entry fNewer;
 		
 		private Entry(final Entry older, final String command, final long stamp, final SubmitType submitType) {
 			fCommand = command;
-			fIsEmpty = createCommandMarker(command);
+			fCommandOffset = 0;
+			fCommandLength = 0;
+			fTimeStamp = stamp;
+			fSubmitType = submitType;
+			fOlder = older;
+			if (older != null) {
+				older.fNewer = this;
+			}
+		}
+		
+		/** Entry with the command (UTF-8) in the data read from the history journal, decoded on demand */
+		private Entry(final Entry older, final ByteBuffer data, final int offset, final int length,
+				final long stamp, final SubmitType submitType) {
+			fCommandData = data;
+			fCommandOffset = offset;
+			fCommandLength = length;
 			fTimeStamp = stamp;
 			fSubmitType = submitType;
 			fOlder = older;
@@ -95,7 +120,16 @@ public class History {
 		}
 		
 		public String getCommand() {
-			return fCommand;
+			String command = fCommand;
+			if (command == null) {
+				final ByteBuffer data = fCommandData.duplicate();
+				data.limit(fCommandOffset + fCommandLength);
+				data.position(fCommandOffset);
+				command = StandardCharsets.UTF_8.decode(data).toString();
+				fCommand = command;
+				fCommandData = null;
+			}
+			return command;
 		}
 		
 		public long getTimeStamp() {
@@ -111,7 +145,12 @@ public class History {
 		 * If no such char, or first char indicates a line comment, it returns -1-offset
 		 */
 		public int getCommandMarker() {
-			return fIsEmpty;
+			int marker = fIsEmpty;
+			if (marker == Integer.MIN_VALUE) {
+				marker = createCommandMarker(getCommand());
+				fIsEmpty = marker;
+			}
+			return marker;
 		}
 		
 		public Entry getNewer() {
@@ -176,6 +215,7 @@ public class History {
 	}
 	
 	void dispose() {
+		detachJournal();
 		if (fPreferenceListener != null) {
 			PreferencesUtil.getInstancePrefs().addPreferenceNodeListener(
 					NicoPreferenceNodes.CAT_HISTORY_QUALIFIER, fPreferenceListener );
@@ -226,6 +266,8 @@ public class History {
 	/**
 	 * Load the history from a text file. Previous entries are removed.
 	 * 
+	 * An attached journal is not changed, it can be shared by other consoles.
+	 * 
 	 * Note: The thread can be blocked because of workspace operations. So
 	 * it is a good idea, that the user have the chance to cancel the action.
 	 * 
@@ -317,6 +359,150 @@ public class History {
 		return current;
 	}
 	
+	/**
+	 * Loads the history from the binary journal and records all new entries in it.
+	 * Previous entries are removed.
+	 * 
+	 * If the journal doesn't exist yet or is invalid, or if the text file of the journal doesn't
+	 * match the stamp recorded in the journal (e.g. written by a console without journal), the
+	 * history is loaded from the text file and the journal is replaced by its entries.
+	 * 
+	 * @param journal the journal
+	 * @param charset the charset of the text file (if not detected automatically)
+	 * @param monitor
+	 * 
+	 * @throws OperationCanceledException
+	 */
+	public IStatus attachJournal(final HistoryJournal journal, final String charset,
+			final IProgressMonitor monitor) {
+		if (journal.exists()) {
+			try {
+				final IStatus status = loadJournal(journal);
+				if (status != null) {
+					return status;
+				}
+			}
+			catch (final IOException e) {
+				NicoCorePlugin.log(new Status(IStatus.ERROR, NicoCore.PLUGIN_ID, 0, NLS.bind(
+						Messages.LoadHistory_error_message,
+						new Object[] { fProcess.getLabel(ITool.LONG_LABEL), journal.getFile().toString() }), e));
+				// recreate it
+			}
+		}
+		
+		IStatus status = Status.OK_STATUS;
+		final File textFile = journal.getTextFile();
+		if (textFile != null && textFile.isFile()) {
+			status = load(EFS.getLocalFileSystem().fromLocalFile(textFile), charset, false, monitor);
+			if (status.getSeverity() == IStatus.ERROR) {
+				return status;
+			}
+		}
+		fLock.writeLock().lock();
+		try {
+			if (journal.importEntries(fOldest)) {
+				setJournal(journal);
+				return status;
+			}
+		}
+		catch (final IOException e) {
+			return new Status(IStatus.ERROR, NicoCore.PLUGIN_ID, 0, NLS.bind(
+					"An error occurred when writing to the history journal ''{0}''.",
+					journal.getFile() ), e );
+		}
+		finally {
+			fLock.writeLock().unlock();
+		}
+		
+		// imported by another console in the meantime
+		try {
+			final IStatus journalStatus = loadJournal(journal);
+			if (journalStatus != null) {
+				return journalStatus;
+			}
+		}
+		catch (final IOException e) {
+			return new Status(IStatus.ERROR, NicoCore.PLUGIN_ID, 0, NLS.bind(
+					Messages.LoadHistory_error_message,
+					new Object[] { fProcess.getLabel(ITool.LONG_LABEL), journal.getFile().toString() }), e);
+		}
+		return status;
+	}
+	
+	/**
+	 * @return the status or <code>null</code> if the journal must be imported again
+	 */
+	private IStatus loadJournal(final HistoryJournal journal) throws IOException {
+		final HistoryData exch = new HistoryData();
+		final boolean current = journal.read(fMaxSize, new HistoryJournal.RecordHandler() {
+			@Override
+			public void add(final long timeStamp, final SubmitType submitType,
+					final ByteBuffer data, final int offset, final int length) {
+				exch.newest = new Entry(exch.newest, data, offset, length, timeStamp, submitType);
+				if (exch.oldest == null) {
+					exch.oldest = exch.newest;
+				}
+				exch.size++;
+			}
+		});
+		if (!current) {
+			return null;
+		}
+		
+		fLock.writeLock().lock();
+		try {
+			fOldest = exch.oldest;
+			fNewest = exch.newest;
+			fCurrentSize = exch.size;
+			if (fCurrentSize > fMaxSize) {
+				trimSize();
+			}
+			setJournal(journal);
+			fireCompleteChange();
+		}
+		finally {
+			fLock.writeLock().unlock();
+		}
+		return new Status(IStatus.OK, NicoCore.PLUGIN_ID, NLS.bind(
+				Messages.LoadHistory_ok_message, journal.getFile().toString() ));
+	}
+	
+	private void setJournal(final HistoryJournal journal) {
+		fJournal = journal;
+	}
+	
+	/**
+	 * Stops recording the entries in the journal, attached by
+	 * {@link #attachJournal(HistoryJournal, String, IProgressMonitor)}.
+	 * 
+	 * The journal is compacted if required.
+	 */
+	public void detachJournal() {
+		fLock.writeLock().lock();
+		try {
+			if (fJournal != null) {
+				compactJournal();
+				fJournal = null;
+			}
+		}
+		finally {
+			fLock.writeLock().unlock();
+		}
+	}
+	
+	private void compactJournal() {
+		if (fJournal.isCompactionRequired(fMaxSize)) {
+			try {
+				fJournal.compact(fMaxSize);
+			}
+			catch (final IOException e) {
+				NicoCorePlugin.log(new Status(IStatus.WARNING, NicoCore.PLUGIN_ID, 0,
+						NLS.bind("An error occurred when compacting the history journal ''{0}''.",
+								fJournal.getFile() ), e ));
+			}
+		}
+	}
+	
 	/**
 	 * Save the history to a text file.
 	 * 
@@ -372,7 +558,7 @@ public class History {
 				
 				if (submitTypes == null || e.fSubmitType == null
 						|| submitTypes.contains(e.fSubmitType)) {
-					buffer.append(e.fCommand);
+					buffer.append(e.getCommand());
 					buffer.append(newLine);
 				}
 				e = e.fNewer;
@@ -421,6 +607,17 @@ public class History {
 			}
 			fNewest = newEntry;
 			
+			if (fJournal != null) {
+				try {
+					fJournal.append(stamp, submitType, command);
+				}
+				catch (final IOException e) {
+					NicoCorePlugin.log(new Status(IStatus.ERROR, NicoCore.PLUGIN_ID, 0,
+							"An error occurred when writing to the history journal. The journal is detached.", e ));
+					fJournal = null;
+				}
+			}
+			
 			if (fCurrentSize == fMaxSize) {
 				removedEntry = fOldest;
 				fOldest = fOldest.dispose();
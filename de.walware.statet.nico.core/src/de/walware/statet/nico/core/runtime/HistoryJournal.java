@@ -0,0 +1,445 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.nico.core.runtime;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Append-only binary journal of a {@link History}.
+ * 
+ * Format: header (magic, version, stamp of the text file), followed by the records:
+ * <code>long</code> timestamp, <code>byte</code> submit type (ordinal + 1, <code>0</code> for
+ * unknown), <code>int</code> length and the command in UTF-8. An incomplete record at the end
+ * (e.g. after a crash) is ignored.
+ * 
+ * The journal can be shared by several consoles (also in different processes). All accesses
+ * are synchronized by a lock on the file <code>&lt;journal&gt;.lock</code>; the journal is
+ * replaced only by a complete new file. The records are read into the heap; the commands are
+ * decoded not until they are requested. If the journal contains much more records than the
+ * history (see {@link #isCompactionRequired(int)}), only the newest records are kept.
+ * 
+ * The stamp (length and modification time) of the text file written in parallel is recorded
+ * when the journal is imported from the text file and each time the text file is written
+ * ({@link #updateTextStamp()}). If the text file doesn't match the stamp, it was modified by
+ * someone else and the journal must be imported again.
+ */
+public final class HistoryJournal {
+	
+	
+	interface RecordHandler {
+		
+		void add(long timeStamp, SubmitType submitType, ByteBuffer data, int offset, int length);
+		
+	}
+	
+	
+	private static final int MAGIC= 0x4E484A4E; // NHJN
+	private static final int VERSION= 2;
+	private static final int STAMP_OFFSET= 8;
+	private static final int HEADER_SIZE= 8 + 8 + 8;
+	private static final int RECORD_HEADER_SIZE= 8 + 1 + 4;
+	
+	private static final SubmitType[] SUBMIT_TYPES= SubmitType.values();
+	
+	/** file locks are held by the JVM, so the consoles of this JVM are synchronized by monitors */
+	private static final ConcurrentHashMap<String, Object> FILE_MONITORS= new ConcurrentHashMap<>();
+	
+	
+	private static SubmitType decodeSubmitType(final byte b) {
+		return (b > 0 && b <= SUBMIT_TYPES.length) ? SUBMIT_TYPES[b - 1] : null;
+	}
+	
+	private static byte encodeSubmitType(final SubmitType submitType) {
+		return (submitType != null) ? (byte) (submitType.ordinal() + 1) : 0;
+	}
+	
+	private static Object getFileMonitor(final File file) {
+		final String key= file.getAbsolutePath();
+		final Object monitor= new Object();
+		final Object existing= FILE_MONITORS.putIfAbsent(key, monitor);
+		return (existing != null) ? existing : monitor;
+	}
+	
+	private static boolean isValidHeader(final ByteBuffer data) {
+		return (data.limit() >= HEADER_SIZE
+				&& data.getInt(0) == MAGIC && data.getInt(4) == VERSION );
+	}
+	
+	
+	private final File file;
+	private final File textFile;
+	private final Path lockPath;
+	private final Object fileMonitor;
+	
+	private int recordCount;
+	
+	
+	/**
+	 * Creates a new journal.
+	 * 
+	 * @param file the file of the journal
+	 * @param textFile the text file written in parallel or <code>null</code>
+	 */
+	public HistoryJournal(final File file, final File textFile) {
+		this.file= file;
+		this.textFile= textFile;
+		this.lockPath= new File(file.getPath() + ".lock").toPath(); //$NON-NLS-1$
+		this.fileMonitor= getFileMonitor(file);
+	}
+	
+	
+	public File getFile() {
+		return this.file;
+	}
+	
+	public File getTextFile() {
+		return this.textFile;
+	}
+	
+	boolean exists() {
+		return this.file.isFile() && this.file.length() >= HEADER_SIZE;
+	}
+	
+	private FileChannel openLockChannel() throws IOException {
+		return FileChannel.open(this.lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+	}
+	
+	private ByteBuffer createTextStamp() {
+		final ByteBuffer stamp= ByteBuffer.allocate(16);
+		if (this.textFile != null) {
+			stamp.putLong(this.textFile.length()).putLong(this.textFile.lastModified());
+		}
+		else {
+			stamp.putLong(-1).putLong(-1);
+		}
+		stamp.flip();
+		return stamp;
+	}
+	
+	private boolean isTextStampCurrent(final ByteBuffer header) {
+		if (this.textFile == null) {
+			return true;
+		}
+		final ByteBuffer stamp= createTextStamp();
+		return (header.getLong(STAMP_OFFSET) == stamp.getLong(0)
+				&& header.getLong(STAMP_OFFSET + 8) == stamp.getLong(8) );
+	}
+	
+	private ByteBuffer createHeader() {
+		final ByteBuffer header= ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putInt(VERSION).put(createTextStamp());
+		header.flip();
+		return header;
+	}
+	
+	/**
+	 * Reads the journal and passes the newest records to the handler.
+	 * 
+	 * @param maxCount the maximum number of records to pass
+	 * @param handler the handler for the records, called from oldest to newest
+	 * @return <code>true</code> if the records are read, <code>false</code> if the journal is not
+	 *     current with the text file and must be imported again
+	 * @throws IOException if the journal could not be read or is invalid
+	 */
+	boolean read(final int maxCount, final RecordHandler handler) throws IOException {
+		ByteBuffer data;
+		int[] offsets;
+		synchronized (this.fileMonitor) {
+			try (final FileChannel lockChannel= openLockChannel();
+					final FileLock lock= lockChannel.lock() ) {
+				data= readFile();
+				if (!isTextStampCurrent(data)) {
+					return false;
+				}
+			}
+		}
+		offsets= indexRecords(data);
+		this.recordCount= offsets.length;
+		
+		final int first= Math.max(offsets.length - maxCount, 0);
+		if (first > 0) {
+			// keep only the data of the required records
+			final int start= offsets[first];
+			final int end= getRecordEnd(data, offsets);
+			final ByteBuffer kept= ByteBuffer.allocate(end - start);
+			final ByteBuffer src= data.duplicate();
+			src.limit(end);
+			src.position(start);
+			kept.put(src);
+			data= kept;
+			offsets= Arrays.copyOfRange(offsets, first, offsets.length);
+			for (int i= 0; i < offsets.length; i++) {
+				offsets[i]-= start;
+			}
+		}
+		
+		for (int i= 0; i < offsets.length; i++) {
+			final int recordOffset= offsets[i];
+			handler.add(data.getLong(recordOffset), decodeSubmitType(data.get(recordOffset + 8)),
+					data, recordOffset + RECORD_HEADER_SIZE, data.getInt(recordOffset + 9) );
+		}
+		return true;
+	}
+	
+	private ByteBuffer readFile() throws IOException {
+		try (final FileChannel channel= FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+			final long size= channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("History journal is too large."); //$NON-NLS-1$
+			}
+			final ByteBuffer data= ByteBuffer.allocate((int) size);
+			while (data.hasRemaining() && channel.read(data) >= 0) {
+			}
+			data.flip();
+			if (!isValidHeader(data)) {
+				throw new IOException("Invalid history journal."); //$NON-NLS-1$
+			}
+			return data;
+		}
+	}
+	
+	/**
+	 * Reads the header of the journal.
+	 * 
+	 * @return the header or <code>null</code> if the journal doesn't exist or is invalid
+	 */
+	private ByteBuffer readHeader(final FileChannel channel) throws IOException {
+		final ByteBuffer header= ByteBuffer.allocate(HEADER_SIZE);
+		while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+		}
+		header.flip();
+		return (isValidHeader(header)) ? header : null;
+	}
+	
+	/**
+	 * Returns the offsets of all complete records.
+	 */
+	private static int[] indexRecords(final ByteBuffer data) {
+		int[] offsets= new int[0x1000];
+		int count= 0;
+		int offset= HEADER_SIZE;
+		final int limit= data.limit();
+		while (offset + RECORD_HEADER_SIZE <= limit) {
+			final int length= data.getInt(offset + 9);
+			if (length < 0 || length > limit - offset - RECORD_HEADER_SIZE) {
+				break;
+			}
+			if (count == offsets.length) {
+				offsets= Arrays.copyOf(offsets, count * 2);
+			}
+			offsets[count++]= offset;
+			offset+= RECORD_HEADER_SIZE + length;
+		}
+		return Arrays.copyOf(offsets, count);
+	}
+	
+	private static int getRecordEnd(final ByteBuffer data, final int[] offsets) {
+		if (offsets.length == 0) {
+			return HEADER_SIZE;
+		}
+		final int last= offsets[offsets.length - 1];
+		return last + RECORD_HEADER_SIZE + data.getInt(last + 9);
+	}
+	
+	/**
+	 * Replaces the journal by the specified entries (imported from the text file) and records
+	 * the stamp of the text file.
+	 * 
+	 * If the journal was already imported by another console in the meantime, it is not
+	 * changed.
+	 * 
+	 * @param oldest the oldest entry, followed by its newer entries
+	 * @return <code>true</code> if the journal was replaced, <code>false</code> if it is
+	 *     already current with the text file
+	 */
+	boolean importEntries(final History.Entry oldest) throws IOException {
+		synchronized (this.fileMonitor) {
+			try (final FileChannel lockChannel= openLockChannel();
+					final FileLock lock= lockChannel.lock() ) {
+				if (exists()) {
+					try (final FileChannel channel= FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+						final ByteBuffer header= readHeader(channel);
+						if (header != null && isTextStampCurrent(header)) {
+							return false;
+						}
+					}
+				}
+				writeEntries(oldest);
+				return true;
+			}
+		}
+	}
+	
+	private void writeEntries(final History.Entry oldest) throws IOException {
+		final Path tmpPath= createTmpFile();
+		try {
+			int count= 0;
+			try (final DataOutputStream out= new DataOutputStream(new BufferedOutputStream(
+					Files.newOutputStream(tmpPath), 0x10000 ))) {
+				out.write(createHeader().array());
+				for (History.Entry e= oldest; e != null; e= e.getNewer()) {
+					final byte[] bytes= e.getCommand().getBytes(StandardCharsets.UTF_8);
+					out.writeLong(e.getTimeStamp());
+					out.writeByte(encodeSubmitType(e.getSubmitType()));
+					out.writeInt(bytes.length);
+					out.write(bytes);
+					count++;
+				}
+			}
+			replaceFile(tmpPath);
+			this.recordCount= count;
+		}
+		finally {
+			Files.deleteIfExists(tmpPath);
+		}
+	}
+	
+	/**
+	 * Appends a record to the journal.
+	 */
+	void append(final long timeStamp, final SubmitType submitType, final String command)
+			throws IOException {
+		final byte[] bytes= command.getBytes(StandardCharsets.UTF_8);
+		final ByteBuffer record= ByteBuffer.allocate(RECORD_HEADER_SIZE + bytes.length);
+		record.putLong(timeStamp).put(encodeSubmitType(submitType)).putInt(bytes.length).put(bytes);
+		record.flip();
+		
+		synchronized (this.fileMonitor) {
+			try (final FileChannel lockChannel= openLockChannel();
+					final FileLock lock= lockChannel.lock();
+					final FileChannel channel= FileChannel.open(this.file.toPath(),
+							StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND )) {
+				if (channel.size() == 0) {
+					writeFully(channel, createHeader());
+				}
+				writeFully(channel, record);
+			}
+		}
+		this.recordCount++;
+	}
+	
+	private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+	
+	/**
+	 * Records the current stamp of the text file, e.g. after it was written.
+	 * 
+	 * Has no effect if the journal doesn't exist or is invalid.
+	 */
+	public void updateTextStamp() throws IOException {
+		if (this.textFile == null || !exists()) {
+			return;
+		}
+		synchronized (this.fileMonitor) {
+			try (final FileChannel lockChannel= openLockChannel();
+					final FileLock lock= lockChannel.lock();
+					final FileChannel channel= FileChannel.open(this.file.toPath(),
+							StandardOpenOption.READ, StandardOpenOption.WRITE )) {
+				if (readHeader(channel) != null) {
+					final ByteBuffer stamp= createTextStamp();
+					while (stamp.hasRemaining()) {
+						channel.write(stamp, STAMP_OFFSET + stamp.position());
+					}
+				}
+			}
+		}
+	}
+	
+	boolean isCompactionRequired(final int maxSize) {
+		return (this.recordCount > maxSize * 2);
+	}
+	
+	/**
+	 * Compacts the journal: the newest records of the journal (including the records appended by
+	 * other consoles) are kept. The compaction is skipped if the journal is locked by another
+	 * console.
+	 * 
+	 * @param maxSize the maximum number of records to keep
+	 */
+	void compact(final int maxSize) throws IOException {
+		synchronized (this.fileMonitor) {
+			try (final FileChannel lockChannel= openLockChannel();
+					final FileLock lock= lockChannel.tryLock() ) {
+				if (lock == null) {
+					return;
+				}
+				writeTail(maxSize);
+			}
+		}
+	}
+	
+	private void writeTail(final int maxSize) throws IOException {
+		if (!exists()) {
+			return;
+		}
+		final ByteBuffer data= readFile();
+		final int[] offsets= indexRecords(data);
+		if (offsets.length <= maxSize) {
+			this.recordCount= offsets.length;
+			return;
+		}
+		final Path tmpPath= createTmpFile();
+		try {
+			try (final FileChannel channel= FileChannel.open(tmpPath, StandardOpenOption.WRITE)) {
+				// keep the header including the stamp
+				final ByteBuffer header= data.duplicate();
+				header.limit(HEADER_SIZE);
+				header.position(0);
+				writeFully(channel, header);
+				final ByteBuffer records= data.duplicate();
+				records.limit(getRecordEnd(data, offsets));
+				records.position(offsets[offsets.length - maxSize]);
+				writeFully(channel, records);
+			}
+			replaceFile(tmpPath);
+			this.recordCount= maxSize;
+		}
+		finally {
+			Files.deleteIfExists(tmpPath);
+		}
+	}
+	
+	private Path createTmpFile() throws IOException {
+		return Files.createTempFile(this.file.getAbsoluteFile().getParentFile().toPath(),
+				this.file.getName() + '-', ".tmp" ); //$NON-NLS-1$
+	}
+	
+	private void replaceFile(final Path tmpPath) throws IOException {
+		try {
+			Files.move(tmpPath, this.file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch (final AtomicMoveNotSupportedException e) {
+			Files.move(tmpPath, this.file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING );
+		}
+	}
+	
+}
@@ -613,6 +613,19 @@ public final class Queue implements IQueue {
 		this.nextIdleList.add(runnable);
 	}
 	
+	/**
+	 * Schedules a runnable registered by {@link #addOnIdle(ISystemRunnable, int)} to run again
+	 * when the tool is idle, without resetting the other on-idle runnables.
+	 */
+	void internalRescheduleIdle(final IToolRunnable runnable) {
+		if (runnable == null) {
+			throw new NullPointerException();
+		}
+		if (!this.nextIdleList.contains(runnable)) {
+			this.nextIdleList.add(runnable);
+		}
+	}
+	
 	void internalRemoveIdle(final IToolRunnable runnable) {
 		if (runnable == null) {
 			throw new NullPointerException();
@@ -24,6 +24,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.variables.IDynamicVariable;
 import org.eclipse.debug.core.DebugEvent;
 import org.eclipse.debug.core.DebugPlugin;
@@ -87,6 +88,15 @@ public class ToolWorkspace {
 		
 	}
 	
+	/**
+	 * Refreshes the workspace data if the tool is idle.
+	 * 
+	 * The refreshes are throttled: a refresh is skipped if further runnables are waiting in the
+	 * queue or if the previous refresh finished less than the current delay ago. The delay is
+	 * doubled (up to {@link #AUTO_REFRESH_MAX_DELAY_NANOS}) if a refresh takes longer than the
+	 * time between two refreshes, and halved again otherwise. Skipped refreshes are run by the
+	 * {@link AutoUpdateJob} when the delay expired.
+	 */
 	private class AutoUpdater implements ISystemRunnable {
 		
 		
@@ -118,18 +128,76 @@ public class ToolWorkspace {
 		@Override
 		public void run(final IToolService service,
 				final IProgressMonitor monitor) throws CoreException {
+			final long startNanos= System.nanoTime();
+			if (ToolWorkspace.this.autoRefreshEnabled
+					&& ToolWorkspace.this.autoRefreshEndNanos != 0) {
+				final long elapsedNanos= startNanos - ToolWorkspace.this.autoRefreshEndNanos;
+				if (ToolWorkspace.this.process.getQueue().size() > 0) {
+					ToolWorkspace.this.autoRefreshSuppressedCount++;
+					return; // idle again after the queued runnables
+				}
+				if (elapsedNanos < ToolWorkspace.this.autoRefreshDelayNanos) {
+					ToolWorkspace.this.autoRefreshSuppressedCount++;
+					ToolWorkspace.this.autoUpdateJob.schedule(
+							(ToolWorkspace.this.autoRefreshDelayNanos - elapsedNanos) / 1000000 + 1 );
+					return;
+				}
+			}
+			
 			ToolWorkspace.this.isRefreshing= true;
 			try {
 				autoRefreshFromTool((IConsoleService) service, monitor);
 			}
 			finally {
 				ToolWorkspace.this.isRefreshing= false;
+				
+				final long endNanos= System.nanoTime();
+				if (ToolWorkspace.this.autoRefreshEndNanos != 0) {
+					updateAutoRefreshDelay(endNanos - startNanos,
+							startNanos - ToolWorkspace.this.autoRefreshEndNanos );
+				}
+				ToolWorkspace.this.autoRefreshEndNanos= endNanos;
+				ToolWorkspace.this.autoRefreshCount++;
+			}
+			if (ToolWorkspace.this.autoRefreshSuppressedCount > 0) {
+				addPropertyChanged("AutoRefresh.counts", null);
 			}
 			firePropertiesChanged();
 		}
 		
 	}
 	
+	/**
+	 * Reschedules the {@link AutoUpdater} after a skipped refresh.
+	 */
+	private class AutoUpdateJob extends Job {
+		
+		
+		public AutoUpdateJob() {
+			super("Auto Update");
+			setSystem(true);
+		}
+		
+		
+		@Override
+		protected IStatus run(final IProgressMonitor monitor) {
+			final Queue queue= ToolWorkspace.this.process.getQueue();
+			synchronized (queue) {
+				final ToolStatus status= ToolWorkspace.this.process.getToolStatus();
+				if (status.isWaiting()) {
+					queue.internalRescheduleIdle(ToolWorkspace.this.autoUpdater);
+					queue.notifyAll();
+				}
+			}
+			return Status.OK_STATUS;
+		}
+		
+	}
+	
+	
+	private static final long AUTO_REFRESH_MIN_DELAY_NANOS= 100000000L;
+	private static final long AUTO_REFRESH_MAX_DELAY_NANOS= 5000000000L;
+	
 	
 	public static final int DETAIL_PROMPT= 1;
 	public static final int DETAIL_LINE_SEPARTOR= 2;
@@ -156,6 +224,13 @@ public class ToolWorkspace {
 	
 	private boolean isRefreshing;
 	
+	private final AutoUpdater autoUpdater= new AutoUpdater();
+	private final AutoUpdateJob autoUpdateJob= new AutoUpdateJob();
+	private long autoRefreshEndNanos;
+	private long autoRefreshDelayNanos= AUTO_REFRESH_MIN_DELAY_NANOS;
+	private volatile int autoRefreshCount;
+	private volatile int autoRefreshSuppressedCount;
+	
 	private final ImList<IDynamicVariable> stringVariables;
 	
 	private int changeFlags;
@@ -174,7 +249,7 @@ public class ToolWorkspace {
 		controlSetFileSeparator(fileSeparator);
 		
 		controller.addToolStatusListener(new ControllerListener());
-		controller.getQueue().addOnIdle(new AutoUpdater(), 5000);
+		controller.getQueue().addOnIdle(this.autoUpdater, 5000);
 		
 		this.stringVariables= ImCollections.<IDynamicVariable>newList(
 				new DateVariable(NicoVariables.SESSION_STARTUP_DATE_VARIABLE) {
@@ -241,6 +316,31 @@ public class ToolWorkspace {
 	}
 	
 	
+	/**
+	 * Returns the number of auto refreshes run since the start of the tool.
+	 */
+	public int getAutoRefreshCount() {
+		return this.autoRefreshCount;
+	}
+	
+	/**
+	 * Returns the number of auto refreshes skipped by the throttling since the start of the tool.
+	 */
+	public int getAutoRefreshSuppressedCount() {
+		return this.autoRefreshSuppressedCount;
+	}
+	
+	private void updateAutoRefreshDelay(final long refreshNanos, final long intervalNanos) {
+		if (refreshNanos > intervalNanos) {
+			this.autoRefreshDelayNanos= Math.min(this.autoRefreshDelayNanos * 2,
+					AUTO_REFRESH_MAX_DELAY_NANOS );
+		}
+		else if (this.autoRefreshDelayNanos > AUTO_REFRESH_MIN_DELAY_NANOS) {
+			this.autoRefreshDelayNanos= Math.max(this.autoRefreshDelayNanos / 2,
+					AUTO_REFRESH_MIN_DELAY_NANOS );
+		}
+	}
+	
 	protected void autoRefreshFromTool(final IConsoleService s, final IProgressMonitor monitor) throws CoreException {
 		if (this.autoRefreshEnabled) {
 			refreshFromTool(0, s, monitor);
@@ -504,6 +604,7 @@ public class ToolWorkspace {
 	}
 	
 	protected void dispose() {
+		this.autoUpdateJob.cancel();
 	}
 	
 }
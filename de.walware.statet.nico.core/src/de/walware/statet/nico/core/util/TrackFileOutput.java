@@ -0,0 +1,397 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.nico.core.util;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import de.walware.ecommons.io.FileUtil;
+
+import de.walware.statet.nico.core.NicoCore;
+import de.walware.statet.nico.internal.core.NicoCorePlugin;
+
+
+/**
+ * Output of a {@link TrackWriter} to its file.
+ * 
+ * The text is passed by a bounded queue to a writer thread, so the streams of the console are
+ * never blocked by the file system. If the queue is full, the text is dropped and a note is
+ * written to the file instead.
+ * 
+ * The file is compressed (gzip) if its name ends with <code>.gz</code>. If a maximum size or
+ * interval is set, the file is rotated: the current file is renamed to <code>name.1</code>
+ * (<code>name.1.gz</code>), older files are shifted up to {@link #BACKUP_COUNT}.
+ */
+abstract class TrackFileOutput {
+	
+	
+	private static final int QUEUE_CAPACITY= 0x1000;
+	
+	private static final int BACKUP_COUNT= 5;
+	
+	private static final long FLUSH_TIMEOUT_MILLIS= 1000;
+	
+	private static final String COMPRESSED_EXT= ".gz"; //$NON-NLS-1$
+	
+	private static final Object CLOSE= new Object();
+	
+	
+	private static class FlushRequest {
+		
+		private final CountDownLatch done= new CountDownLatch(1);
+		
+	}
+	
+	private static class CountingOutputStream extends FilterOutputStream {
+		
+		private long count;
+		
+		public CountingOutputStream(final OutputStream out, final long count) {
+			super(out);
+			this.count= count;
+		}
+		
+		@Override
+		public void write(final int b) throws IOException {
+			this.out.write(b);
+			this.count++;
+		}
+		
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			this.out.write(b, off, len);
+			this.count+= len;
+		}
+		
+	}
+	
+	
+	private final IFileStore file;
+	private final String encoding;
+	private final boolean compress;
+	
+	private final long rotateSize;
+	private final long rotateIntervalMillis;
+	
+	private final BlockingQueue<Object> queue= new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	private final Thread thread;
+	
+	private CountingOutputStream fileStream;
+	private Writer writer;
+	private long openMillis;
+	
+	private volatile boolean closed;
+	
+	private final AtomicLong droppedCount= new AtomicLong();
+	private long reportedDroppedCount;
+	
+	private volatile long writeCount;
+	private volatile long writeTotalNanos;
+	private volatile long writeMaxNanos;
+	
+	
+	/**
+	 * Creates a new output.
+	 * 
+	 * @param file the file to write to
+	 * @param encoding the encoding of the file
+	 * @param rotateSize the maximum size of the file in bytes, <code>0</code> for no limit
+	 * @param rotateIntervalMillis the maximum time a file is used, <code>0</code> for no limit
+	 */
+	public TrackFileOutput(final IFileStore file, final String encoding,
+			final long rotateSize, final long rotateIntervalMillis) {
+		this.file= file;
+		this.encoding= encoding;
+		this.compress= file.getName().endsWith(COMPRESSED_EXT);
+		this.rotateSize= rotateSize;
+		this.rotateIntervalMillis= rotateIntervalMillis;
+		
+		this.thread= new Thread("Track Writer - " + file.getName()) { //$NON-NLS-1$
+			@Override
+			public void run() {
+				TrackFileOutput.this.run();
+			}
+		};
+		this.thread.setDaemon(true);
+	}
+	
+	
+	public boolean isCompressed() {
+		return this.compress;
+	}
+	
+	/**
+	 * Opens the file and starts the writer thread.
+	 * 
+	 * @param fileMode the mode to open the file (see {@link IFileStore#openOutputStream(int, org.eclipse.core.runtime.IProgressMonitor)})
+	 */
+	public void open(final int fileMode) throws CoreException, IOException {
+		openFile(fileMode);
+		if (isFileChangeTracked()) {
+			onFileChanged();
+		}
+		this.thread.start();
+	}
+	
+	private void openFile(final int fileMode) throws CoreException, IOException {
+		final long length= ((fileMode & EFS.APPEND) != 0) ?
+				Math.max(this.file.fetchInfo().getLength(), 0L) : 0L;
+		final OutputStream outputStream= this.file.openOutputStream(fileMode, null);
+		try {
+			this.fileStream= new CountingOutputStream(outputStream, length);
+			final OutputStream textStream= (this.compress) ?
+					new GZIPOutputStream(this.fileStream, 0x2000, true) : this.fileStream;
+			if (length == 0L) {
+				FileUtil.prepareTextOutput(textStream, this.encoding);
+			}
+			this.writer= new BufferedWriter(new OutputStreamWriter(textStream, this.encoding));
+			this.openMillis= System.currentTimeMillis();
+		}
+		catch (final IOException e) {
+			try {
+				outputStream.close();
+			}
+			catch (final IOException ignore) {}
+			throw e;
+		}
+	}
+	
+	
+	/**
+	 * Appends the text to the queue of the writer thread. Never blocks.
+	 * 
+	 * @param text the text to write
+	 */
+	public void write(final String text) {
+		if (this.closed) {
+			return;
+		}
+		if (!this.queue.offer(text)) {
+			this.droppedCount.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * Waits (limited) until the text written so far is passed to the file system.
+	 */
+	public void flush() {
+		if (this.closed) {
+			return;
+		}
+		final FlushRequest request= new FlushRequest();
+		if (this.queue.offer(request)) {
+			try {
+				request.done.await(FLUSH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			}
+			catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * Writes the remaining text in the queue, closes the file and stops the writer thread.
+	 */
+	public void close() {
+		if (this.closed) {
+			return;
+		}
+		this.closed= true;
+		if (Thread.currentThread() == this.thread) {
+			return;
+		}
+		if (!this.thread.isAlive()) {
+			closeWriter();
+			return;
+		}
+		try {
+			this.queue.put(CLOSE);
+			this.thread.join(FLUSH_TIMEOUT_MILLIS * 5);
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Is called in the writer thread, if writing to the file failed. The output is already
+	 * closed.
+	 * 
+	 * @param e the exception
+	 */
+	protected abstract void onError(Exception e);
+	
+	/**
+	 * Returns if the changes of the file are tracked. If <code>true</code>, the writer is flushed
+	 * after each write operation and {@link #onFileChanged()} is called.
+	 * 
+	 * @return <code>true</code> to track the changes, default is <code>false</code>
+	 */
+	protected boolean isFileChangeTracked() {
+		return false;
+	}
+	
+	/**
+	 * Is called (usually in the writer thread), if the file was opened, written or closed and the
+	 * changes are tracked (see {@link #isFileChangeTracked()}).
+	 */
+	protected void onFileChanged() {
+	}
+	
+	
+	/** Number of write operations to the file */
+	public long getWriteCount() {
+		return this.writeCount;
+	}
+	
+	/** Sum of the duration of all write operations to the file in nanoseconds */
+	public long getWriteTotalNanos() {
+		return this.writeTotalNanos;
+	}
+	
+	/** Maximum duration of a single write operation to the file in nanoseconds */
+	public long getWriteMaxNanos() {
+		return this.writeMaxNanos;
+	}
+	
+	/** Number of text chunks dropped because the queue was full */
+	public long getDroppedCount() {
+		return this.droppedCount.get();
+	}
+	
+	
+	private void run() {
+		try {
+			while (true) {
+				Object item;
+				try {
+					item= this.queue.take();
+				}
+				catch (final InterruptedException e) {
+					continue;
+				}
+				
+				final long begin= System.nanoTime();
+				do {
+					if (item == CLOSE) {
+						closeWriter();
+						return;
+					}
+					if (item instanceof FlushRequest) {
+						this.writer.flush();
+						((FlushRequest) item).done.countDown();
+					}
+					else {
+						writeDroppedInfo();
+						this.writer.write((String) item);
+					}
+				} while ((item= this.queue.poll()) != null);
+				checkRotation();
+				if (isFileChangeTracked()) {
+					this.writer.flush();
+					onFileChanged();
+				}
+				
+				final long duration= System.nanoTime() - begin;
+				this.writeCount++;
+				this.writeTotalNanos+= duration;
+				if (duration > this.writeMaxNanos) {
+					this.writeMaxNanos= duration;
+				}
+			}
+		}
+		catch (final IOException | CoreException | RuntimeException e) {
+			this.closed= true;
+			closeWriter();
+			onError(e);
+		}
+	}
+	
+	private void writeDroppedInfo() throws IOException {
+		final long count= this.droppedCount.get();
+		if (count != this.reportedDroppedCount) {
+			this.writer.write("[...] (dropped " + (count - this.reportedDroppedCount) + " blocks)\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			this.reportedDroppedCount= count;
+		}
+	}
+	
+	private void checkRotation() throws CoreException, IOException {
+		if ((this.rotateSize > 0 && this.fileStream.count >= this.rotateSize)
+				|| (this.rotateIntervalMillis > 0
+						&& System.currentTimeMillis() - this.openMillis >= this.rotateIntervalMillis )) {
+			this.writer.close();
+			this.writer= null;
+			
+			for (int i= BACKUP_COUNT - 1; i > 0; i--) {
+				final IFileStore backup= getBackupFile(i);
+				if (backup.fetchInfo().exists()) {
+					backup.move(getBackupFile(i + 1), EFS.OVERWRITE, null);
+				}
+			}
+			this.file.move(getBackupFile(1), EFS.OVERWRITE, null);
+			
+			openFile(EFS.NONE);
+		}
+	}
+	
+	private IFileStore getBackupFile(final int idx) {
+		final String name= this.file.getName();
+		final String backupName= (this.compress) ?
+				name.substring(0, name.length() - COMPRESSED_EXT.length()) + '.' + idx + COMPRESSED_EXT :
+				name + '.' + idx;
+		return this.file.getParent().getChild(backupName);
+	}
+	
+	private void closeWriter() {
+		final Writer writer= this.writer;
+		if (writer != null) {
+			this.writer= null;
+			try {
+				writer.close();
+			}
+			catch (final IOException e) {
+				NicoCorePlugin.log(new Status(IStatus.ERROR, NicoCore.PLUGIN_ID, -1,
+						"An error occurred when closing the tracking file.", e ));
+			}
+			if (isFileChangeTracked()) {
+				onFileChanged();
+			}
+		}
+		releaseQueue();
+	}
+	
+	private void releaseQueue() {
+		Object item;
+		while ((item= this.queue.poll()) != null) {
+			if (item instanceof FlushRequest) {
+				((FlushRequest) item).done.countDown();
+			}
+		}
+	}
+	
+}
@@ -11,15 +11,13 @@
 
 package de.walware.statet.nico.core.util;
 
-import java.io.BufferedWriter;
+import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 
+import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -37,6 +35,8 @@ import de.walware.ecommons.variables.core.VariableText;
 import de.walware.ecommons.variables.core.WrappedDynamicVariable;
 
 import de.walware.statet.nico.core.NicoCore;
+import de.walware.statet.nico.core.runtime.History;
+import de.walware.statet.nico.core.runtime.HistoryJournal;
 import de.walware.statet.nico.core.runtime.IConsoleService;
 import de.walware.statet.nico.core.runtime.ITrack;
 import de.walware.statet.nico.core.runtime.SubmitType;
@@ -48,11 +48,20 @@ import de.walware.statet.nico.core.runtime.ToolWorkspace;
 import de.walware.statet.nico.internal.core.NicoCorePlugin;
 
 
+/**
+ * Writes the configured streams of a tool to a tracking file.
+ * 
+ * The text is written asynchronously (see {@link #getWriteMaxNanos()} and
+ * {@link #getDroppedCount()} for statistics), the file is compressed if its name ends with
+ * <code>.gz</code> and rotated as specified in the configuration.
+ */
 public class TrackWriter implements ITrack, IStreamListener, IDisposable {
 	
 	
 	private static final String TRUNCATE_INFO = "[...] (truncated)\n\n";
 	
+	private static final String HISTORY_JOURNAL_EXT = ".journal"; //$NON-NLS-1$
+	
 	public static String getTruncateInfo() {
 		return TRUNCATE_INFO;
 	}
@@ -85,7 +94,10 @@ public class TrackWriter implements ITrack, IStreamListener, IDisposable {
 	private final TrackingConfiguration fConfig;
 	
 	private IFileStore fStoreFile;
-	private Writer fOutputWriter;
+	private TrackFileOutput fOutput;
+	
+	private History fJournalHistory;
+	private HistoryJournal fJournal;
 	
 	private IStreamListener fInputListener;
 	private IStreamListener fOutputListener;
@@ -105,7 +117,6 @@ public class TrackWriter implements ITrack, IStreamListener, IDisposable {
 	
 	public IStatus init(final IProgressMonitor monitor)
 			throws CoreException {
-		OutputStream outputStream = null;
 		try {
 			try {
 				fStoreFile = resolveTrackingPath(fConfig.getFilePath());
@@ -114,17 +125,47 @@ public class TrackWriter implements ITrack, IStreamListener, IDisposable {
 				throw new CoreException(new Status(IStatus.ERROR, NicoCore.PLUGIN_ID, -1, "Failed to resolve path of the tracking file.", e));
 			}
 			
+			fOutput = new TrackFileOutput(fStoreFile, fConfig.getFileEncoding(),
+					fConfig.getFileRotateSize() * 1024L,
+					fConfig.getFileRotateInterval() * 60000L ) {
+				@Override
+				protected void onError(final Exception e) {
+					NicoCorePlugin.log(new Status(IStatus.ERROR, NicoCore.PLUGIN_ID, -1, "An error occurred when writing to the tracking file. Tracking is stopped.", e));
+					TrackWriter.this.onError();
+				}
+				@Override
+				protected boolean isFileChangeTracked() {
+					return (fJournal != null);
+				}
+				@Override
+				protected void onFileChanged() {
+					TrackWriter.this.onFileChanged();
+				}
+			};
+			
 			if (fConfig.getId().equals(HistoryTrackingConfiguration.HISTORY_TRACKING_ID)
-					&& ((HistoryTrackingConfiguration) fConfig).getLoadHistory()
-					&& fStoreFile.fetchInfo().exists()) {
-				fController.getTool().getHistory().load(fStoreFile, fConfig.getFileEncoding(), false, monitor);
+					&& ((HistoryTrackingConfiguration) fConfig).getLoadHistory()) {
+				final History history = fController.getTool().getHistory();
+				final File localFile = fStoreFile.toLocalFile(EFS.NONE, monitor);
+				if (localFile != null) {
+					// binary journal, the text file is used only to create it
+					final HistoryJournal journal = new HistoryJournal(
+							new File(localFile.getPath() + HISTORY_JOURNAL_EXT),
+							(!fOutput.isCompressed()) ? localFile : null );
+					final IStatus status = history.attachJournal(journal,
+							fConfig.getFileEncoding(), monitor );
+					if (status.getSeverity() == IStatus.ERROR) {
+						NicoCorePlugin.log(status);
+					}
+					fJournalHistory = history;
+					fJournal = journal;
+				}
+				else if (!fOutput.isCompressed() && fStoreFile.fetchInfo().exists()) {
+					history.load(fStoreFile, fConfig.getFileEncoding(), false, monitor);
+				}
 			}
 			
-			outputStream = fStoreFile.openOutputStream(fConfig.getFileMode(), monitor);
-			if (fStoreFile.fetchInfo().getLength() <= 0L) {
-				FileUtil.prepareTextOutput(outputStream, fConfig.getFileEncoding());
-			}
-			fOutputWriter = new BufferedWriter(new OutputStreamWriter(outputStream, fConfig.getFileEncoding()));
+			fOutput.open(fConfig.getFileMode());
 			
 			final EnumSet<SubmitType> submitTypes = fConfig.getSubmitTypes();
 			final ToolStreamProxy streams = fController.getStreams();
@@ -169,25 +210,13 @@ public class TrackWriter implements ITrack, IStreamListener, IDisposable {
 			
 			if (fConfig.getPrependTimestamp()) {
 				final ToolProcess process = fController.getTool();
-				final String comment = process.createTimestampComment(process.getConnectionTimestamp());
-				try {
-					fOutputWriter.write(comment);
-				}
-				catch (final Exception e) {
-					onError();
-					throw e;
-				}
+				fOutput.write(process.createTimestampComment(process.getConnectionTimestamp()));
 			}
 			
 			return Status.OK_STATUS;
 		}
 		catch (final Exception e) {
 			onError();
-			if (outputStream != null) {
-				try {
-					outputStream.close();
-				} catch (final IOException ignore) {}
-			}
 			return new Status(IStatus.WARNING, NicoCore.PLUGIN_ID, -1, NLS.bind("Could not initialize tracking ''{0}''.", fConfig.getName()), e);
 		}
 	}
@@ -200,13 +229,7 @@ public class TrackWriter implements ITrack, IStreamListener, IDisposable {
 	@Override
 	public void streamAppended(final String text, final IStreamMonitor monitor) {
 		fTruncateCurrent = 0;
-		try {
-			fOutputWriter.write(text);
-		}
-		catch (final IOException e) {
-			NicoCorePlugin.log(new Status(IStatus.ERROR, NicoCore.PLUGIN_ID, -1, "An error occurred when writing to the tracking file. Tracking is stopped.", e));
-			onError();
-		}
+		fOutput.write(text);
 	}
 	
 	private void streamAppendedTruncateOutput(String text) {
@@ -231,27 +254,24 @@ public class TrackWriter implements ITrack, IStreamListener, IDisposable {
 				}
 			}
 		}
-		try {
-			fOutputWriter.write(text);
-			if (text2 != null) {
-				fOutputWriter.write(text2);
-			}
-		}
-		catch (final IOException e) {
-			NicoCorePlugin.log(new Status(IStatus.ERROR, NicoCore.PLUGIN_ID, -1, "An error occurred when writing to the tracking file. Tracking is stopped.", e));
-			onError();
+		fOutput.write(text);
+		if (text2 != null) {
+			fOutput.write(text2);
 		}
 	}
 	
 	private void streamAppendedNL(final String text) {
 		fTruncateCurrent = 0;
+		fOutput.write(text + '\n');
+	}
+	
+	private void onFileChanged() {
 		try {
-			fOutputWriter.write(text);
-			fOutputWriter.write('\n');
+			// the text file is written by this console, so the journal is still current
+			fJournal.updateTextStamp();
 		}
 		catch (final IOException e) {
-			NicoCorePlugin.log(new Status(IStatus.ERROR, NicoCore.PLUGIN_ID, -1, "An error occurred when writing to the tracking file. Tracking is stopped.", e));
-			onError();
+			NicoCorePlugin.log(new Status(IStatus.WARNING, NicoCore.PLUGIN_ID, -1, "An error occurred when updating the history journal.", e));
 		}
 	}
 	
@@ -264,31 +284,19 @@ public class TrackWriter implements ITrack, IStreamListener, IDisposable {
 		if (fOutputListener != null) {
 			streams.getOutputStreamMonitor().removeListener(fOutputListener);
 			streams.getErrorStreamMonitor().removeListener(this);
-		}
-		if (fOutputWriter != null) {
-			try {
-				fOutputWriter.close();
-			}
-			catch (final IOException ignore) {}
-			finally {
-				fOutputWriter = null;
-			}
+			streams.getSystemOutputMonitor().removeListener(fOutputListener);
 		}
 		dispose();
 	}
 	
 	@Override
 	public void dispose() {
-		if (fOutputWriter != null) {
-			try {
-				fOutputWriter.close();
-			}
-			catch (final IOException e) {
-				NicoCorePlugin.log(new Status(IStatus.ERROR, NicoCore.PLUGIN_ID, -1, "An error occurred when closing the tracking file. Tracking is stopped.", e));
-			}
-			finally {
-				fOutputWriter = null;
-			}
+		if (fOutput != null) {
+			fOutput.close();
+		}
+		if (fJournalHistory != null) {
+			fJournalHistory.detachJournal();
+			fJournalHistory = null;
 		}
 	}
 	
@@ -299,18 +307,56 @@ public class TrackWriter implements ITrack, IStreamListener, IDisposable {
 	
 	@Override
 	public void flush() {
-		final Writer writer = fOutputWriter;
-		if (writer != null) {
-			try {
-				writer.flush();
-			}
-			catch (final IOException e) {
-			}
+		final TrackFileOutput output = fOutput;
+		if (output != null) {
+			output.flush();
 		}
 	}
+	
 	@Override
 	public IFileStore getFile() {
 		return fStoreFile;
 	}
 	
+	
+	/**
+	 * Returns the number of write operations to the file.
+	 * 
+	 * @return the count
+	 */
+	public long getWriteCount() {
+		final TrackFileOutput output = fOutput;
+		return (output != null) ? output.getWriteCount() : 0;
+	}
+	
+	/**
+	 * Returns the sum of the duration of all write operations to the file.
+	 * 
+	 * @return the duration in nanoseconds
+	 */
+	public long getWriteTotalNanos() {
+		final TrackFileOutput output = fOutput;
+		return (output != null) ? output.getWriteTotalNanos() : 0;
+	}
+	
+	/**
+	 * Returns the maximum duration of a single write operation to the file.
+	 * 
+	 * @return the duration in nanoseconds
+	 */
+	public long getWriteMaxNanos() {
+		final TrackFileOutput output = fOutput;
+		return (output != null) ? output.getWriteMaxNanos() : 0;
+	}
+	
+	/**
+	 * Returns the number of text blocks not written because the writer couldn't keep up.
+	 * 
+	 * @return the count
+	 */
+	public long getDroppedCount() {
+		final TrackFileOutput output = fOutput;
+		return (output != null) ? output.getDroppedCount() : 0;
+	}
+	
 }
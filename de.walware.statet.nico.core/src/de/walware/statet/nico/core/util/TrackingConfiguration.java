@@ -41,6 +41,8 @@ public class TrackingConfiguration extends AbstractSettingsModelObject {
 	
 	private String fFilePath;
 	private int fFileMode;
+	private int fFileRotateSize;
+	private int fFileRotateInterval;
 	
 	private boolean fPrependTimestamp;
 	
@@ -66,6 +68,8 @@ public class TrackingConfiguration extends AbstractSettingsModelObject {
 		fSubmitTypes = template.fSubmitTypes;
 		fFilePath = template.fFilePath;
 		fFileMode = template.fFileMode;
+		fFileRotateSize = template.fFileRotateSize;
+		fFileRotateInterval = template.fFileRotateInterval;
 		fPrependTimestamp = template.fPrependTimestamp;
 	}
 	
@@ -80,6 +84,8 @@ public class TrackingConfiguration extends AbstractSettingsModelObject {
 		setSubmitTypes(SubmitType.getDefaultSet());
 		setFilePath(""); //$NON-NLS-1$
 		setFileMode(DEFAULT_FILE_MODE);
+		setFileRotateSize(0);
+		setFileRotateInterval(0);
 		setPrependTimestamp(true);
 	}
 	
@@ -188,6 +194,36 @@ public class TrackingConfiguration extends AbstractSettingsModelObject {
 		firePropertyChange("fileMode", oldValue, mode);
 	}
 	
+	/**
+	 * Returns the size of the file, when it is rotated.
+	 * 
+	 * @return the size in KiB, <code>0</code> for no rotation by size
+	 */
+	public int getFileRotateSize() {
+		return fFileRotateSize;
+	}
+	
+	public void setFileRotateSize(final int size) {
+		final int oldValue = fFileRotateSize;
+		fFileRotateSize = size;
+		firePropertyChange("fileRotateSize", oldValue, size);
+	}
+	
+	/**
+	 * Returns the time after the file is rotated.
+	 * 
+	 * @return the interval in minutes, <code>0</code> for no rotation by time
+	 */
+	public int getFileRotateInterval() {
+		return fFileRotateInterval;
+	}
+	
+	public void setFileRotateInterval(final int interval) {
+		final int oldValue = fFileRotateInterval;
+		fFileRotateInterval = interval;
+		firePropertyChange("fileRotateInterval", oldValue, interval);
+	}
+	
 	public String getFileEncoding() {
 		return "UTF-8"; //$NON-NLS-1$
 	}
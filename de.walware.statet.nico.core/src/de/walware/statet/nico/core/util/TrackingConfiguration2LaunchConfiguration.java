@@ -34,6 +34,8 @@ public class TrackingConfiguration2LaunchConfiguration {
 	public static final String SUBMIT_TYPES = "SubmitTypes.ids"; //$NON-NLS-1$
 	public static final String FILE_PATH = "File.path"; //$NON-NLS-1$
 	public static final String FILE_MODE = "File.mode"; //$NON-NLS-1$
+	public static final String FILE_ROTATE_SIZE = "File.Rotate.size"; //$NON-NLS-1$
+	public static final String FILE_ROTATE_INTERVAL = "File.Rotate.interval"; //$NON-NLS-1$
 	public static final String PREPEND_TIMESTAMP = "Prepend.Timestamp.enable"; //$NON-NLS-1$
 	
 	public static final String LOAD_HISTORY = "History.LoadAtStartup.enable"; //$NON-NLS-1$
@@ -65,6 +67,8 @@ public class TrackingConfiguration2LaunchConfiguration {
 		
 		trackingConfig.setFilePath(launchConfig.getAttribute(id+'.'+FILE_PATH, "")); //$NON-NLS-1$
 		trackingConfig.setFileMode(launchConfig.getAttribute(id+'.'+FILE_MODE, TrackingConfiguration.DEFAULT_FILE_MODE));
+		trackingConfig.setFileRotateSize(launchConfig.getAttribute(id+'.'+FILE_ROTATE_SIZE, 0));
+		trackingConfig.setFileRotateInterval(launchConfig.getAttribute(id+'.'+FILE_ROTATE_INTERVAL, 0));
 		
 		trackingConfig.setPrependTimestamp(launchConfig.getAttribute(id+'.'+PREPEND_TIMESTAMP, false));
 		
@@ -95,6 +99,8 @@ public class TrackingConfiguration2LaunchConfiguration {
 		
 		launchConfig.setAttribute(id+'.'+FILE_PATH, trackingConfig.getFilePath());
 		launchConfig.setAttribute(id+'.'+FILE_MODE, trackingConfig.getFileMode());
+		launchConfig.setAttribute(id+'.'+FILE_ROTATE_SIZE, trackingConfig.getFileRotateSize());
+		launchConfig.setAttribute(id+'.'+FILE_ROTATE_INTERVAL, trackingConfig.getFileRotateInterval());
 		
 		launchConfig.setAttribute(id+'.'+PREPEND_TIMESTAMP, trackingConfig.getPrependTimestamp());
 		
@@ -34,6 +34,7 @@ import org.eclipse.jface.text.source.AnnotationModel;
 import org.eclipse.jface.text.source.ISourceViewer;
 import org.eclipse.jface.viewers.ISelectionChangedListener;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.StyledText;
 import org.eclipse.swt.custom.VerifyKeyListener;
@@ -302,7 +303,13 @@ public class ConsolePageEditor implements ISettingsChangedHandler, ISourceEditor
 			if (!fMessageSetted) {
 				final IStatusLineManager manager = fConsolePage.getSite().getActionBars().getStatusLineManager();
 				if (manager != null) {
-					final String path = FileUtil.toString(fConsolePage.getTool().getWorkspaceData().getWorkspaceDir());
+					final ToolWorkspace workspace = fConsolePage.getTool().getWorkspaceData();
+					String path = FileUtil.toString(workspace.getWorkspaceDir());
+					if (path != null && workspace.getAutoRefreshSuppressedCount() > 0) {
+						path = NLS.bind(Messages.Console_AutoRefresh_status,
+								new Object[] { path, workspace.getAutoRefreshCount(),
+										workspace.getAutoRefreshSuppressedCount() });
+					}
 					fMessage = path;
 					manager.setMessage(path);
 				}
@@ -585,7 +592,7 @@ public class ConsolePageEditor implements ISettingsChangedHandler, ISourceEditor
 		fWorkspaceListener = new ToolWorkspace.Listener() {
 			@Override
 			public void propertyChanged(final ToolWorkspace workspace, final Map<String, Object> properties) {
-				if (properties.containsKey("wd")) {
+				if (properties.containsKey("wd") || properties.containsKey("AutoRefresh.counts")) {
 					UIAccess.getDisplay(null).asyncExec(new Runnable() {
 						@Override
 						public void run() {
@@ -488,15 +488,23 @@ public class RWorkspace extends ToolWorkspace {
 		monitor.subTask("Update Workspace Data");
 		if (controller.getTool().isProvidingFeatureSet(RConsoleTool.R_DATA_FEATURESET_ID)) {
 			final IRDataAdapter r= (IRDataAdapter) controller;
-			updateWorkspaceDir(r, monitor);
-			updateOptions(r, monitor);
+			final Set<RElementName> elements= this.changedEnvirs;
+			final boolean updateEnvs= (this.rObjectDBEnabled
+					&& ( ((options & REFRESH_COMPLETE) != 0)
+							|| ( ((((options & REFRESH_AUTO)) != 0) || !elements.isEmpty()
+									|| controller.isSuspended() )
+									&& isAutoRefreshEnabled() )));
+			final RList rState= loadToolState(r, updateEnvs, monitor);
+			if (rState != null) {
+				updateWorkspaceDir(rState.get("wd")); //$NON-NLS-1$
+				updateOptions(r, rState);
+			}
 			if (this.rObjectDBEnabled) {
-				final Set<RElementName> elements= this.changedEnvirs;
-				if ( ((options & REFRESH_COMPLETE) != 0)
-						|| ( ((((options & REFRESH_AUTO)) != 0) || !elements.isEmpty()
-								|| controller.isSuspended() )
-								&& isAutoRefreshEnabled() ) ) {
-					updateREnvironments(r, elements, ((options & REFRESH_COMPLETE) != 0), monitor);
+				if (updateEnvs) {
+					updateREnvironments(r, elements, ((options & REFRESH_COMPLETE) != 0),
+							(rState != null) ? rState.get("search") : null, //$NON-NLS-1$
+							(rState != null) ? rState.get("namespaces") : null, //$NON-NLS-1$
+							monitor );
 					clearBriefedChanges();
 				}
 			}
@@ -515,9 +523,23 @@ public class RWorkspace extends ToolWorkspace {
 		}
 	}
 	
-	private void updateWorkspaceDir(final IRDataAdapter r,
+	/**
+	 * Loads the workspace directory, the prompt options and, if required for the update of the
+	 * environments, the search path and the loaded namespaces by a single request.
+	 */
+	private RList loadToolState(final IRDataAdapter r, final boolean envs,
 			final IProgressMonitor monitor) throws CoreException {
-		final RObject rWd= r.evalData("getwd()", monitor); //$NON-NLS-1$
+		final StringBuilder cmd= new StringBuilder(128);
+		cmd.append("c(list(wd= getwd()"); //$NON-NLS-1$
+		if (envs) {
+			cmd.append(", search= base::search(), namespaces= base::loadedNamespaces()"); //$NON-NLS-1$
+		}
+		cmd.append("), options(\"prompt\", \"continue\"))"); //$NON-NLS-1$
+		final RObject rState= r.evalData(cmd.toString(), monitor);
+		return (rState instanceof RList) ? (RList) rState : null;
+	}
+	
+	private void updateWorkspaceDir(final RObject rWd) {
 		if (RDataUtil.isSingleString(rWd)) {
 			final String wd= rWd.getData().getChar(0);
 			if (!isRemote()) {
@@ -529,9 +551,7 @@ public class RWorkspace extends ToolWorkspace {
 		}
 	}
 	
-	private void updateOptions(final IRDataAdapter r,
-			final IProgressMonitor monitor) throws CoreException {
-		final RList rOptions= (RList) r.evalData("options(\"prompt\", \"continue\")", monitor); //$NON-NLS-1$
+	private void updateOptions(final IRDataAdapter r, final RList rOptions) {
 		final RObject rPrompt= rOptions.get("prompt"); //$NON-NLS-1$
 		if (RDataUtil.isSingleString(rPrompt)) {
 			if (!rPrompt.getData().isNA(0)) {
@@ -547,6 +567,7 @@ public class RWorkspace extends ToolWorkspace {
 	}
 	
 	private void updateREnvironments(final IRDataAdapter r, final Set<RElementName> envirs, boolean force,
+			final RObject searchNames, final RObject namespaceNames,
 			final IProgressMonitor monitor) throws CoreException {
 		if (!(r instanceof ICombinedRDataAdapter)) {
 			return;
@@ -565,7 +586,7 @@ public class RWorkspace extends ToolWorkspace {
 		final RObjectDB db= new RObjectDB(this, controller.getChangeStamp(),
 				controller, monitor );
 		final List<REnvironmentVar> updateEnvs= db.update(
-				envirs, previous, force,
+				envirs, previous, force, searchNames, namespaceNames,
 				(ICombinedRDataAdapter) r, monitor );
 		
 		if (monitor.isCanceled()) {
@@ -212,13 +212,26 @@ public class RObjectDB {
 		this.lazyEnvs= (list != null && !list.isEmpty()) ? list : NO_ENVS_SET;
 	}
 	
+	/**
+	 * Updates the environments.
+	 * 
+	 * @param searchNames the names of the search path (<code>search()</code>) or
+	 *     <code>null</code> to load them
+	 * @param namespaceNames the names of the loaded namespaces (<code>loadedNamespaces()</code>)
+	 *     or <code>null</code> to load them
+	 */
 	public List<REnvironmentVar> update(
 			final Set<RElementName> envs, RObjectDB previous, final boolean force,
+			final RObject searchNames, final RObject namespaceNames,
 			final ICombinedRDataAdapter r, final IProgressMonitor monitor) throws CoreException {
 		this.r= r;
 		try {
-			updateSearchList(monitor);
-			updateNamespaceList(monitor);
+			updateSearchList((searchNames != null) ?
+					RDataUtil.checkRCharVector(searchNames) :
+					RDataUtil.checkRCharVector(this.r.evalData("base::search()", monitor)) ); //$NON-NLS-1$
+			updateNamespaceList((namespaceNames != null) ?
+					RDataUtil.checkRCharVector(namespaceNames) :
+					RDataUtil.checkRCharVector(this.r.evalData("base::loadedNamespaces()", monitor)) ); //$NON-NLS-1$
 			
 			if (monitor.isCanceled()) {
 				return null;
@@ -272,13 +285,10 @@ public class RObjectDB {
 		}
 	}
 	
-	private void updateSearchList(final IProgressMonitor monitor) throws CoreException,
-			UnexpectedRDataException {
+	private void updateSearchList(final RVector<RCharacterStore> searchObj) {
 		this.searchEnvsStamp= this.r.getChangeStamp();
 		this.searchEnvs= new ArrayList<>();
 		this.searchEnvsPublic= Collections.unmodifiableList(this.searchEnvs);
-		final RVector<RCharacterStore> searchObj= RDataUtil.checkRCharVector(
-				this.r.evalData("base::search()", monitor)); //$NON-NLS-1$
 		
 		final RCharacterStore namesData= searchObj.getData();
 		for (int i= 0; i < namesData.getLength(); i++) {
@@ -290,12 +300,8 @@ public class RObjectDB {
 		}
 	}
 	
-	private void updateNamespaceList(final IProgressMonitor monitor)
-			throws CoreException, UnexpectedRDataException {
-		final RVector<RCharacterStore> searchObj= RDataUtil.checkRCharVector(
-				this.r.evalData("base::loadedNamespaces()", monitor )); //$NON-NLS-1$
-		
-		final RCharacterStore namesData= searchObj.getData();
+	private void updateNamespaceList(final RVector<RCharacterStore> namespacesObj) {
+		final RCharacterStore namesData= namespacesObj.getData();
 		for (int i= 0; i < namesData.getLength(); i++) {
 			if (namesData.isNA(i)) {
 				continue;
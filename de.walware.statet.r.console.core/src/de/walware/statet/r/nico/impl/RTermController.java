@@ -14,7 +14,6 @@ package de.walware.statet.r.nico.impl;
 import static de.walware.statet.nico.core.runtime.IToolEventHandler.RUN_BLOCKING_EVENT_ID;
 import static de.walware.statet.nico.core.runtime.IToolEventHandler.RUN_RUNNABLE_DATA_KEY;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -25,7 +24,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
@@ -75,12 +75,15 @@ public class RTermController extends AbstractRController implements IRequireSync
 	
 	private class ReadThread extends Thread {
 		
-		volatile int hasNoOutput;
-		private final int SYNC_COUNT = 2;
+		private final int BUFFER_SIZE = 0x2000;
 		private final int SYNC_MS = 33;
 		
 		final Lock streamLock = new ReentrantLock();
 		
+		/** the last two chars of the output, to detect prompts split over multiple reads */
+		private char last1;
+		private char last2;
+		
 		public ReadThread() {
 			super("Rterm-Output Monitor"); //$NON-NLS-1$
 		}
@@ -90,45 +93,33 @@ public class RTermController extends AbstractRController implements IRequireSync
 			final ToolStreamProxy streams = getStreams();
 			boolean locked = false;
 			try {
-				boolean canRead = false;
-				final char[] b = new char[1024];
-				while (fProcess != null | (canRead = fProcessOutputReader.ready())) {
-					fProcessOutputBuffer.available();
-					if (canRead || hasNoOutput > SYNC_COUNT) {
-						if (!canRead && locked) {
-							streamLock.unlock();
-							locked = false;
-						}
-						int n = fProcessOutputReader.read(b);
-						if (n > 0) {
-							hasNoOutput = 0;
-							if (!locked) {
-								streamLock.lock();
-								locked = true;
-							}
-							final String s = new String(b, 0, n);
-							streams.getOutputStreamMonitor().append(s, SubmitType.CONSOLE, 0);
-							n = s.length();
-							if (n >= 2 && s.charAt(--n) == ' ' && (s.charAt(--n) == '>' || s.charAt(n) == '+')) {
-								hasNoOutput++;
-								final Thread thread = getControllerThread();
-								if (thread != null) {
-									thread.interrupt();
-								}
-							}
-							continue;
-						}
-						else if (n < 0) {
-							onRTerminated();
-							return;
-						}
+				final char[] b = new char[BUFFER_SIZE];
+				while (true) {
+					// blocks until output is available
+					final int n = fProcessOutputReader.read(b);
+					if (n < 0) {
+						onRTerminated();
+						return;
 					}
-					try {
-						Thread.sleep(SYNC_MS);
-						hasNoOutput++;
+					if (n == 0) {
+						continue;
 					}
-					catch (final InterruptedException e) {
-						// continue directly
+					if (!locked) {
+						streamLock.lock();
+						locked = true;
+					}
+					streams.getOutputStreamMonitor().append(new String(b, 0, n), SubmitType.CONSOLE, 0);
+					final boolean prompt = updatePromptState(b, n);
+					if (prompt || !fProcessOutputReader.ready()) {
+						// no more output pending, allow input
+						streamLock.unlock();
+						locked = false;
+					}
+					if (prompt) {
+						final Thread thread = getControllerThread();
+						if (thread != null) {
+							thread.interrupt();
+						}
 					}
 				}
 			}
@@ -148,6 +139,23 @@ public class RTermController extends AbstractRController implements IRequireSync
 			}
 		}
 		
+		/**
+		 * Updates the state by the read chars.
+		 * 
+		 * @return <code>true</code> if the output ends with a prompt
+		 */
+		private boolean updatePromptState(final char[] b, final int n) {
+			if (n >= 2) {
+				last2 = b[n - 2];
+				last1 = b[n - 1];
+			}
+			else {
+				last2 = last1;
+				last1 = b[0];
+			}
+			return (last1 == ' ' && (last2 == '>' || last2 == '+'));
+		}
+		
 		private void onRTerminated() {
 			markAsTerminated();
 			synchronized (getQueue()) {
@@ -194,7 +202,6 @@ public class RTermController extends AbstractRController implements IRequireSync
 	private final Charset fCharset;
 	private Process fProcess;
 	private OutputStreamWriter fProcessInputWriter;
-	private BufferedInputStream fProcessOutputBuffer;
 	private InputStreamReader fProcessOutputReader;
 	private ReadThread fProcessOutputThread;
 	Long fProcessId;
@@ -243,9 +250,6 @@ public class RTermController extends AbstractRController implements IRequireSync
 			fConfig.redirectErrorStream(true);
 			fProcess = fConfig.start();
 			processOutput = fProcess.getInputStream();
-			if (processOutput instanceof BufferedInputStream) {
-				fProcessOutputBuffer = (BufferedInputStream) processOutput;
-			}
 			fProcessOutputReader = new InputStreamReader(processOutput, fCharset);
 			fProcessOutputThread = new ReadThread();
 			fProcessOutputThread.start();
@@ -403,7 +407,7 @@ public class RTermController extends AbstractRController implements IRequireSync
 	public Pattern synch(final IProgressMonitor monitor) throws CoreException {
 		final ToolStreamMonitor stream = getStreams().getOutputStreamMonitor();
 		final String stamp = "Synch"+System.nanoTime(); //$NON-NLS-1$
-		final AtomicBoolean patternFound = new AtomicBoolean(false);
+		final CountDownLatch patternFound = new CountDownLatch(1);
 		final IStreamListener listener = new IStreamListener() {
 			
 			private String lastLine = ""; //$NON-NLS-1$
@@ -424,24 +428,14 @@ public class RTermController extends AbstractRController implements IRequireSync
 			
 			private void found() {
 				stream.removeListener(this);
-				patternFound.set(true);
+				patternFound.countDown();
 			}
 			
 		};
 		try {
 			stream.addListener(listener);
 			submitToConsole("cat(\""+stamp+"\\n\");", monitor); //$NON-NLS-1$ //$NON-NLS-2$
-			while (!patternFound.get()) {
-				if (monitor.isCanceled()) {
-					throw cancelTask();
-				}
-				try {
-					Thread.sleep(50);
-				}
-				catch (final InterruptedException e) {
-					// continue directly
-				}
-			}
+			awaitOutput(patternFound, monitor);
 			return Pattern.compile("(?:"+Pattern.quote(getWorkspaceData().getDefaultPrompt().text) + ")?"+stamp); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 		finally {
@@ -449,10 +443,26 @@ public class RTermController extends AbstractRController implements IRequireSync
 		}
 	}
 	
+	private void awaitOutput(final CountDownLatch found, final IProgressMonitor monitor) throws CoreException {
+		while (true) {
+			if (monitor.isCanceled()) {
+				throw cancelTask();
+			}
+			try {
+				if (found.await(50, TimeUnit.MILLISECONDS)) {
+					return;
+				}
+			}
+			catch (final InterruptedException e) {
+				// continue directly
+			}
+		}
+	}
+	
 	private StringBuilder readOutputLine(final String command, final IProgressMonitor monitor) throws CoreException {
 		final ToolStreamMonitor stream = getStreams().getOutputStreamMonitor();
 		final StringBuilder output = new StringBuilder();
-		final AtomicBoolean patternFound = new AtomicBoolean(false);
+		final CountDownLatch patternFound = new CountDownLatch(1);
 		final IStreamListener listener = new IStreamListener() {
 			
 			@Override
@@ -469,7 +479,7 @@ public class RTermController extends AbstractRController implements IRequireSync
 			
 			private void found() {
 				stream.removeListener(this);
-				patternFound.set(true);
+				patternFound.countDown();
 			}
 			
 		};
@@ -480,17 +490,7 @@ public class RTermController extends AbstractRController implements IRequireSync
 				return null;
 			}
 			submitToConsole(command, monitor);
-			while (!patternFound.get()) {
-				if (monitor.isCanceled()) {
-					throw cancelTask();
-				}
-				try {
-					Thread.sleep(50);
-				}
-				catch (final InterruptedException e) {
-					// continue directly
-				}
-			}
+			awaitOutput(patternFound, monitor);
 			return output;
 		}
 		finally {
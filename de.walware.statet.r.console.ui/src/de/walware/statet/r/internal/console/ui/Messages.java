@@ -43,6 +43,7 @@ public class Messages extends NLS {
 	public static String RRemoteConsoleSelectionDialog_task_Resolving_message;
 	public static String RRemoteConsoleSelectionDialog_info_ListRestored_message;
 	public static String RRemoteConsoleSelectionDialog_error_ConnectionFailed_message;
+	public static String RRemoteConsoleSelectionDialog_error_Timeout_message;
 	
 	public static String LaunchDelegate_CheckingRegistry_subtask;
 	public static String LaunchDelegate_StartREngine_subtask;
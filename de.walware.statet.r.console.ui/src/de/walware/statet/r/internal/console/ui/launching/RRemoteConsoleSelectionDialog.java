@@ -11,8 +11,11 @@
 
 package de.walware.statet.r.internal.console.ui.launching;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.net.UnknownHostException;
 import java.rmi.Remote;
 import java.rmi.RemoteException;
@@ -27,6 +30,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -113,6 +124,66 @@ public class RRemoteConsoleSelectionDialog extends SelectionStatusDialog {
 	private static final Pattern ADDRESS_MULTI_PATTERN = Pattern.compile("\\/?\\s*[\\,\\;]+\\s*"); //$NON-NLS-1$
 	private static final Pattern ADDRESS_WITH_PORT_PATTERN = Pattern.compile("(.*):(\\d{1,5})"); //$NON-NLS-1$
 	
+	/** max number of hosts browsed in parallel */
+	private static final int MAX_PARALLEL_HOSTS = 8;
+	/** timeouts for the connection to the RMI registry of a host (ms) */
+	private static final int REGISTRY_CONNECT_TIMEOUT = 2000;
+	private static final int REGISTRY_READ_TIMEOUT = 5000;
+	/** max time to browse a single host (ms) */
+	private static final long HOST_TIMEOUT = 10000;
+	/** max age of cached server infos shown until a host is browsed again (ms) */
+	private static final long CACHE_MAX_AGE = 10 * 60 * 1000;
+	
+	
+	/**
+	 * Socket factory for RMI registries with connect and read timeout, so that hosts which are
+	 * down or not responding doesn't block the browsing.
+	 */
+	private static class RegistrySocketFactory implements RMIClientSocketFactory {
+		
+		@Override
+		public Socket createSocket(final String host, final int port) throws IOException {
+			final Socket socket = new Socket();
+			try {
+				socket.connect(new InetSocketAddress(host, port), REGISTRY_CONNECT_TIMEOUT);
+				socket.setSoTimeout(REGISTRY_READ_TIMEOUT);
+				return socket;
+			}
+			catch (final IOException e) {
+				socket.close();
+				throw e;
+			}
+		}
+		
+		@Override
+		public int hashCode() {
+			return getClass().hashCode();
+		}
+		
+		@Override
+		public boolean equals(final Object obj) {
+			return (obj != null && obj.getClass() == getClass());
+		}
+		
+	}
+	
+	private static final RMIClientSocketFactory REGISTRY_SOCKET_FACTORY = new RegistrySocketFactory();
+	
+	private static class CachedHost {
+		
+		final long timestamp;
+		final List<RemoteR> infos;
+		
+		CachedHost(final List<RemoteR> infos) {
+			this.timestamp = System.currentTimeMillis();
+			this.infos = infos;
+		}
+		
+	}
+	
+	/** server infos of recently browsed hosts by address */
+	private static final Map<String, CachedHost> HOST_CACHE = new ConcurrentHashMap<>();
+	
 	
 	private static class RemoteR {
 		
@@ -266,6 +337,7 @@ public class RRemoteConsoleSelectionDialog extends SelectionStatusDialog {
 	private TreeViewer fRServerViewer;
 	
 	private List<RemoteR> fRServerList;
+	private boolean fBrowsing;
 	
 	private final boolean fFilterOnlyRunning;
 	
@@ -452,11 +524,13 @@ public class RRemoteConsoleSelectionDialog extends SelectionStatusDialog {
 		fRServerList = null;
 		final AtomicReference<IStatus> status= new AtomicReference<>();
 		if (input != null && input.length() > 0) {
+			final Display display = getShell().getDisplay();
+			fBrowsing = true;
 			try {
 				new ProgressMonitorDialog(getShell()).run(true, true, new IRunnableWithProgress() {
 					@Override
 					public void run(final IProgressMonitor monitor) throws InvocationTargetException {
-						status.set(updateRServerList(input, monitor));
+						status.set(updateRServerList(input, display, monitor));
 					}
 				});
 			}
@@ -467,6 +541,9 @@ public class RRemoteConsoleSelectionDialog extends SelectionStatusDialog {
 				fRServerViewer = null;
 				status.compareAndSet(null, Status.CANCEL_STATUS);
 			}
+			finally {
+				fBrowsing = false;
+			}
 		}
 		if (status.get() != null) {
 			updateStatus(status.get());
@@ -477,15 +554,7 @@ public class RRemoteConsoleSelectionDialog extends SelectionStatusDialog {
 				fHistoryAddress.remove(input);
 				fHistoryAddress.add(0, input);
 			}
-			if (fFilterOnlyRunning) {
-				for (final Iterator<RemoteR> iter = fRServerList.iterator(); iter.hasNext();) {
-					switch (iter.next().info.getState()) {
-					case Server.S_NOT_STARTED:
-					case Server.S_STOPPED:
-						iter.remove();
-					}
-				}
-			}
+			filterRServerList(fRServerList);
 			updateInput();
 			return;
 		}
@@ -550,55 +619,139 @@ public class RRemoteConsoleSelectionDialog extends SelectionStatusDialog {
 		return super.close();
 	}
 	
-	private IStatus updateRServerList(final String combined, final IProgressMonitor monitor) {
-		final List<RemoteR> infos= new ArrayList<>();
-		
+	@SuppressWarnings("unchecked")
+	private IStatus updateRServerList(final String combined, final Display display,
+			final IProgressMonitor monitor) {
 		final String[] addresses = ADDRESS_MULTI_PATTERN.split(combined, -1);
 		if (addresses.length == 0) {
 			return null;
 		}
 		final SubMonitor progress = SubMonitor.convert(monitor, Messages.RRemoteConsoleSelectionDialog_task_Gathering_message, addresses.length*2 +2);
 		
-		String failedHosts = null;
-		final List<IStatus> failedStatus= new ArrayList<>();
+		final List<RemoteR>[] hostInfos = new List[addresses.length];
+		final IStatus[] hostStatus = new IStatus[addresses.length];
+		final List<Integer> specialIdxs = new ArrayList<>();
 		progress.worked(1);
 		
-		// Collect R engines for each address
-		for (int i = 0; i < addresses.length; i++) {
-			progress.setWorkRemaining((addresses.length-i)*2 +1);
-			
-			String address = addresses[i];
-			final SpecialAddress special = fSpecialAddress.get(address);
-			if (special == null) {
+		// Collect R engines for each address, in parallel
+		final ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(addresses.length, MAX_PARALLEL_HOSTS) );
+		try {
+			final CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+			final Map<Future<Integer>, Integer> pending = new HashMap<>();
+			for (int i = 0; i < addresses.length; i++) {
+				String address = addresses[i];
+				final SpecialAddress special = fSpecialAddress.get(address);
+				if (special != null) {
+					specialIdxs.add(i);
+					continue;
+				}
 				if (address.startsWith("rmi:")) { //$NON-NLS-1$
 					address = address.substring(4);
 				}
 				if (address.startsWith("//")) { //$NON-NLS-1$
 					address = address.substring(2);
 				}
+				if (address.isEmpty()) {
+					return null;
+				}
+				addresses[i] = address;
+				
+				final CachedHost cached = HOST_CACHE.get(address);
+				if (cached != null && cached.timestamp > System.currentTimeMillis() - CACHE_MAX_AGE) {
+					hostInfos[i] = cached.infos;
+				}
+				
+				final int idx = i;
+				pending.put(completion.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						final List<RemoteR> infos = new ArrayList<>();
+						final String hostAddress = addresses[idx];
+						final Matcher matcher = ADDRESS_WITH_PORT_PATTERN.matcher(hostAddress);
+						final IStatus status;
+						if (matcher.matches()) {
+							status = collectServerInfos(matcher.group(1), Integer.parseInt(matcher.group(2)), null,
+									infos, SubMonitor.convert(null) );
+						}
+						else {
+							status = collectServerInfos(hostAddress, Registry.REGISTRY_PORT, null,
+									infos, SubMonitor.convert(null) );
+						}
+						synchronized (hostInfos) {
+							if (hostStatus[idx] != null) { // timeout
+								return idx;
+							}
+							hostStatus[idx] = status;
+							hostInfos[idx] = (status.isOK()) ? infos : null;
+						}
+						if (status.isOK()) {
+							HOST_CACHE.put(hostAddress, new CachedHost(infos));
+						}
+						return idx;
+					}
+				}), i);
 			}
-			if (address.isEmpty()) {
-				return null;
-			}
-			if (monitor.isCanceled()) {
-				return Status.CANCEL_STATUS;
-			}
-			IStatus status;
-			if (special == null) {
-				final Matcher matcher = ADDRESS_WITH_PORT_PATTERN.matcher(address);
-				if (matcher.matches()) {
-					status = collectServerInfos(matcher.group(1), Integer.parseInt(matcher.group(2)), null,
-							infos, progress );
+			publishRServerList(hostInfos, display);
+			
+			final long deadline = System.currentTimeMillis()
+					+ HOST_TIMEOUT * ((pending.size() + MAX_PARALLEL_HOSTS - 1) / MAX_PARALLEL_HOSTS);
+			while (!pending.isEmpty()) {
+				progress.setWorkRemaining(pending.size()*2 + specialIdxs.size()*2 +1);
+				progress.subTask(NLS.bind(Messages.RRemoteConsoleSelectionDialog_task_Connecting_message,
+						addresses[pending.values().iterator().next()] ));
+				if (progress.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				final long timeout = deadline - System.currentTimeMillis();
+				if (timeout <= 0) {
+					break;
 				}
-				else {
-					status = collectServerInfos(address, Registry.REGISTRY_PORT, null,
-							infos, progress );
+				final Future<Integer> future = completion.poll(Math.min(timeout, 100), TimeUnit.MILLISECONDS);
+				if (future == null) {
+					continue;
 				}
+				pending.remove(future);
+				progress.worked(2);
+				publishRServerList(hostInfos, display);
 			}
-			else {
-				address = special.fPublicHost;
-				status = collectServerInfos(null, 0, special, infos, progress);
+			for (final Integer idx : pending.values()) {
+				synchronized (hostInfos) {
+					hostStatus[idx] = new Status(IStatus.WARNING, RConsoleUIPlugin.PLUGIN_ID,
+							NLS.bind(Messages.RRemoteConsoleSelectionDialog_error_Timeout_message,
+									addresses[idx] ));
+					hostInfos[idx] = null;
+				}
+			}
+		}
+		catch (final InterruptedException e) {
+			return Status.CANCEL_STATUS;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		
+		// Special addresses (e.g. tunnels), sequentially in this thread
+		for (final int i : specialIdxs) {
+			progress.setWorkRemaining((specialIdxs.size() - specialIdxs.indexOf(i))*2 +1);
+			if (progress.isCanceled()) {
+				return Status.CANCEL_STATUS;
 			}
+			final SpecialAddress special = fSpecialAddress.get(addresses[i]);
+			final List<RemoteR> infos = new ArrayList<>();
+			final IStatus status = collectServerInfos(null, 0, special, infos, progress);
+			addresses[i] = special.fPublicHost;
+			hostStatus[i] = status;
+			hostInfos[i] = (status.isOK()) ? infos : null;
+			publishRServerList(hostInfos, display);
+		}
+		
+		final List<RemoteR> infos = new ArrayList<>();
+		String failedHosts = null;
+		final List<IStatus> failedStatus = new ArrayList<>();
+		for (int i = 0; i < addresses.length; i++) {
+			final IStatus status = (hostStatus[i] != null) ? hostStatus[i] :
+					new Status(IStatus.WARNING, RConsoleUIPlugin.PLUGIN_ID, addresses[i]);
 			switch (status.getSeverity()) {
 			case IStatus.CANCEL:
 				return status;
@@ -607,9 +760,10 @@ public class RRemoteConsoleSelectionDialog extends SelectionStatusDialog {
 				return status;
 			case IStatus.WARNING:
 				failedStatus.add(status);
-				failedHosts = (failedHosts == null) ? address : (failedHosts + ", " + address); //$NON-NLS-1$
+				failedHosts = (failedHosts == null) ? addresses[i] : (failedHosts + ", " + addresses[i]); //$NON-NLS-1$
 				continue;
 			default:
+				infos.addAll(hostInfos[i]);
 				continue;
 			}
 		}
@@ -631,6 +785,46 @@ public class RRemoteConsoleSelectionDialog extends SelectionStatusDialog {
 		return Status.OK_STATUS;
 	}
 	
+	/**
+	 * Shows the R engines found so far (or cached), while the browsing is still running.
+	 */
+	private void publishRServerList(final List<RemoteR>[] hostInfos, final Display display) {
+		final List<RemoteR> infos = new ArrayList<>();
+		synchronized (hostInfos) {
+			for (final List<RemoteR> list : hostInfos) {
+				if (list != null) {
+					infos.addAll(list);
+				}
+			}
+		}
+		filterRServerList(infos);
+		display.asyncExec(new Runnable() {
+			@Override
+			public void run() {
+				if (!fBrowsing
+						|| fRServerViewer == null || fRServerViewer.getControl().isDisposed() ) {
+					return;
+				}
+				fRServerViewer.setInput(infos);
+				if (fUsername != null && fUsername.length() > 0) {
+					fRServerViewer.expandToLevel(fUsername.toLowerCase(), 1);
+				}
+			}
+		});
+	}
+	
+	private void filterRServerList(final List<RemoteR> infos) {
+		if (fFilterOnlyRunning) {
+			for (final Iterator<RemoteR> iter = infos.iterator(); iter.hasNext();) {
+				switch (iter.next().info.getState()) {
+				case Server.S_NOT_STARTED:
+				case Server.S_STOPPED:
+					iter.remove();
+				}
+			}
+		}
+	}
+	
 	private static IStatus collectServerInfos(String address, int port,
 			final SpecialAddress special,
 			final List<RemoteR> infos, final SubMonitor progress) {
@@ -652,12 +846,13 @@ public class RRemoteConsoleSelectionDialog extends SelectionStatusDialog {
 			final Registry registry;
 			if (special != null) {
 				final RMIClientSocketFactory socketFactory = special.getSocketFactory(progress.newChild(5));
+				// The stubs of the servers must connect by the tunnel too; special addresses are
+				// collected sequentially, so the global factory is not shared with other lookups
 				RjsComConfig.setRMIClientSocketFactory(socketFactory);
 				registry = LocateRegistry.getRegistry(special.fPrivateHost, port, socketFactory );
 			}
 			else {
-				RjsComConfig.setRMIClientSocketFactory(null);
-				registry = LocateRegistry.getRegistry(address, port);
+				registry = LocateRegistry.getRegistry(address, port, REGISTRY_SOCKET_FACTORY);
 			}
 			final String rmiBase = (port == Registry.REGISTRY_PORT) ?
 					"//" + address + '/' : //$NON-NLS-1$
@@ -689,7 +884,9 @@ public class RRemoteConsoleSelectionDialog extends SelectionStatusDialog {
 			return e.getStatus();
 		}
 		finally {
-			RjsComConfig.clearRMIClientSocketFactory();
+			if (special != null) {
+				RjsComConfig.clearRMIClientSocketFactory();
+			}
 		}
 	}
 	
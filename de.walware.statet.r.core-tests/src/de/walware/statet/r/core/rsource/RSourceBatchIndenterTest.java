@@ -0,0 +1,163 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.core.rsource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.text.edits.TextEdit;
+import org.junit.Test;
+
+import de.walware.ecommons.ltk.AstInfo;
+import de.walware.ecommons.preferences.core.IPreferenceAccess;
+import de.walware.ecommons.text.core.input.StringParserInput;
+
+import de.walware.statet.r.core.IRCoreAccess;
+import de.walware.statet.r.core.RCodeStyleSettings;
+import de.walware.statet.r.core.renv.IREnv;
+import de.walware.statet.r.core.rsource.ast.RScanner;
+import de.walware.statet.r.core.rsource.ast.SourceComponent;
+import de.walware.statet.r.core.source.RDocumentContentInfo;
+import de.walware.statet.r.core.source.RDocumentSetupParticipant;
+import de.walware.statet.r.core.source.RHeuristicTokenScanner;
+
+
+public class RSourceBatchIndenterTest {
+	
+	
+	private static final String[] SOURCES= new String[] {
+		"f <- function(x) {\n" +
+		"x + 1\n" +
+		"        }\n",
+		
+		"if (a) {\n" +
+		"  b()\n" +
+		"} else {\n" +
+		"c(1,\n" +
+		"2,\n" +
+		"3)\n" +
+		"}\n",
+		
+		"for (i in 1:10) {\n" +
+		"    # comment\n" +
+		"## doc comment\n" +
+		"    while (TRUE) {\n" +
+		"break\n" +
+		"}\n" +
+		"}",
+		
+		"x <- list(a = 1,\n" +
+		"b = function() {\n" +
+		"NULL\n" +
+		"})\n",
+		
+		"",
+		
+		"  y <- 1\n",
+	};
+	
+	
+	private final IRCoreAccess coreAccess= new IRCoreAccess() {
+		
+		private final RCodeStyleSettings codeStyle= new RCodeStyleSettings(1);
+		
+		@Override
+		public IPreferenceAccess getPrefs() {
+			return null;
+		}
+		
+		@Override
+		public IREnv getREnv() {
+			return null;
+		}
+		
+		@Override
+		public RCodeStyleSettings getRCodeStyle() {
+			return this.codeStyle;
+		}
+		
+	};
+	
+	
+	public RSourceBatchIndenterTest() {
+	}
+	
+	
+	@Test
+	public void indent() throws Exception {
+		final RSourceBatchIndenter batchIndenter= new RSourceBatchIndenter(this.coreAccess, 1);
+		
+		for (final String source : SOURCES) {
+			assertEquals(indentByLines(source), batchIndenter.indent(source));
+		}
+	}
+	
+	@Test
+	public void indent_parallel() throws Exception {
+		final RSourceBatchIndenter batchIndenter= new RSourceBatchIndenter(this.coreAccess, 4);
+		final List<String> sources= new ArrayList<>();
+		final List<String> expected= new ArrayList<>();
+		for (int i= 0; i < 50; i++) {
+			final String source= SOURCES[i % SOURCES.length] + "z" + i + " <- " + i + "\n";
+			sources.add(source);
+			expected.add(indentByLines(source));
+		}
+		
+		assertEquals(expected, batchIndenter.indent(sources, new NullProgressMonitor()));
+	}
+	
+	@Test
+	public void indent_canceled() throws Exception {
+		final RSourceBatchIndenter batchIndenter= new RSourceBatchIndenter(this.coreAccess, 4);
+		final List<String> sources= new ArrayList<>();
+		for (int i= 0; i < 50; i++) {
+			sources.add(SOURCES[i % SOURCES.length]);
+		}
+		final NullProgressMonitor monitor= new NullProgressMonitor();
+		monitor.setCanceled(true);
+		
+		try {
+			batchIndenter.indent(sources, monitor);
+			fail("OperationCanceledException expected");
+		}
+		catch (final OperationCanceledException e) {}
+	}
+	
+	
+	/**
+	 * Indents the source like the editor for a selection of lines, as reference.
+	 */
+	private String indentByLines(final String source) throws Exception {
+		final Document document= new Document(source);
+		new RDocumentSetupParticipant().setup(document);
+		final SourceComponent rootNode= new RScanner(AstInfo.LEVEL_MINIMAL).scanSourceUnit(
+				new StringParserInput(0x1000).reset(source).init() );
+		
+		int lastLine= document.getLineOfOffset(document.getLength());
+		if (lastLine > 0 && document.getLineOffset(lastLine) == document.getLength()) {
+			lastLine--;
+		}
+		
+		final RSourceIndenter indenter= new RSourceIndenter(
+				RHeuristicTokenScanner.create(RDocumentContentInfo.INSTANCE), this.coreAccess );
+		final TextEdit edits= indenter.getIndentEdits(document, rootNode, 0, 0, lastLine);
+		edits.apply(document, TextEdit.NONE);
+		return document.get();
+	}
+	
+}
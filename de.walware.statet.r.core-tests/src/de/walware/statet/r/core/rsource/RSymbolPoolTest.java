@@ -0,0 +1,86 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.core.rsource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+
+public class RSymbolPoolTest {
+	
+	
+	public RSymbolPoolTest() {
+	}
+	
+	
+	@Test
+	public void intern() {
+		final RSymbolPool pool= new RSymbolPool(0x100);
+		final String s1= new String("data");
+		final String s2= new String("data");
+		assertNotSame(s1, s2);
+		
+		assertSame(s1, pool.intern(s1));
+		assertSame(s1, pool.intern(s2));
+		assertEquals(1, pool.getHitCount());
+		assertEquals(1, pool.getMissCount());
+	}
+	
+	@Test
+	public void intern_null() {
+		final RSymbolPool pool= new RSymbolPool(0x100);
+		
+		assertNull(pool.intern(null));
+		assertEquals(0, pool.getHitCount());
+		assertEquals(0, pool.getMissCount());
+	}
+	
+	@Test
+	public void intern_bounded() {
+		final RSymbolPool pool= new RSymbolPool(0x100);
+		final String[] strings= new String[0x1000];
+		for (int i= 0; i < strings.length; i++) {
+			strings[i]= pool.intern("x" + i);
+		}
+		assertEquals(true, pool.getSize() <= 0x100);
+		assertEquals(strings.length, pool.getMissCount());
+	}
+	
+	@Test
+	public void intern_bounded_small() {
+		for (final int maxSize : new int[] { 1, 2, 5, 0x1F, 0x21, 100 }) {
+			final RSymbolPool pool= new RSymbolPool(maxSize);
+			final String[] strings= new String[0x100];
+			for (int i= 0; i < strings.length; i++) {
+				strings[i]= pool.intern("x" + i);
+			}
+			assertEquals("maxSize= " + maxSize, true, pool.getSize() <= maxSize);
+		}
+	}
+	
+	@Test
+	public void intern_bounded_one() {
+		final RSymbolPool pool= new RSymbolPool(1);
+		final String s1= new String("x");
+		final String s2= new String("y");
+		
+		assertSame(s1, pool.intern(s1));
+		assertSame(s2, pool.intern(s2));
+		assertEquals(1, pool.getSize());
+		assertSame(s1, pool.intern(new String("x")));
+	}
+	
+}
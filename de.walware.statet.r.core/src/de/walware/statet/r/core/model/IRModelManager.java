@@ -67,5 +67,20 @@ public interface IRModelManager extends IModelManager {
 	List<ISourceUnit> findReferencingSourceUnits(IRProject rProject, RElementName name,
 			IProgressMonitor monitor) throws CoreException;
 	
+	/**
+	 * Find function definitions in the workspace whose body matches the specified fingerprint.
+	 * 
+	 * The information is taken from the index of the builder, so it is available only for
+	 * source units of R projects. The positions refer to the source at the time of the last
+	 * build.
+	 * 
+	 * @param fingerprint the fingerprint of the function body (see {@link RIndexedFunction#computeFingerprint(de.walware.statet.r.core.rsource.ast.RAstNode)})
+	 * @param monitor
+	 * @return list of the indexed functions or <code>null</code> if not available
+	 * @throws CoreException
+	 */
+	List<RIndexedFunction> findIndexedFunctions(long fingerprint,
+			IProgressMonitor monitor) throws CoreException;
+	
 	
 }
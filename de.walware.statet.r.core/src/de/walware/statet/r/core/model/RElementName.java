@@ -25,6 +25,7 @@ import de.walware.ecommons.text.core.input.StringParserInput;
 import de.walware.statet.r.core.RSymbolComparator;
 import de.walware.statet.r.core.rlang.RTerminal;
 import de.walware.statet.r.core.rsource.RLexer;
+import de.walware.statet.r.core.rsource.RSymbolPool;
 
 
 /**
@@ -534,6 +535,15 @@ public abstract class RElementName implements IElementName {
 			return this.nextSegment;
 		}
 		
+		
+		private Object readResolve() {
+			final String pooled= RSymbolPool.getDefault().intern(this.segmentName);
+			if (pooled == this.segmentName) {
+				return this;
+			}
+			return new DefaultImpl(this.type, this.scope, pooled, this.nextSegment);
+		}
+		
 	}
 	
 	private static class DualImpl extends DefaultImpl implements IndexElementName {
@@ -570,6 +580,15 @@ public abstract class RElementName implements IElementName {
 			return this.idx;
 		}
 		
+		
+		private Object readResolve() {
+			final String pooled= RSymbolPool.getDefault().intern(getSegmentName());
+			if (pooled == getSegmentName()) {
+				return this;
+			}
+			return new DualImpl(getType(), pooled, this.idx, getNextSegment());
+		}
+		
 	}
 	
 	
@@ -580,14 +599,14 @@ public abstract class RElementName implements IElementName {
 	}
 	
 	public static RElementName create(final int type, final String segmentName) {
-		return new DefaultImpl(type, segmentName);
+		return new DefaultImpl(type, RSymbolPool.getDefault().intern(segmentName));
 	}
 	
 	public static RElementName create(final int type, final String segmentName, final int idx) {
 		if (!(type == SUB_NAMEDPART || type == SUB_INDEXED_D)) {
 			throw new IllegalArgumentException();
 		}
-		return new DualImpl(type, segmentName, idx);
+		return new DualImpl(type, RSymbolPool.getDefault().intern(segmentName), idx);
 	}
 	
 	public static RElementName create(final List<RElementName> segments) {
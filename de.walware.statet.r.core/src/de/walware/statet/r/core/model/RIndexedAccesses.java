@@ -0,0 +1,98 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.core.model;
+
+import java.util.Map;
+
+
+/**
+ * The accesses of a name in a source unit as recorded in the model index by the builder.
+ * 
+ * The accesses of each frame are provided as array of int triples: the offset and the length
+ * of the name region (see {@link de.walware.statet.r.core.rsource.ast.RAst#getElementNameRegion(de.walware.statet.r.core.rsource.ast.RAstNode)})
+ * and the access flags (<code>ACCESS_*</code>).
+ * 
+ * The information is valid only as long as the source is unchanged, see {@link #getSourceStamp()}.
+ */
+public final class RIndexedAccesses {
+	
+	
+	/** The access is a write access ({@link RElementAccess#isWriteAccess()}) */
+	public static final int ACCESS_WRITE=                   0x0001;
+	/** The access is a call access ({@link RElementAccess#isCallAccess()}) */
+	public static final int ACCESS_CALL=                    0x0002;
+	/** The access is a function access ({@link RElementAccess#isFunctionAccess()}) */
+	public static final int ACCESS_FUNCTION=                0x0004;
+	/** The access has a sub segment ({@link RElementAccess#getNextSegment()}) */
+	public static final int ACCESS_SUB=                     0x0010;
+	/** The access is a master access ({@link RElementAccess#isMaster()}) */
+	public static final int ACCESS_MASTER=                  0x0020;
+	/** The access is only included in the accesses of the frame including slaves */
+	public static final int ACCESS_SLAVE=                   0x0040;
+	/** The name node is a plain (not quoted) symbol */
+	public static final int ACCESS_PLAIN_SYMBOL=            0x0100;
+	
+	public static final int OFFSET_IDX=                     0;
+	public static final int LENGTH_IDX=                     1;
+	public static final int FLAGS_IDX=                      2;
+	public static final int ENTRY_SIZE=                     3;
+	
+	
+	private final String unitId;
+	private final long sourceStamp;
+	
+	private final Map<String, int[]> frameAccesses;
+	
+	
+	public RIndexedAccesses(final String unitId, final long sourceStamp,
+			final Map<String, int[]> frameAccesses) {
+		this.unitId= unitId;
+		this.sourceStamp= sourceStamp;
+		this.frameAccesses= frameAccesses;
+	}
+	
+	
+	/**
+	 * Returns the id of the source unit.
+	 * 
+	 * @return the source unit id
+	 */
+	public String getUnitId() {
+		return this.unitId;
+	}
+	
+	/**
+	 * Returns the stamp of the source the accesses were recorded for.
+	 * 
+	 * @return the source stamp
+	 */
+	public long getSourceStamp() {
+		return this.sourceStamp;
+	}
+	
+	/**
+	 * Returns the accesses of the name in the specified frame.
+	 * 
+	 * @param frameId the id of the frame or <code>null</code> for the top frame
+	 * @return the access triples or <code>null</code> if there is no access in the frame
+	 */
+	public int[] getAccesses(final String frameId) {
+		return this.frameAccesses.get(frameId);
+	}
+	
+	
+	@Override
+	public String toString() {
+		return "RIndexedAccesses " + this.unitId + " (stamp= " + this.sourceStamp + ')'; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	
+}
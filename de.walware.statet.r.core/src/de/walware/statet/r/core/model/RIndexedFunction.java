@@ -0,0 +1,164 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.core.model;
+
+import de.walware.statet.r.core.rlang.RTerminal;
+import de.walware.statet.r.core.rsource.ast.RAstNode;
+
+
+/**
+ * The body of a function definition in a source unit as recorded in the model index by the
+ * builder.
+ * 
+ * The functions are indexed by the fingerprint of their body (see {@link #computeFingerprint(RAstNode)}).
+ * The fingerprint is computed of the normalized tokens of the code, so it doesn't depend on
+ * whitespace, line delimiters and comments.
+ * 
+ * Only bodies with at least {@link #MIN_NODE_COUNT} nodes are indexed (see
+ * {@link #isIndexable(RAstNode)}); short bodies like <code>invisible(NULL)</code> are too common
+ * to identify a function.
+ * 
+ * The position is valid only as long as the source is unchanged.
+ */
+public final class RIndexedFunction {
+	
+	
+	private static final long FNV_OFFSET_BASIS= 0xcbf29ce484222325L;
+	private static final long FNV_PRIME= 0x100000001b3L;
+	
+	/** the minimum number of AST nodes of an indexed function body */
+	public static final int MIN_NODE_COUNT= 16;
+	
+	
+	/**
+	 * Returns if the function body is large enough to be indexed.
+	 * 
+	 * @param node the body of a function definition
+	 * @return <code>true</code> if it has at least {@link #MIN_NODE_COUNT} nodes
+	 */
+	public static boolean isIndexable(final RAstNode node) {
+		return (countNodes(node, MIN_NODE_COUNT) >= MIN_NODE_COUNT);
+	}
+	
+	private static int countNodes(final RAstNode node, final int max) {
+		int n= 1;
+		final int count= node.getChildCount();
+		for (int i= 0; i < count && n < max; i++) {
+			n+= countNodes(node.getChild(i), max - n);
+		}
+		return n;
+	}
+	
+	/**
+	 * Computes the fingerprint of the code of the specified node.
+	 * 
+	 * @param node the node, usually the body of a function definition
+	 * @return the fingerprint
+	 */
+	public static long computeFingerprint(final RAstNode node) {
+		return hashNode(FNV_OFFSET_BASIS, node);
+	}
+	
+	private static long hash(long h, final int value) {
+		h^= value;
+		h*= FNV_PRIME;
+		return h;
+	}
+	
+	private static long hashNode(long h, final RAstNode node) {
+		h= hash(h, node.getNodeType().ordinal() + 1);
+		final RTerminal operator= node.getOperator(0);
+		h= hash(h, (operator != null) ? operator.ordinal() + 1 : 0);
+		final String text= node.getText();
+		if (text != null) {
+			for (int i= 0; i < text.length(); i++) {
+				h= hash(h, text.charAt(i));
+			}
+		}
+		final int count= node.getChildCount();
+		h= hash(h, count);
+		for (int i= 0; i < count; i++) {
+			h= hashNode(h, node.getChild(i));
+		}
+		return h;
+	}
+	
+	
+	private final String unitId;
+	private final String modelTypeId;
+	private final long fingerprint;
+	private final int offset;
+	private final int length;
+	
+	
+	public RIndexedFunction(final String unitId, final String modelTypeId, final long fingerprint,
+			final int offset, final int length) {
+		this.unitId= unitId;
+		this.modelTypeId= modelTypeId;
+		this.fingerprint= fingerprint;
+		this.offset= offset;
+		this.length= length;
+	}
+	
+	
+	/**
+	 * Returns the id of the source unit.
+	 * 
+	 * @return the source unit id
+	 */
+	public String getUnitId() {
+		return this.unitId;
+	}
+	
+	/**
+	 * Returns the model type id of the source unit.
+	 * 
+	 * @return the model type id
+	 */
+	public String getModelTypeId() {
+		return this.modelTypeId;
+	}
+	
+	/**
+	 * Returns the fingerprint of the function body.
+	 * 
+	 * @return the fingerprint
+	 */
+	public long getFingerprint() {
+		return this.fingerprint;
+	}
+	
+	/**
+	 * Returns the offset of the function body in the source unit.
+	 * 
+	 * @return the offset
+	 */
+	public int getOffset() {
+		return this.offset;
+	}
+	
+	/**
+	 * Returns the length of the function body in the source unit.
+	 * 
+	 * @return the length
+	 */
+	public int getLength() {
+		return this.length;
+	}
+	
+	
+	@Override
+	public String toString() {
+		return "RIndexedFunction " + this.unitId + " [" + this.offset + ", " + this.length + ']'; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+	
+}
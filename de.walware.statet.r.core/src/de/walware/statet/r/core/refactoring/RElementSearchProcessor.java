@@ -13,10 +13,15 @@ package de.walware.statet.r.core.refactoring;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.LocationKind;
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
@@ -43,8 +48,11 @@ import de.walware.statet.r.core.model.IRModelInfo;
 import de.walware.statet.r.core.model.IRSourceUnit;
 import de.walware.statet.r.core.model.RElementAccess;
 import de.walware.statet.r.core.model.RElementName;
+import de.walware.statet.r.core.model.RIndexedAccesses;
 import de.walware.statet.r.core.model.RModel;
+import de.walware.statet.r.internal.core.RCorePlugin;
 import de.walware.statet.r.internal.core.refactoring.Messages;
+import de.walware.statet.r.internal.core.sourcemodel.RModelSummaryCache;
 
 
 public class RElementSearchProcessor {
@@ -115,6 +123,8 @@ public class RElementSearchProcessor {
 	protected final Set<String> definitionFrameIds= new HashSet<>();
 	protected final List<IRProject> matchProjects= new ArrayList<>();
 	
+	private final Map<String, RIndexedAccesses> indexedAccesses= new HashMap<>();
+	
 	private IStatus status;
 	
 	
@@ -524,6 +534,13 @@ public class RElementSearchProcessor {
 		final ISourceUnitManager suManager= LTK.getSourceUnitManager(); 
 		List<ISourceUnit> sourceUnits= RModel.getRModelManager().findReferencingSourceUnits(
 				project, this.mainName, progress.newChild(10) );
+		if (sourceUnits != null && !sourceUnits.isEmpty()) {
+			final Map<String, RIndexedAccesses> projectAccesses= RCorePlugin.getDefault().getRModelManager()
+					.getIndex().findIndexedAccesses(project, this.mainName.getSegmentName(), progress );
+			if (projectAccesses != null) {
+				this.indexedAccesses.putAll(projectAccesses);
+			}
+		}
 		if (sourceUnits == null && force) {
 			sourceUnits= new ArrayList<>(1);
 		}
@@ -586,6 +603,10 @@ public class RElementSearchProcessor {
 	
 	private boolean searchDefinition(final ISourceUnit su, final String specificFrameId,
 			final SubMonitor progress) {
+		final RModelSummaryCache.Summary summary= getModelSummary(su);
+		if (summary != null) {
+			return summary.isDefined(specificFrameId, this.mainName.getSegmentName());
+		}
 		progress.setWorkRemaining(10);
 		su.connect(progress.newChild(1));
 		try {
@@ -621,6 +642,54 @@ public class RElementSearchProcessor {
 	}
 	
 	
+	private static IFile getUnchangedFile(final ISourceUnit su) {
+		final Object resource= su.getResource();
+		if (!(resource instanceof IFile)) {
+			return null;
+		}
+		final IFile file= (IFile) resource;
+		if (FileBuffers.getTextFileBufferManager().getTextFileBuffer(
+				file.getFullPath(), LocationKind.IFILE ) != null) {
+			return null;
+		}
+		return file;
+	}
+	
+	/**
+	 * Returns the summary of the model created by the builder, if the source unit is a file
+	 * which is not opened and not modified since the last build.
+	 */
+	private RModelSummaryCache.Summary getModelSummary(final ISourceUnit su) {
+		final IFile file= getUnchangedFile(su);
+		if (file == null) {
+			return null;
+		}
+		return RCorePlugin.getDefault().getRModelManager().getIndex().getSummaryCache()
+				.get(file.getFullPath().toString(), file.getModificationStamp());
+	}
+	
+	/**
+	 * Returns the accesses of the main name in the specified source unit recorded by the builder,
+	 * if the source unit is a file which is not opened and not modified since the last build.
+	 * 
+	 * The accesses allow to process the source unit without building its model.
+	 * 
+	 * @param su the source unit
+	 * @return the indexed accesses or <code>null</code> if not available
+	 */
+	protected RIndexedAccesses getIndexedAccesses(final ISourceUnit su) {
+		final RIndexedAccesses accesses= this.indexedAccesses.get(su.getId());
+		if (accesses == null) {
+			return null;
+		}
+		final IFile file= getUnchangedFile(su);
+		if (file == null || file.getModificationStamp() != accesses.getSourceStamp()) {
+			return null;
+		}
+		return accesses;
+	}
+	
+	
 	protected String getTaskName() {
 		return NLS.bind(Messages.SearchProcessor_label, this.name.getDisplayName());
 	}
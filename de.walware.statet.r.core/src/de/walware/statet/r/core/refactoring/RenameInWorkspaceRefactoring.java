@@ -54,6 +54,7 @@ import de.walware.statet.r.core.model.IRSourceUnit;
 import de.walware.statet.r.core.model.IRWorkspaceSourceUnit;
 import de.walware.statet.r.core.model.RElementAccess;
 import de.walware.statet.r.core.model.RElementName;
+import de.walware.statet.r.core.model.RIndexedAccesses;
 import de.walware.statet.r.core.model.RModel;
 import de.walware.statet.r.core.refactoring.RElementSearchProcessor.Mode;
 import de.walware.statet.r.core.rlang.RTerminal;
@@ -107,7 +108,14 @@ public class RenameInWorkspaceRefactoring extends Refactoring {
 				for (final ISourceUnit su : sus) {
 					progress.setWorkRemaining(remaining--);
 					final TextFileChange change= this.changeManager.get(su);
-					createChanges(su, change, this.definitionFrameIds, progress.newChild(1));
+					final RIndexedAccesses indexedAccesses= getIndexedAccesses(su);
+					if (indexedAccesses != null) {
+						createChanges(indexedAccesses, change, this.definitionFrameIds);
+						progress.worked(1);
+					}
+					else {
+						createChanges(su, change, this.definitionFrameIds, progress.newChild(1));
+					}
 				}
 			}
 		}
@@ -381,4 +389,32 @@ public class RenameInWorkspaceRefactoring extends Refactoring {
 		}
 	}
 	
+	private int createChanges(final RIndexedAccesses indexedAccesses, final TextFileChange change,
+			final Set<String> definitionFrameIds) {
+		int found= FOUND_NONE;
+		final String unquoted= RRefactoringAdapter.getUnquotedIdentifier(this.newName);
+		final boolean isQuoted= (this.newName.charAt(0) == '`');
+		
+		for (final String frameId : definitionFrameIds) {
+			final int[] accesses= indexedAccesses.getAccesses(frameId);
+			if (accesses == null) {
+				continue;
+			}
+			for (int idx= 0; idx < accesses.length; idx+= RIndexedAccesses.ENTRY_SIZE) {
+				final int flags= accesses[idx + RIndexedAccesses.FLAGS_IDX];
+				if ((flags & RIndexedAccesses.ACCESS_SLAVE) != 0) {
+					continue;
+				}
+				found|= ((flags & (RIndexedAccesses.ACCESS_WRITE | RIndexedAccesses.ACCESS_SUB)) == RIndexedAccesses.ACCESS_WRITE) ?
+						FOUND_WRITE : FOUND_READ;
+				final String text= (isQuoted && (flags & RIndexedAccesses.ACCESS_PLAIN_SYMBOL) != 0) ?
+						this.newName : unquoted;
+				TextChangeCompatibility.addTextEdit(change, Messages.RenameInWorkspace_Changes_ReplaceOccurrence_name,
+						new ReplaceEdit(accesses[idx + RIndexedAccesses.OFFSET_IDX],
+								accesses[idx + RIndexedAccesses.LENGTH_IDX], text ));
+			}
+		}
+		return found;
+	}
+	
 }
@@ -0,0 +1,243 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.core.rsource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.Region;
+import org.eclipse.text.edits.MalformedTreeException;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.TextEdit;
+
+import de.walware.jcommons.collections.ImCollections;
+
+import de.walware.ecommons.ltk.AstInfo;
+import de.walware.ecommons.text.core.input.StringParserInput;
+
+import de.walware.statet.r.core.IRCoreAccess;
+import de.walware.statet.r.core.RCore;
+import de.walware.statet.r.core.rsource.ast.RScanner;
+import de.walware.statet.r.core.rsource.ast.SourceComponent;
+import de.walware.statet.r.core.source.RDocumentContentInfo;
+import de.walware.statet.r.core.source.RDocumentSetupParticipant;
+import de.walware.statet.r.core.source.RHeuristicTokenScanner;
+
+
+/**
+ * Headless indenter to correct the indentation of the complete code of many R sources.
+ * 
+ * Each source is parsed once and all its lines are indented in one pass
+ * (see {@link RSourceIndenter#getIndentEdits(org.eclipse.jface.text.AbstractDocument, de.walware.ecommons.ltk.ast.IAstNode, List)}).
+ * Multiple sources are processed in parallel.
+ */
+public class RSourceBatchIndenter {
+	
+	
+	private class Worker {
+		
+		private final RSourceIndenter indenter;
+		private final RScanner scanner;
+		private final StringParserInput input;
+		private final RDocumentSetupParticipant documentSetup;
+		
+		
+		public Worker() {
+			this.indenter= new RSourceIndenter(
+					RHeuristicTokenScanner.create(RDocumentContentInfo.INSTANCE) );
+			this.scanner= new RScanner(AstInfo.LEVEL_MINIMAL);
+			this.input= new StringParserInput(0x1000);
+			this.documentSetup= new RDocumentSetupParticipant();
+		}
+		
+		
+		public String indent(final String source) throws CoreException {
+			final Document document= new Document(source);
+			this.documentSetup.setup(document);
+			final SourceComponent rootNode= this.scanner.scanSourceUnit(
+					this.input.reset(source).init() );
+			
+			this.indenter.setup(RSourceBatchIndenter.this.coreAccess);
+			try {
+				final MultiTextEdit edits= this.indenter.getIndentEdits(document, rootNode,
+						ImCollections.newList(new Region(0, document.getLength())) );
+				if (edits.getChildrenSize() == 0) {
+					return source;
+				}
+				edits.apply(document, TextEdit.NONE);
+				return document.get();
+			}
+			catch (final MalformedTreeException | BadLocationException e) {
+				throw new CoreException(new Status(Status.ERROR, RCore.PLUGIN_ID, -1,
+						"Indentation failed", e ));
+			}
+			finally {
+				this.indenter.clear();
+			}
+		}
+		
+	}
+	
+	
+	private final IRCoreAccess coreAccess;
+	
+	private final int threadCount;
+	
+	
+	/**
+	 * Creates a new batch indenter using all available processors.
+	 * 
+	 * @param coreAccess the R core access providing the code style
+	 */
+	public RSourceBatchIndenter(final IRCoreAccess coreAccess) {
+		this(coreAccess, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Creates a new batch indenter.
+	 * 
+	 * @param coreAccess the R core access providing the code style
+	 * @param threadCount the maximum number of threads to use
+	 */
+	public RSourceBatchIndenter(final IRCoreAccess coreAccess, final int threadCount) {
+		if (coreAccess == null) {
+			throw new NullPointerException("coreAccess"); //$NON-NLS-1$
+		}
+		if (threadCount <= 0) {
+			throw new IllegalArgumentException("threadCount: " + threadCount); //$NON-NLS-1$
+		}
+		this.coreAccess= coreAccess;
+		this.threadCount= threadCount;
+	}
+	
+	
+	/**
+	 * Corrects the indentation of the specified source in the current thread.
+	 * 
+	 * @param source the R source code
+	 * @return the indented source code
+	 * @throws CoreException if indentation failed
+	 */
+	public String indent(final String source) throws CoreException {
+		return new Worker().indent(source);
+	}
+	
+	/**
+	 * Corrects the indentation of the specified sources.
+	 * 
+	 * @param sources the R source codes
+	 * @param monitor the progress monitor
+	 * @return the indented source codes in the order of the specified sources
+	 * @throws CoreException if indentation of a source failed
+	 * @throws OperationCanceledException if the operation was canceled
+	 */
+	public List<String> indent(final List<String> sources,
+			final IProgressMonitor monitor) throws CoreException {
+		final SubMonitor progress= SubMonitor.convert(monitor, sources.size());
+		final String[] results= new String[sources.size()];
+		final AtomicInteger next= new AtomicInteger();
+		final AtomicInteger done= new AtomicInteger();
+		
+		final int count= Math.min(this.threadCount, sources.size());
+		if (count <= 1) {
+			final Worker worker= new Worker();
+			for (int i= 0; i < results.length; i++) {
+				if (progress.isCanceled() || Thread.currentThread().isInterrupted()) {
+					throw new OperationCanceledException();
+				}
+				results[i]= worker.indent(sources.get(i));
+				progress.worked(1);
+			}
+			return ImCollections.newList(results);
+		}
+		
+		final ExecutorService executor= Executors.newFixedThreadPool(count);
+		try {
+			final List<Future<Void>> futures= new ArrayList<>(count);
+			for (int i= 0; i < count; i++) {
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						try {
+							final Worker worker= new Worker();
+							int idx;
+							while ((idx= next.getAndIncrement()) < results.length) {
+								if (progress.isCanceled() || Thread.interrupted()) {
+									break;
+								}
+								results[idx]= worker.indent(sources.get(idx));
+								done.incrementAndGet();
+							}
+							return null;
+						}
+						finally {
+							// stops the other workers too, if the indentation failed
+							next.set(results.length);
+						}
+					}
+				}));
+			}
+			
+			int reported= 0;
+			for (final Future<Void> future : futures) {
+				while (true) {
+					try {
+						future.get(100, TimeUnit.MILLISECONDS);
+						break;
+					}
+					catch (final TimeoutException e) {
+						final int current= done.get();
+						progress.worked(current - reported);
+						reported= current;
+						if (progress.isCanceled()) {
+							next.set(results.length);
+						}
+					}
+				}
+			}
+			if (progress.isCanceled() || done.get() < results.length) {
+				throw new OperationCanceledException();
+			}
+			return ImCollections.newList(results);
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		}
+		catch (final ExecutionException e) {
+			if (e.getCause() instanceof CoreException) {
+				throw (CoreException) e.getCause();
+			}
+			throw new CoreException(new Status(Status.ERROR, RCore.PLUGIN_ID, -1,
+					"Indentation failed", e.getCause() ));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+	
+}
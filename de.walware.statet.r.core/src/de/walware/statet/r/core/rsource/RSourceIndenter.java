@@ -13,11 +13,13 @@ package de.walware.statet.r.core.rsource;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.text.AbstractDocument;
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IRegion;
 import org.eclipse.text.edits.MultiTextEdit;
 import org.eclipse.text.edits.ReplaceEdit;
 import org.eclipse.text.edits.TextEdit;
@@ -536,6 +538,45 @@ public class RSourceIndenter {
 		}
 	}
 	
+	/**
+	 * Computes the indentation of all lines of the document in a single pass over the AST and
+	 * creates the edits for the lines of the specified code ranges.
+	 * 
+	 * In contrast to {@link #getIndentEdits(AbstractDocument, IAstNode, int, int, int)}, the
+	 * indentation is not adjusted to a reference line before the ranges. Therefore it is
+	 * intended for ranges which are indented completely, e.g. all code of a document.
+	 * 
+	 * @param document the document
+	 * @param root the root node of the AST of the current content of the document
+	 * @param codeRanges the code ranges to indent
+	 * @return the edits
+	 * @throws CoreException
+	 */
+	public MultiTextEdit getIndentEdits(final AbstractDocument document, final IAstNode root,
+			final List<? extends IRegion> codeRanges) throws CoreException {
+		try {
+			fDocument = document;
+			fRootNode = root;
+			computeIndent(0, 0, document.getNumberOfLines() - 1);
+			
+			final MultiTextEdit edits = new MultiTextEdit();
+			for (final IRegion range : codeRanges) {
+				final int startLine = document.getLineOfOffset(range.getOffset());
+				int endLine = document.getLineOfOffset(range.getOffset() + range.getLength());
+				if (document.getLineOffset(endLine) == range.getOffset() + range.getLength()) {
+					endLine--;
+				}
+				if (startLine <= endLine) {
+					addEdits(edits, startLine, endLine);
+				}
+			}
+			return edits;
+		}
+		catch (final BadLocationException e) {
+			throw createFailedException(e);
+		}
+	}
+	
 	protected void computeIndent(final int codeOffset, final int firstLine, final int lastLine) throws BadLocationException {
 		try {
 			fCodeStyle.getReadLock().lock();
@@ -633,6 +674,12 @@ public class RSourceIndenter {
 	
 	protected MultiTextEdit createEdits() throws BadLocationException, CoreException {
 		final MultiTextEdit edits = new MultiTextEdit();
+		addEdits(edits, fFirstLine, fLastLine);
+		return edits;
+	}
+	
+	private void addEdits(final MultiTextEdit edits, final int firstLine, final int lastLine)
+			throws BadLocationException, CoreException {
 		final IndentEditAction action = new IndentEditAction() {
 			@Override
 			public int getIndentColumn(final int line, final int lineOffset) throws BadLocationException {
@@ -646,8 +693,7 @@ public class RSourceIndenter {
 				}
 			}
 		};
-		fUtil.changeIndent(fFirstLine, fLastLine, action);
-		return edits;
+		fUtil.changeIndent(firstLine, lastLine, action);
 	}
 	
 	protected final int getDocumentChar(final int idx) throws BadLocationException {
@@ -0,0 +1,172 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.core.rsource;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Pool for the text of R symbols and names shared by all parses and models.
+ * 
+ * The pool is thread-safe and holds its strings only weakly, so it does not prevent unused
+ * names from being garbage collected. The number of entries is bounded; if the pool is full,
+ * strings are returned as they are. The bound is applied to each segment of the pool, so the
+ * pool may be considered full before it reaches its maximum size, but never exceeds it.
+ */
+public final class RSymbolPool {
+	
+	
+	private static final int SEGMENT_COUNT= 0x20;
+	
+	private static final RSymbolPool DEFAULT= new RSymbolPool(0x40000);
+	
+	
+	/**
+	 * Returns the pool shared by the R core.
+	 * 
+	 * @return the shared pool
+	 */
+	public static RSymbolPool getDefault() {
+		return DEFAULT;
+	}
+	
+	
+	private static final class Segment extends WeakHashMap<String, WeakReference<String>> {
+		
+		public Segment() {
+			super(0x100);
+		}
+		
+	}
+	
+	
+	private final Segment[] segments;
+	private final int segmentMask;
+	private final int maxSegmentSize;
+	
+	private final LongAdder hitCount= new LongAdder();
+	private final LongAdder missCount= new LongAdder();
+	
+	
+	/**
+	 * Creates a new pool.
+	 * 
+	 * @param maxSize the maximum number of strings in the pool
+	 */
+	public RSymbolPool(final int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize: " + maxSize); //$NON-NLS-1$
+		}
+		// fewer segments for small pools, so the sum of the segment sizes is <= maxSize
+		final int segmentCount= Math.min(Integer.highestOneBit(maxSize), SEGMENT_COUNT);
+		this.segments= new Segment[segmentCount];
+		for (int i= 0; i < segmentCount; i++) {
+			this.segments[i]= new Segment();
+		}
+		this.segmentMask= segmentCount - 1;
+		this.maxSegmentSize= maxSize / segmentCount;
+	}
+	
+	
+	private Segment getSegment(final String s) {
+		final int h= s.hashCode();
+		return this.segments[(h ^ (h >>> 16)) & this.segmentMask];
+	}
+	
+	/**
+	 * Returns the canonical instance of the specified string.
+	 * 
+	 * @param s the string, may be <code>null</code>
+	 * @return the pooled string equal to <code>s</code>
+	 */
+	public String intern(final String s) {
+		if (s == null) {
+			return null;
+		}
+		final Segment segment= getSegment(s);
+		synchronized (segment) {
+			final WeakReference<String> ref= segment.get(s);
+			if (ref != null) {
+				final String pooled= ref.get();
+				if (pooled != null) {
+					this.hitCount.increment();
+					return pooled;
+				}
+			}
+			this.missCount.increment();
+			if (segment.size() < this.maxSegmentSize) {
+				segment.put(s, new WeakReference<>(s));
+			}
+			return s;
+		}
+	}
+	
+	
+	/**
+	 * Returns the number of lookups which returned an already pooled string.
+	 * 
+	 * @return the hit count
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+	
+	/**
+	 * Returns the number of lookups which did not find a pooled string.
+	 * 
+	 * @return the miss count
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+	
+	/**
+	 * Returns the current number of strings in the pool (approximately).
+	 * 
+	 * @return the size
+	 */
+	public int getSize() {
+		int size= 0;
+		for (final Segment segment : this.segments) {
+			synchronized (segment) {
+				size+= segment.size();
+			}
+		}
+		return size;
+	}
+	
+	/**
+	 * Resets the hit and miss counters.
+	 */
+	public void resetStatistics() {
+		this.hitCount.reset();
+		this.missCount.reset();
+	}
+	
+	
+	@Override
+	public String toString() {
+		final long hits= getHitCount();
+		final long misses= getMissCount();
+		final long total= hits + misses;
+		final StringBuilder sb= new StringBuilder("RSymbolPool"); //$NON-NLS-1$
+		sb.append(" (size= ").append(getSize()); //$NON-NLS-1$
+		sb.append(", hits= ").append(hits); //$NON-NLS-1$
+		sb.append(", misses= ").append(misses); //$NON-NLS-1$
+		sb.append(", hitRate= ").append((total > 0) ? ((hits * 100) / total) : 0).append('%'); //$NON-NLS-1$
+		sb.append(')');
+		return sb.toString();
+	}
+	
+}
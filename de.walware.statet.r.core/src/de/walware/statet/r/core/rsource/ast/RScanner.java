@@ -53,12 +53,15 @@ import de.walware.ecommons.text.core.input.TextParserInput;
 
 import de.walware.statet.r.core.rlang.RTerminal;
 import de.walware.statet.r.core.rsource.RLexer;
+import de.walware.statet.r.core.rsource.RSymbolPool;
 import de.walware.statet.r.core.rsource.ast.RAstNode.Assoc;
 import de.walware.statet.r.internal.core.RCorePlugin;
 
 
 /**
  * Scanner to create a R AST.
+ * 
+ * The text of symbols is shared using the {@link RSymbolPool#getDefault() default symbol pool}.
  */
 public final class RScanner {
 	
@@ -151,6 +154,7 @@ public final class RScanner {
 	
 	private final boolean createText;
 	private final IStringFactory symbolTextFactory;
+	private final RSymbolPool symbolPool;
 	
 	
 	public RScanner(final int level) {
@@ -169,6 +173,7 @@ public final class RScanner {
 			throw new NullPointerException("lexer"); //$NON-NLS-1$
 		}
 		this.symbolTextFactory = (symbolTextFactory != null) ? symbolTextFactory : StringFactory.INSTANCE;
+		this.symbolPool= RSymbolPool.getDefault();
 		this.createText= ((level & AstInfo.DEFAULT_LEVEL_MASK) > AstInfo.LEVEL_MINIMAL);
 		
 		this.level= level;
@@ -1550,7 +1555,7 @@ public final class RScanner {
 		final Special node = new Special();
 		setupFromSourceToken(node);
 		if (this.createText) {
-			node.fQualifier = this.lexer.getText(this.symbolTextFactory);
+			node.fQualifier = this.symbolPool.intern(this.lexer.getText(this.symbolTextFactory));
 		}
 		consumeToken();
 		return node;
@@ -1625,7 +1630,7 @@ public final class RScanner {
 		node.fStartOffset = this.lexer.getOffset();
 		node.fStopOffset = this.lexer.getOffset()+this.lexer.getLength();
 		if (this.createText) {
-			node.fText = this.lexer.getText(this.symbolTextFactory);
+			node.fText = this.symbolPool.intern(this.lexer.getText(this.symbolTextFactory));
 			if (this.lexer.getStatusDetail() != null) {
 				node.addAttachment(this.lexer.getStatusDetail());
 			}
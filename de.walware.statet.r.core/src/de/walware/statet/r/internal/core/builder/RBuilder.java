@@ -60,6 +60,7 @@ public class RBuilder implements IResourceDeltaVisitor, IResourceVisitor {
 	public static void clearMarkers(final IResource resource) {
 		try {
 			resource.deleteMarkers("de.walware.statet.r.markers.Tasks", false, IResource.DEPTH_INFINITE); //$NON-NLS-1$
+			resource.deleteMarkers(RSyntaxCheckJob.PROBLEM_MARKER_ID, false, IResource.DEPTH_INFINITE);
 		}
 		catch (final CoreException e) {
 			RCorePlugin.logError(ICommonStatusConstants.BUILD_ERROR, "R Builder: Failed to remove old markers.", e);
@@ -119,6 +120,8 @@ public class RBuilder implements IResourceDeltaVisitor, IResourceVisitor {
 			
 			this.modelManager.getIndex().update(project, this.toRemoveRSU, this.toUpdateRSU,
 					this.statusCollector, m );
+			
+			scheduleSyntaxCheck(project);
 		}
 		catch (final CoreException e) {
 			this.statusCollector.add(new Status(IStatus.ERROR, RCore.PLUGIN_ID, ICommonStatusConstants.BUILD_ERROR,
@@ -217,6 +220,8 @@ public class RBuilder implements IResourceDeltaVisitor, IResourceVisitor {
 			}
 			
 			this.modelManager.getIndex().update(project, null, this.toUpdateRSU, this.statusCollector, m);
+			
+			scheduleSyntaxCheck(project);
 		}
 		catch (final CoreException e) {
 			this.statusCollector.add(new Status(IStatus.ERROR, RCore.PLUGIN_ID, ICommonStatusConstants.BUILD_ERROR,
@@ -277,7 +282,21 @@ public class RBuilder implements IResourceDeltaVisitor, IResourceVisitor {
 		}
 	}
 	
+	private void scheduleSyntaxCheck(final IRProject project) {
+		if (this.toUpdateRSU.isEmpty()) {
+			return;
+		}
+		final List<IFile> files= new ArrayList<>(this.toUpdateRSU.size());
+		for (final IRWorkspaceSourceUnit su : this.toUpdateRSU) {
+			if (su != null) {
+				files.add((IFile) su.getResource());
+			}
+		}
+		new RSyntaxCheckJob(project.getProject(), files).schedule();
+	}
+	
 	public void clean(final IProject project, final IProgressMonitor monitor) {
+		RSyntaxCheckJob.cancel(project);
 		clearMarkers(project);
 		
 		this.modelManager.getIndex().clear(project);
@@ -0,0 +1,403 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.internal.core.builder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.osgi.util.NLS;
+
+import de.walware.ecommons.ICommonStatusConstants;
+import de.walware.ecommons.ltk.AstInfo;
+import de.walware.ecommons.ltk.IProblem;
+import de.walware.ecommons.ltk.IProblemRequestor;
+import de.walware.ecommons.ltk.LTK;
+import de.walware.ecommons.ltk.core.SourceContent;
+import de.walware.ecommons.ltk.core.model.ISourceUnit;
+import de.walware.ecommons.text.core.ILineInformation;
+import de.walware.ecommons.text.core.input.StringParserInput;
+
+import de.walware.statet.r.core.RCore;
+import de.walware.statet.r.core.model.RModel;
+import de.walware.statet.r.core.rsource.ast.RScanner;
+import de.walware.statet.r.core.rsource.ast.SourceComponent;
+import de.walware.statet.r.internal.core.RCorePlugin;
+import de.walware.statet.r.internal.core.sourcemodel.SyntaxProblemReporter;
+
+
+/**
+ * Job checking the syntax of R files of a project and reporting the problems as markers.
+ * 
+ * The files are parsed and checked in parallel, each worker thread with its own scanner and
+ * {@link SyntaxProblemReporter}. The markers are created in batches by the job thread.
+ * 
+ * Files open in an editor are skipped, their problems are reported by the reconciler of the
+ * editor.
+ */
+public class RSyntaxCheckJob extends Job {
+	
+	
+	public static final String PROBLEM_MARKER_ID= "de.walware.statet.r.markers.Problems"; //$NON-NLS-1$
+	
+	private static final int MARKER_BATCH_SIZE= 250;
+	
+	private static final FileResult FINISH= new FileResult(null, 0, null);
+	
+	
+	private static class FileResult {
+		
+		final IFile file;
+		final long stamp;
+		final SourceContent content;
+		final List<IProblem> problems= new ArrayList<>();
+		
+		public FileResult(final IFile file, final long stamp, final SourceContent content) {
+			this.file= file;
+			this.stamp= stamp;
+			this.content= content;
+		}
+		
+	}
+	
+	private class Worker implements Runnable, IProblemRequestor {
+		
+		private final RScanner scanner= new RScanner(AstInfo.LEVEL_MODEL_DEFAULT);
+		private final StringParserInput input= new StringParserInput(0x1000);
+		private final SyntaxProblemReporter reporter= new SyntaxProblemReporter();
+		
+		private FileResult current;
+		
+		
+		public Worker() {
+		}
+		
+		
+		@Override
+		public void run() {
+			try {
+				int idx;
+				while ((idx= RSyntaxCheckJob.this.next.getAndIncrement()) < RSyntaxCheckJob.this.files.size()) {
+					if (RSyntaxCheckJob.this.canceled) {
+						return;
+					}
+					final IFile file= RSyntaxCheckJob.this.files.get(idx);
+					if (RSyntaxCheckJob.this.openFiles.contains(file)) {
+						continue;
+					}
+					try {
+						check(file);
+					}
+					catch (final CoreException e) {
+						addStatus(new Status(IStatus.ERROR, RCore.PLUGIN_ID,
+								ICommonStatusConstants.BUILD_ERROR,
+								NLS.bind("An error occurred when checking ''{0}''", file.getFullPath().toString()),
+								e ));
+					}
+				}
+			}
+			finally {
+				if (RSyntaxCheckJob.this.running.decrementAndGet() == 0) {
+					RSyntaxCheckJob.this.results.add(FINISH);
+				}
+			}
+		}
+		
+		private void check(final IFile file) throws CoreException {
+			if (!file.exists()) {
+				return;
+			}
+			final long stamp= file.getModificationStamp();
+			final String text= readFile(file);
+			final SourceContent content= new SourceContent(stamp, text);
+			final SourceComponent rootNode= this.scanner.scanSourceUnit(
+					this.input.reset(text).init() );
+			
+			this.current= new FileResult(file, stamp, content);
+			try {
+				this.reporter.run(null, content, rootNode, this);
+				RSyntaxCheckJob.this.results.add(this.current);
+			}
+			finally {
+				this.current= null;
+			}
+		}
+		
+		@Override
+		public void acceptProblems(final IProblem problem) {
+			this.current.problems.add(problem);
+		}
+		
+		@Override
+		public void acceptProblems(final String categoryId, final List<IProblem> problems) {
+			this.current.problems.addAll(problems);
+		}
+		
+		@Override
+		public void finish() {
+		}
+		
+	}
+	
+	private class MarkerUpdateRunnable implements IWorkspaceRunnable {
+		
+		private final List<FileResult> batch= new ArrayList<>(MARKER_BATCH_SIZE);
+		
+		
+		public MarkerUpdateRunnable() {
+		}
+		
+		
+		@Override
+		public void run(final IProgressMonitor monitor) throws CoreException {
+			final Set<IResource> openFiles= getOpenFiles();
+			final Map<String, Object> attributes= new HashMap<>();
+			for (final FileResult result : this.batch) {
+				if (!result.file.exists() || result.file.getModificationStamp() != result.stamp) {
+					continue; // outdated, will be checked again
+				}
+				if (openFiles.contains(result.file)) {
+					continue; // opened in the meantime
+				}
+				result.file.deleteMarkers(PROBLEM_MARKER_ID, false, IResource.DEPTH_ZERO);
+				if (result.problems.isEmpty()) {
+					continue;
+				}
+				final ILineInformation lines= result.content.getLines();
+				for (final IProblem problem : result.problems) {
+					attributes.clear();
+					attributes.put(IMarker.SEVERITY, toMarkerSeverity(problem.getSeverity()));
+					attributes.put(IMarker.MESSAGE, problem.getMessage());
+					attributes.put(IMarker.CHAR_START, problem.getSourceStartOffset());
+					attributes.put(IMarker.CHAR_END, problem.getSourceStopOffset());
+					try {
+						attributes.put(IMarker.LINE_NUMBER,
+								lines.getLineOfOffset(problem.getSourceStartOffset()) + 1 );
+					}
+					catch (final BadLocationException e) {}
+					attributes.put(IMarker.SOURCE_ID, RCore.PLUGIN_ID);
+					result.file.createMarker(PROBLEM_MARKER_ID).setAttributes(attributes);
+				}
+			}
+		}
+		
+	}
+	
+	
+	/**
+	 * Cancels the jobs checking the specified project.
+	 * 
+	 * @param project the project
+	 */
+	public static void cancel(final IProject project) {
+		for (final Job job : Job.getJobManager().find(RSyntaxCheckJob.class)) {
+			if (((RSyntaxCheckJob) job).project.equals(project)) {
+				job.cancel();
+			}
+		}
+	}
+	
+	private static Set<IResource> getOpenFiles() {
+		final List<? extends ISourceUnit> sus= LTK.getSourceUnitManager().getOpenSourceUnits(
+				RModel.TYPE_ID, LTK.EDITOR_CONTEXT );
+		final Set<IResource> files= new HashSet<>(sus.size());
+		for (final ISourceUnit su : sus) {
+			final Object resource= su.getResource();
+			if (resource instanceof IResource) {
+				files.add((IResource) resource);
+			}
+		}
+		return files;
+	}
+	
+	private static int toMarkerSeverity(final int problemSeverity) {
+		switch (problemSeverity) {
+		case IProblem.SEVERITY_ERROR:
+			return IMarker.SEVERITY_ERROR;
+		case IProblem.SEVERITY_WARNING:
+			return IMarker.SEVERITY_WARNING;
+		default:
+			return IMarker.SEVERITY_INFO;
+		}
+	}
+	
+	
+	private final IProject project;
+	private final List<IFile> files;
+	
+	private final int threadCount;
+	
+	private final AtomicInteger next= new AtomicInteger();
+	private final AtomicInteger running= new AtomicInteger();
+	private final BlockingQueue<FileResult> results= new LinkedBlockingQueue<>();
+	private volatile boolean canceled;
+	
+	private Set<IResource> openFiles;
+	
+	private MultiStatus statusCollector;
+	
+	
+	/**
+	 * Creates a new job.
+	 * 
+	 * @param project the project
+	 * @param files the R files of the project to check
+	 */
+	public RSyntaxCheckJob(final IProject project, final List<IFile> files) {
+		super(NLS.bind("Checking R syntax of ''{0}''", project.getName()));
+		setPriority(Job.BUILD);
+		setSystem(true);
+		setRule(null);
+		
+		this.project= project;
+		this.files= files;
+		this.threadCount= Math.max(1,
+				Math.min(Runtime.getRuntime().availableProcessors(), files.size() / 8) );
+	}
+	
+	
+	@Override
+	public boolean belongsTo(final Object family) {
+		return (family == RSyntaxCheckJob.class);
+	}
+	
+	@Override
+	protected void canceling() {
+		this.canceled= true;
+		super.canceling();
+	}
+	
+	private synchronized void addStatus(final IStatus status) {
+		this.statusCollector.add(status);
+	}
+	
+	@Override
+	protected IStatus run(final IProgressMonitor monitor) {
+		final SubMonitor progress= SubMonitor.convert(monitor, this.files.size());
+		this.statusCollector= new MultiStatus(RCore.PLUGIN_ID, 0,
+				"R syntax check status for " + this.project.getName(), null );
+		if (this.files.isEmpty()) {
+			return Status.OK_STATUS;
+		}
+		
+		this.openFiles= getOpenFiles();
+		final IWorkspace workspace= this.project.getWorkspace();
+		final ExecutorService executor= Executors.newFixedThreadPool(this.threadCount);
+		try {
+			this.running.set(this.threadCount);
+			for (int i= 0; i < this.threadCount; i++) {
+				executor.execute(new Worker());
+			}
+			
+			MarkerUpdateRunnable markerUpdate= new MarkerUpdateRunnable();
+			while (true) {
+				if (progress.isCanceled()) {
+					this.canceled= true;
+					return Status.CANCEL_STATUS;
+				}
+				final FileResult result= this.results.poll(100, TimeUnit.MILLISECONDS);
+				if (result != null && result != FINISH) {
+					markerUpdate.batch.add(result);
+					progress.worked(1);
+				}
+				if (result == FINISH
+						|| markerUpdate.batch.size() >= MARKER_BATCH_SIZE
+						|| (result == null && !markerUpdate.batch.isEmpty()) ) {
+					if (!markerUpdate.batch.isEmpty()) {
+						try {
+							workspace.run(markerUpdate, null, IWorkspace.AVOID_UPDATE, null);
+						}
+						catch (final CoreException e) {
+							addStatus(new Status(IStatus.ERROR, RCore.PLUGIN_ID,
+									ICommonStatusConstants.BUILD_ERROR,
+									"Failed to create problem marker(s).", e ));
+						}
+						markerUpdate= new MarkerUpdateRunnable();
+					}
+					if (result == FINISH) {
+						break;
+					}
+				}
+			}
+		}
+		catch (final InterruptedException e) {
+			this.canceled= true;
+			return Status.CANCEL_STATUS;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		
+		if (this.statusCollector.getSeverity() == IStatus.ERROR) {
+			RCorePlugin.log(this.statusCollector);
+		}
+		return Status.OK_STATUS;
+	}
+	
+	
+	private String readFile(final IFile file) throws CoreException {
+		InputStream input= null;
+		try {
+			input= file.getContents();
+			final BufferedReader reader= new BufferedReader(new InputStreamReader(input, file.getCharset()));
+			
+			final StringBuilder text= new StringBuilder(0x1000);
+			final char[] readBuffer= new char[0x2000];
+			int n;
+			while ((n= reader.read(readBuffer)) > 0) {
+				text.append(readBuffer, 0, n);
+			}
+			return text.toString();
+		}
+		catch (final IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, RCore.PLUGIN_ID,
+					ICommonStatusConstants.BUILD_ERROR,
+					NLS.bind("An error occurred when reading ''{0}''", file.getFullPath().toString()),
+					e ));
+		}
+		finally {
+			if (input != null) {
+				try {
+					input.close();
+				} catch (final IOException ignore) {}
+			}
+		}
+	}
+	
+}
@@ -29,6 +29,7 @@ import de.walware.ecommons.io.FileUtil;
 
 import de.walware.rj.data.RCharacterStore;
 import de.walware.rj.data.RDataUtil;
+import de.walware.rj.data.RList;
 import de.walware.rj.data.UnexpectedRDataException;
 import de.walware.rj.services.RService;
 
@@ -44,21 +45,52 @@ import de.walware.statet.r.internal.core.renv.RLibraryLocation;
 public class REnvLibGroups {
 	
 	
-	static REnvLibGroups loadFromR(final RService r,
+	/**
+	 * Loads the library groups from R.
+	 * 
+	 * All values are fetched by a single evaluation. If they didn't change since the specified
+	 * previous groups were loaded (e.g. by another console of the same R environment), the
+	 * previous groups are returned.
+	 * 
+	 * @param r the R service
+	 * @param previous the previously loaded groups or <code>null</code>
+	 * @param monitor
+	 * @return the library groups
+	 */
+	static REnvLibGroups loadFromR(final RService r, final REnvLibGroups previous,
 			final IProgressMonitor monitor) throws CoreException {
 		try {
+			final RList data = RDataUtil.checkRList(r.evalData(
+					"list(R.home(), Sys.getenv('R_LIBS_USER'), .Library.site, .Library, .libPaths())", //$NON-NLS-1$
+					monitor ));
+			final String rHome = RDataUtil.checkSingleCharValue(data.get(0));
+			final String userVar = RDataUtil.checkSingleCharValue(data.get(1));
+			final RCharacterStore sitePaths = RDataUtil.checkRCharVector(data.get(2)).getData();
+			final RCharacterStore defaultPaths = RDataUtil.checkRCharVector(data.get(3)).getData();
+			final RCharacterStore otherPaths = RDataUtil.checkRCharVector(data.get(4)).getData();
+			
+			final String key;
+			{	final StringBuilder sb = new StringBuilder(256);
+				sb.append(rHome).append('\n');
+				sb.append(userVar).append('\n');
+				appendKey(sb, sitePaths);
+				appendKey(sb, defaultPaths);
+				appendKey(sb, otherPaths);
+				key = sb.toString();
+			}
+			if (previous != null && key.equals(previous.fKey)) {
+				return previous;
+			}
+			
 			final List<IRLibraryLocation>[] groups = new List[4];
 			for (int i = 0; i < groups.length; i++) {
 				groups[i] = new ArrayList<>(4);
 			}
 			
-			final String rHome = RDataUtil.checkSingleCharValue(r.evalData("R.home()", monitor)); //$NON-NLS-1$
 			final Pattern varPattern = Pattern.compile(Pattern.quote(r.getPlatform().getPathSep()));
 			
 			final Set<String> added = new HashSet<>();
-			{	final String userVar = RDataUtil.checkSingleCharValue(
-						r.evalData("Sys.getenv('R_LIBS_USER')", monitor) ); //$NON-NLS-1$
-				final String[] paths = varPattern.split(userVar);
+			{	final String[] paths = varPattern.split(userVar);
 				for (final String path : paths) {
 					if (path != null && !path.isEmpty()) {
 						groups[1].add(new RLibraryLocation(IRLibraryLocation.R, path, null));
@@ -66,40 +98,11 @@ public class REnvLibGroups {
 					}
 				}
 			}
-			{	final RCharacterStore paths = RDataUtil.checkRCharVector(
-						r.evalData(".Library.site", monitor) ).getData(); //$NON-NLS-1$
-				final int l = RDataUtil.checkIntLength(paths);
-				for (int i = 0; i < l; i++) {
-					final String path = paths.get(i);
-					if (path != null && !path.isEmpty()) {
-						groups[2].add(new RLibraryLocation(IRLibraryLocation.R, path, null));
-						added.add(path);
-					}
-				}
-			}
-			{	final RCharacterStore paths = RDataUtil.checkRCharVector(
-						r.evalData(".Library", monitor) ).getData(); //$NON-NLS-1$
-				final int l = RDataUtil.checkIntLength(paths);
-				for (int i = 0; i < l; i++) {
-					final String path = paths.get(i);
-					if (path != null && !path.isEmpty()) {
-						groups[3].add(new RLibraryLocation(IRLibraryLocation.R, path, null));
-						added.add(path);
-					}
-				}
-			}
-			{	final RCharacterStore paths = RDataUtil.checkRCharVector(
-						r.evalData(".libPaths()", monitor) ).getData(); //$NON-NLS-1$
-				final int l = RDataUtil.checkIntLength(paths);
-				for (int i = 0; i < l; i++) {
-					final String path = paths.get(i);
-					if (path != null && !path.isEmpty() && added.add(path)) {
-						groups[0].add(new RLibraryLocation(IRLibraryLocation.R, path, null));
-					}
-				}
-			}
+			addLocations(sitePaths, groups[2], added, false);
+			addLocations(defaultPaths, groups[3], added, false);
+			addLocations(otherPaths, groups[0], added, true);
 			
-			return new REnvLibGroups(rHome, groups);
+			return new REnvLibGroups(rHome, groups, key);
 		}
 		catch (final UnexpectedRDataException | CoreException e) {
 			throw new CoreException(new Status(IStatus.ERROR, RCore.PLUGIN_ID,
@@ -108,16 +111,41 @@ public class REnvLibGroups {
 		}
 	}
 	
+	private static void appendKey(final StringBuilder sb, final RCharacterStore paths)
+			throws UnexpectedRDataException {
+		final int l = RDataUtil.checkIntLength(paths);
+		for (int i = 0; i < l; i++) {
+			sb.append(paths.get(i)).append('\n');
+		}
+		sb.append('\n');
+	}
+	
+	private static void addLocations(final RCharacterStore paths,
+			final List<IRLibraryLocation> locations, final Set<String> added, final boolean onlyNew)
+			throws UnexpectedRDataException {
+		final int l = RDataUtil.checkIntLength(paths);
+		for (int i = 0; i < l; i++) {
+			final String path = paths.get(i);
+			if (path != null && !path.isEmpty() && (added.add(path) || !onlyNew)) {
+				locations.add(new RLibraryLocation(IRLibraryLocation.R, path, null));
+			}
+		}
+	}
+	
 	
 	private final String fRHome;
 	private final List<? extends IRLibraryGroup> fGroups;
 	
+	/** the values loaded from R, to detect changes */
+	private final String fKey;
+	
 	
-	private REnvLibGroups(String rHome, final List<IRLibraryLocation>[] groups) {
+	private REnvLibGroups(String rHome, final List<IRLibraryLocation>[] groups, final String key) {
 		if (rHome.endsWith("/") || rHome.endsWith("\\")) { //$NON-NLS-1$ //$NON-NLS-2$
 			rHome = rHome.substring(0, rHome.length() - 1);
 		}
 		fRHome = rHome;
+		fKey = key;
 		
 		for (int i = 0; i < 4; i++) {
 			final List<IRLibraryLocation> locations = groups[i];
@@ -147,6 +175,7 @@ public class REnvLibGroups {
 	public REnvLibGroups(final IREnvConfiguration config) {
 		fRHome = null;
 		fGroups = config.getRLibraryGroups();
+		fKey = null;
 	}
 	
 	
@@ -301,7 +301,17 @@ public class RPkgManager implements IRPkgManager.Ext, IPreferenceSetService.ICha
 			
 			final IREnvConfiguration config= this.rEnv.getConfig();
 			if (config != null && config.isRemote()) {
-				this.rLibGroups= REnvLibGroups.loadFromR(r, monitor);
+				// shared by the consoles of the R environment, kept if unchanged
+				final REnvLibGroups rLibGroups= REnvLibGroups.loadFromR(r, this.rLibGroups, monitor);
+				if (rLibGroups != this.rLibGroups) {
+					getWriteLock().lock();
+					try {
+						this.rLibGroups= rLibGroups;
+					}
+					finally {
+						getWriteLock().unlock();
+					}
+				}
 			}
 		}
 	}
@@ -0,0 +1,206 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.internal.core.sourcemodel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jface.text.IRegion;
+
+import de.walware.statet.r.core.model.IRFrame;
+import de.walware.statet.r.core.model.IRFrameInSource;
+import de.walware.statet.r.core.model.IRModelInfo;
+import de.walware.statet.r.core.model.RElementAccess;
+import de.walware.statet.r.core.model.RIndexedAccesses;
+import de.walware.statet.r.core.rlang.RTerminal;
+import de.walware.statet.r.core.rsource.ast.NodeType;
+import de.walware.statet.r.core.rsource.ast.RAst;
+import de.walware.statet.r.core.rsource.ast.RAstNode;
+
+
+/**
+ * Binary format of the inverted access index of a source unit.
+ * 
+ * <pre>
+ * long   source stamp
+ * int    name count
+ * for each name:
+ *   UTF    name
+ *   int    byte length of name data
+ *   int    frame count
+ *   for each frame:
+ *     UTF    frame id ("" for top frame)
+ *     int    access count
+ *     int[]  access triples (offset, length, flags)
+ * </pre>
+ * 
+ * The byte length allows to skip names when reading the accesses of a single name.
+ */
+final class RAccessIndexData {
+	
+	
+	private static final String TOP_FRAME_ID= ""; //$NON-NLS-1$
+	
+	
+	static byte[] create(final IRModelInfo model) {
+		// name -> frameId -> accesses
+		final Map<String, Map<String, int[]>> index= new HashMap<>();
+		addFrame(TOP_FRAME_ID, model.getTopFrame(), index);
+		for (final Map.Entry<String, ? extends IRFrame> entry : model.getReferencedFrames().entrySet()) {
+			addFrame(entry.getKey(), entry.getValue(), index);
+		}
+		
+		try {
+			final ByteArrayOutputStream bytes= new ByteArrayOutputStream(0x1000);
+			final DataOutputStream out= new DataOutputStream(bytes);
+			final ByteArrayOutputStream nameBytes= new ByteArrayOutputStream(0x100);
+			final DataOutputStream nameOut= new DataOutputStream(nameBytes);
+			out.writeLong(model.getStamp().getSourceStamp());
+			out.writeInt(index.size());
+			for (final Map.Entry<String, Map<String, int[]>> nameEntry : index.entrySet()) {
+				nameBytes.reset();
+				nameOut.writeInt(nameEntry.getValue().size());
+				for (final Map.Entry<String, int[]> frameEntry : nameEntry.getValue().entrySet()) {
+					final int[] accesses= frameEntry.getValue();
+					nameOut.writeUTF(frameEntry.getKey());
+					nameOut.writeInt(accesses.length / RIndexedAccesses.ENTRY_SIZE);
+					for (int i= 0; i < accesses.length; i++) {
+						nameOut.writeInt(accesses[i]);
+					}
+				}
+				nameOut.flush();
+				
+				out.writeUTF(nameEntry.getKey());
+				out.writeInt(nameBytes.size());
+				nameBytes.writeTo(out);
+			}
+			out.flush();
+			return bytes.toByteArray();
+		}
+		catch (final IOException e) {
+			throw new IllegalStateException(e); // not possible
+		}
+	}
+	
+	private static void addFrame(final String frameId, final IRFrame frame,
+			final Map<String, Map<String, int[]>> index) {
+		if (!(frame instanceof IRFrameInSource)) {
+			return;
+		}
+		final IRFrameInSource frameInSource= (IRFrameInSource) frame;
+		final Set<RElementAccess> masterAccess= Collections.newSetFromMap(
+				new IdentityHashMap<RElementAccess, Boolean>() );
+		for (final String name : frameInSource.getAllAccessNames()) {
+			if (name == null) {
+				continue;
+			}
+			final List<? extends RElementAccess> allAccess= frameInSource.getAllAccessOf(name, true);
+			if (allAccess == null || allAccess.isEmpty()) {
+				continue;
+			}
+			masterAccess.clear();
+			final List<? extends RElementAccess> frameAccess= frameInSource.getAllAccessOf(name, false);
+			if (frameAccess != null) {
+				masterAccess.addAll(frameAccess);
+			}
+			
+			final int[] accesses= new int[allAccess.size() * RIndexedAccesses.ENTRY_SIZE];
+			int idx= 0;
+			for (final RElementAccess access : allAccess) {
+				final RAstNode nameNode= access.getNameNode();
+				if (nameNode == null) {
+					continue;
+				}
+				final IRegion nameRegion= RAst.getElementNameRegion(nameNode);
+				int flags= 0;
+				if (access.isWriteAccess()) {
+					flags|= RIndexedAccesses.ACCESS_WRITE;
+				}
+				if (access.isCallAccess()) {
+					flags|= RIndexedAccesses.ACCESS_CALL;
+				}
+				if (access.isFunctionAccess()) {
+					flags|= RIndexedAccesses.ACCESS_FUNCTION;
+				}
+				if (access.getNextSegment() != null) {
+					flags|= RIndexedAccesses.ACCESS_SUB;
+				}
+				if (access.isMaster()) {
+					flags|= RIndexedAccesses.ACCESS_MASTER;
+				}
+				if (!masterAccess.contains(access)) {
+					flags|= RIndexedAccesses.ACCESS_SLAVE;
+				}
+				if (nameNode.getNodeType() == NodeType.SYMBOL && nameNode.getOperator(0) == RTerminal.SYMBOL) {
+					flags|= RIndexedAccesses.ACCESS_PLAIN_SYMBOL;
+				}
+				accesses[idx + RIndexedAccesses.OFFSET_IDX]= nameRegion.getOffset();
+				accesses[idx + RIndexedAccesses.LENGTH_IDX]= nameRegion.getLength();
+				accesses[idx + RIndexedAccesses.FLAGS_IDX]= flags;
+				idx+= RIndexedAccesses.ENTRY_SIZE;
+			}
+			if (idx == 0) {
+				continue;
+			}
+			
+			Map<String, int[]> nameIndex= index.get(name);
+			if (nameIndex == null) {
+				nameIndex= new HashMap<>(4);
+				index.put(name, nameIndex);
+			}
+			nameIndex.put(frameId, (idx == accesses.length) ? accesses : Arrays.copyOf(accesses, idx));
+		}
+	}
+	
+	
+	static RIndexedAccesses read(final String unitId, final byte[] data, final String name)
+			throws IOException {
+		final DataInputStream in= new DataInputStream(new ByteArrayInputStream(data));
+		final long sourceStamp= in.readLong();
+		final int nameCount= in.readInt();
+		for (int nameIdx= 0; nameIdx < nameCount; nameIdx++) {
+			final String indexName= in.readUTF();
+			final int length= in.readInt();
+			if (!indexName.equals(name)) {
+				in.skipBytes(length);
+				continue;
+			}
+			final int frameCount= in.readInt();
+			final Map<String, int[]> frameAccesses= new HashMap<>(frameCount);
+			for (int frameIdx= 0; frameIdx < frameCount; frameIdx++) {
+				final String frameId= in.readUTF();
+				final int[] accesses= new int[in.readInt() * RIndexedAccesses.ENTRY_SIZE];
+				for (int i= 0; i < accesses.length; i++) {
+					accesses[i]= in.readInt();
+				}
+				frameAccesses.put((frameId.equals(TOP_FRAME_ID)) ? null : frameId, accesses);
+			}
+			return new RIndexedAccesses(unitId, sourceStamp, frameAccesses);
+		}
+		return new RIndexedAccesses(unitId, sourceStamp, Collections.<String, int[]>emptyMap());
+	}
+	
+	
+	private RAccessIndexData() {
+	}
+	
+}
@@ -65,6 +65,8 @@ import de.walware.statet.r.core.model.IRModelInfo;
 import de.walware.statet.r.core.model.IRSourceUnit;
 import de.walware.statet.r.core.model.IRWorkspaceSourceUnit;
 import de.walware.statet.r.core.model.RElementName;
+import de.walware.statet.r.core.model.RIndexedAccesses;
+import de.walware.statet.r.core.model.RIndexedFunction;
 import de.walware.statet.r.core.model.RModel;
 import de.walware.statet.r.core.model.RModelIndexUpdate;
 import de.walware.statet.r.core.model.RSuModelContainer;
@@ -83,7 +85,7 @@ public class RModelIndex {
 		
 		static final String NAME= "RINDEX";
 		
-		static final String VERSION= "18";
+		static final String VERSION= "21";
 		
 		static final class Properties {
 			
@@ -293,6 +295,88 @@ public class RModelIndex {
 			
 		}
 		
+		static final class Accesses {
+			
+			static final String NAME= "ACCESSES";
+			static final String QNAME= RIndex.NAME+'.'+NAME;
+			
+			/** db-id of source unit -> SourceUnits.ID */
+			static final String COL_SU_ID= "SU_ID";
+			/** blob, see RAccessIndexData */
+			static final String COL_DATA= "DATA";
+			
+			static final String DEFINE_1= "create table " + QNAME + " ("
+						+ COL_SU_ID         + " bigint not null "
+								+ "primary key "
+								+ "references " + SourceUnits.QNAME + " on delete cascade, "
+						+ COL_DATA          + " blob"
+					+ ")";
+			
+			static final String OP_insert= "insert into " + QNAME + " ("
+						+ COL_SU_ID + ", "
+						+ COL_DATA + ") "
+					+ "values (?, ?)";
+			
+			static final String OP_update= "update " + QNAME + " set "
+						+ COL_DATA + " = ? "
+					+ "where (" + COL_SU_ID + " = ?)";
+			
+			static final String OP_get_ofProjectAndName= "select "
+						+ "S."+SourceUnits.COL_NAME + ", "
+						+ "A."+COL_DATA + " "
+					+ "from " + SourceUnits.QNAME + " as S "
+					+ "inner join " + MainNames.QNAME + " as M on (M."+MainNames.COL_SU_ID + " = S."+SourceUnits.COL_ID + ") "
+					+ "inner join " + NamesIdx.QNAME + " as N on (M."+MainNames.COL_NAME_ID + " = N."+NamesIdx.COL_ID + ") "
+					+ "inner join " + QNAME + " as A on (A."+COL_SU_ID + " = S."+SourceUnits.COL_ID + ") "
+					+ "where (S."+SourceUnits.COL_PROJECT_ID + " = ? and N."+NamesIdx.COL_NAME + " = ?)";
+			
+		}
+		
+		static final class Functions {
+			
+			static final String NAME= "FUNCTIONS";
+			static final String QNAME= RIndex.NAME+'.'+NAME;
+			
+			/** db-id of source unit -> SourceUnits.ID */
+			static final String COL_SU_ID= "SU_ID";
+			/** fingerprint of function body, see RIndexedFunction */
+			static final String COL_FINGERPRINT= "FINGERPRINT";
+			/** offset of function body */
+			static final String COL_OFFSET= "OFFSET";
+			/** length of function body */
+			static final String COL_LENGTH= "LENGTH";
+			
+			static final String DEFINE_1= "create table " + QNAME + " ("
+						+ COL_SU_ID         + " bigint not null "
+								+ "references " + SourceUnits.QNAME + " on delete cascade, "
+						+ COL_FINGERPRINT   + " bigint not null, "
+						+ COL_OFFSET        + " int not null, "
+						+ COL_LENGTH        + " int not null"
+					+ ")";
+			static final String DEFINE_2= "create index " + QNAME + "_FP on " + QNAME + " ("
+						+ COL_FINGERPRINT + ")";
+			
+			static final String OP_insert= "insert into " + QNAME + " ("
+						+ COL_SU_ID + ", "
+						+ COL_FINGERPRINT + ", "
+						+ COL_OFFSET + ", "
+						+ COL_LENGTH + ") "
+					+ "values (?, ?, ?, ?)";
+			
+			static final String OP_deleteAll_ofSourceUnit= "delete from " + QNAME + " "
+					+ "where (" + COL_SU_ID + " = ?)";
+			
+			static final String OP_find_ofFingerprint= "select "
+						+ "S."+SourceUnits.COL_NAME + ", "
+						+ "S."+SourceUnits.COL_MODEL_TYPE_ID + ", "
+						+ "F."+COL_OFFSET + ", "
+						+ "F."+COL_LENGTH + " "
+					+ "from " + SourceUnits.QNAME + " as S "
+					+ "inner join " + QNAME + " as F on (F."+COL_SU_ID + " = S."+SourceUnits.COL_ID + ") "
+					+ "where (F."+COL_FINGERPRINT + " = ?)";
+			
+		}
+		
 		static final class MainNames {
 			
 			static final String NAME= "MAINNAMES";
@@ -589,12 +673,15 @@ public class RModelIndex {
 	
 	private final Map<Proj, CompositeFrame> elementsList= new HashMap<>();
 	
+	private final RModelSummaryCache summaryCache= new RModelSummaryCache(0x2000000);
+	
 	
 	public RModelIndex(final RModelManager manager) {
 		this.sourceUnitManager= LTK.getSourceUnitManager();
 		this.reconciler= new RBuildReconciler(manager);
 		
 		initDB();
+		this.summaryCache.load();
 	}
 	
 	
@@ -607,11 +694,23 @@ public class RModelIndex {
 		finally {
 			this.lock.writeLock().unlock();
 		}
+		this.summaryCache.save();
+	}
+	
+	
+	/**
+	 * Returns the cache with the model summaries of the files indexed by the builder.
+	 * 
+	 * @return the summary cache
+	 */
+	public RModelSummaryCache getSummaryCache() {
+		return this.summaryCache;
 	}
 	
 	
 	public void clear(final IProject project) {
 		final Proj proj= this.projects.get(project.getName());
+		this.summaryCache.removeProject(project.getName());
 		if (proj != null) {
 			this.elementsList.remove(proj);
 			
@@ -643,6 +742,7 @@ public class RModelIndex {
 		if (toRemoveRSU != null) {
 			for (final IFile toRemove : toRemoveRSU) {
 				indexUpdate.remove(toRemove);
+				this.summaryCache.remove(toRemove.getFullPath().toString());
 			}
 		}
 		if (toUpdateRSU != null) {
@@ -652,6 +752,10 @@ public class RModelIndex {
 					try {
 						final IRModelInfo model= this.reconciler.build(adapter, progress);
 						indexUpdate.update(sourceUnit, model);
+						if (model != null) {
+							this.summaryCache.put(sourceUnit.getResource().getFullPath().toString(),
+									RModelSummaryCache.createSummary(model) );
+						}
 					}
 					catch (final Exception e) {
 						status.add(new Status(IStatus.ERROR, RCore.PLUGIN_ID, ICommonStatusConstants.BUILD_ERROR, 
@@ -713,6 +817,10 @@ public class RModelIndex {
 				PreparedStatement updateExportsStatement= null;
 				PreparedStatement insertExportsStatement= null;
 				PreparedStatement insertMainNameStatement= null;
+				PreparedStatement insertAccessesStatement= null;
+				PreparedStatement updateAccessesStatement= null;
+				PreparedStatement insertFunctionStatement= null;
+				PreparedStatement deleteFunctionsStatement= null;
 				final ByteArrayOutputStream byteOutput= new ByteArrayOutputStream();
 				for (final RModelIndexOrder.Result updated : order.updated) {
 					if (tools == null) {
@@ -721,6 +829,10 @@ public class RModelIndex {
 						insertExportsStatement= tools.connection.prepareStatement(RIndex.Exports.OP_insert);
 						updateExportsStatement= tools.connection.prepareStatement(RIndex.Exports.OP_update);
 						insertMainNameStatement= tools.connection.prepareStatement(RIndex.MainNames.OP_insert);
+						insertAccessesStatement= tools.connection.prepareStatement(RIndex.Accesses.OP_insert);
+						updateAccessesStatement= tools.connection.prepareStatement(RIndex.Accesses.OP_update);
+						insertFunctionStatement= tools.connection.prepareStatement(RIndex.Functions.OP_insert);
+						deleteFunctionsStatement= tools.connection.prepareStatement(RIndex.Functions.OP_deleteAll_ofSourceUnit);
 					}
 					
 					final ISourceUnit sourceUnit= updated.exportedElement.getSourceUnit();
@@ -755,6 +867,32 @@ public class RModelIndex {
 								insertMainNameStatement.executeUpdate();
 							}
 						}
+						if (tools.currentUnitNew) {
+							insertAccessesStatement.setLong(1, tools.currentUnitId);
+							insertAccessesStatement.setBytes(2, updated.accessData);
+							insertAccessesStatement.execute();
+						}
+						else {
+							updateAccessesStatement.setLong(2, tools.currentUnitId);
+							updateAccessesStatement.setBytes(1, updated.accessData);
+							if (updateAccessesStatement.executeUpdate() == 0) {
+								insertAccessesStatement.setLong(1, tools.currentUnitId);
+								insertAccessesStatement.setBytes(2, updated.accessData);
+								insertAccessesStatement.execute();
+							}
+							deleteFunctionsStatement.setLong(1, tools.currentUnitId);
+							deleteFunctionsStatement.executeUpdate();
+						}
+						if (updated.functionData.length > 0) {
+							insertFunctionStatement.setLong(1, tools.currentUnitId);
+							for (int i= 0; i < updated.functionData.length; i+= RModelIndexOrder.FUNCTION_ENTRY_SIZE) {
+								insertFunctionStatement.setLong(2, updated.functionData[i]);
+								insertFunctionStatement.setInt(3, (int) updated.functionData[i + 1]);
+								insertFunctionStatement.setInt(4, (int) updated.functionData[i + 2]);
+								insertFunctionStatement.addBatch();
+							}
+							insertFunctionStatement.executeBatch();
+						}
 						tools.connection.commit();
 					}
 					catch (final SQLException e) {
@@ -768,6 +906,18 @@ public class RModelIndex {
 							if (insertMainNameStatement != null) {
 								insertMainNameStatement.close();
 							}
+							if (insertAccessesStatement != null) {
+								insertAccessesStatement.close();
+							}
+							if (updateAccessesStatement != null) {
+								updateAccessesStatement.close();
+							}
+							if (insertFunctionStatement != null) {
+								insertFunctionStatement.close();
+							}
+							if (deleteFunctionsStatement != null) {
+								deleteFunctionsStatement.close();
+							}
 						}
 						catch (final SQLException ignore) {}
 						
@@ -1005,6 +1155,9 @@ public class RModelIndex {
 				
 				statement.execute(RIndex.MainNames.DEFINE_1);
 				statement.execute(RIndex.Exports.DEFINE_1);
+				statement.execute(RIndex.Accesses.DEFINE_1);
+				statement.execute(RIndex.Functions.DEFINE_1);
+				statement.execute(RIndex.Functions.DEFINE_2);
 				
 				statement.execute("insert into " + RIndex.Properties.QNAME + " (NAME, VALUE) values ('version', '" + RIndex.VERSION + "')");
 			}
@@ -1291,6 +1444,99 @@ public class RModelIndex {
 		}
 	}
 	
+	/**
+	 * Returns the accesses of the specified name recorded for the source units of the project.
+	 * 
+	 * @param rProject the R project
+	 * @param name the main name
+	 * @param monitor
+	 * @return map with the indexed accesses by source unit id or <code>null</code> if not available
+	 * @throws CoreException
+	 */
+	public Map<String, RIndexedAccesses> findIndexedAccesses(final IRProject rProject, final String name,
+			final IProgressMonitor monitor) throws CoreException {
+		final Proj proj= this.projects.get(rProject.getProject().getName());
+		this.lock.readLock().lock();
+		Connection connection= null;
+		try {
+			if (proj == null || proj.isRemoved()
+					|| this.dbInitialized != 1) {
+				return null;
+			}
+			connection= this.dbConnectionPool.getConnection();
+			final PreparedStatement statement= connection.prepareStatement(RIndex.Accesses.OP_get_ofProjectAndName);
+			statement.setInt(1, proj.id);
+			statement.setString(2, name);
+			final ResultSet result= statement.executeQuery();
+			final Map<String, RIndexedAccesses> accesses= new HashMap<>();
+			while (result.next()) {
+				final String unitId= result.getString(1);
+				final byte[] data= result.getBytes(2);
+				if (data != null) {
+					accesses.put(unitId, RAccessIndexData.read(unitId, data, name));
+				}
+			}
+			return accesses;
+		}
+		catch (final SQLException | IOException e) {
+			onDbReadError(e);
+			return null;
+		}
+		finally {
+			this.lock.readLock().unlock();
+			if (connection != null) {
+				try {
+					connection.close();
+				} catch (final SQLException ignore) {}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the function bodies with the specified fingerprint recorded for the source units
+	 * of all projects.
+	 * 
+	 * @param fingerprint the fingerprint (see {@link RIndexedFunction#computeFingerprint(de.walware.statet.r.core.rsource.ast.RAstNode)})
+	 * @param monitor
+	 * @return list with the indexed functions or <code>null</code> if not available
+	 * @throws CoreException
+	 */
+	public List<RIndexedFunction> findIndexedFunctions(final long fingerprint,
+			final IProgressMonitor monitor) throws CoreException {
+		this.lock.readLock().lock();
+		Connection connection= null;
+		try {
+			if (this.dbInitialized != 1) {
+				return null;
+			}
+			connection= this.dbConnectionPool.getConnection();
+			final PreparedStatement statement= connection.prepareStatement(RIndex.Functions.OP_find_ofFingerprint);
+			statement.setLong(1, fingerprint);
+			final ResultSet result= statement.executeQuery();
+			final List<RIndexedFunction> functions= new ArrayList<>();
+			while (result.next()) {
+				final String modelTypeId= this.modelId2Type.get(result.getInt(2));
+				if (modelTypeId != null) {
+					functions.add(new RIndexedFunction(result.getString(1), modelTypeId, fingerprint,
+							result.getInt(3), result.getInt(4) ));
+				}
+			}
+			return functions;
+		}
+		catch (final SQLException e) {
+			onDbReadError(e);
+			return null;
+		}
+		finally {
+			this.lock.readLock().unlock();
+			if (connection != null) {
+				try {
+					connection.close();
+				} catch (final SQLException ignore) {}
+			}
+		}
+	}
+	
 	private ISourceUnit loadSourceUnit(final ISourceUnitManager manager,
 			final String sourceUnitId, final String modelTypeId, final SubMonitor progress) {
 		try {
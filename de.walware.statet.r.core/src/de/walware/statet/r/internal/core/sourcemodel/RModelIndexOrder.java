@@ -11,7 +11,9 @@
 
 package de.walware.statet.r.internal.core.sourcemodel;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +28,10 @@ import de.walware.statet.r.core.model.IRLangElement;
 import de.walware.statet.r.core.model.IRMethod;
 import de.walware.statet.r.core.model.IRModelInfo;
 import de.walware.statet.r.core.model.IRSourceUnit;
+import de.walware.statet.r.core.model.RIndexedFunction;
+import de.walware.statet.r.core.rsource.ast.FDef;
+import de.walware.statet.r.core.rsource.ast.GenericVisitor;
+import de.walware.statet.r.core.rsource.ast.RAstNode;
 import de.walware.statet.r.internal.core.builder.ExportedRClass;
 import de.walware.statet.r.internal.core.builder.ExportedRElement;
 import de.walware.statet.r.internal.core.builder.ExportedRMethod;
@@ -35,16 +41,51 @@ import de.walware.statet.r.internal.core.builder.RUnitElement;
 public class RModelIndexOrder {
 	
 	
+	/** fingerprint, offset, length */
+	static final int FUNCTION_ENTRY_SIZE= 3;
+	
+	private static class FunctionCollector extends GenericVisitor {
+		
+		private long[] data= new long[FUNCTION_ENTRY_SIZE * 16];
+		private int size;
+		
+		@Override
+		public void visit(final FDef node) throws InvocationTargetException {
+			final RAstNode body= node.getContChild();
+			if (body != null && RIndexedFunction.isIndexable(body)) {
+				if (this.size + FUNCTION_ENTRY_SIZE > this.data.length) {
+					this.data= Arrays.copyOf(this.data, this.data.length * 2);
+				}
+				this.data[this.size++]= RIndexedFunction.computeFingerprint(body);
+				this.data[this.size++]= body.getOffset();
+				this.data[this.size++]= body.getLength();
+			}
+			super.visit(node);
+		}
+		
+		public long[] toArray() {
+			return Arrays.copyOf(this.data, this.size);
+		}
+		
+	}
+	
 	protected static class Result {
 		
 		public final String unitId;
 		public final RUnitElement exportedElement;
 		public final Set<String> defaultNames;
+		/** inverted index of the accesses, see {@link RAccessIndexData} */
+		public final byte[] accessData;
+		/** function bodies, see {@link RModelIndexOrder#FUNCTION_ENTRY_SIZE} */
+		public final long[] functionData;
 		
-		public Result(final RUnitElement root, final Set<String> defaultNames) {
+		public Result(final RUnitElement root, final Set<String> defaultNames,
+				final byte[] accessData, final long[] functionData) {
 			this.unitId= root.getId();
 			this.exportedElement= root;
 			this.defaultNames= defaultNames;
+			this.accessData= accessData;
+			this.functionData= functionData;
 		}
 		
 	}
@@ -102,7 +143,20 @@ public class RModelIndexOrder {
 			names.addAll(((IRFrameInSource) frame).getAllAccessNames());
 		}
 		
-		return new Result(root, names);
+		return new Result(root, names, RAccessIndexData.create(model), createFunctionData(model));
+	}
+	
+	private long[] createFunctionData(final IRModelInfo model) {
+		final FunctionCollector collector= new FunctionCollector();
+		try {
+			if (model.getAst().root instanceof RAstNode) {
+				((RAstNode) model.getAst().root).acceptInR(collector);
+			}
+		}
+		catch (final InvocationTargetException e) {
+			// not possible
+		}
+		return collector.toArray();
 	}
 	
 	protected void addRemovedUnit(final String unitId) {
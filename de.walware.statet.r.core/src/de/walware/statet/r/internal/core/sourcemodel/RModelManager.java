@@ -34,6 +34,7 @@ import de.walware.statet.r.core.model.IRModelManager;
 import de.walware.statet.r.core.model.IRSourceUnit;
 import de.walware.statet.r.core.model.RChunkElement;
 import de.walware.statet.r.core.model.RElementName;
+import de.walware.statet.r.core.model.RIndexedFunction;
 import de.walware.statet.r.core.model.RModel;
 import de.walware.statet.r.core.model.RSuModelContainer;
 import de.walware.statet.r.core.rsource.ast.SourceComponent;
@@ -173,4 +174,10 @@ public class RModelManager extends AbstractModelManager implements IRModelManage
 		return this.index.findReferencingSourceUnits(rProject, name, monitor);
 	}
 	
+	@Override
+	public List<RIndexedFunction> findIndexedFunctions(final long fingerprint,
+			final IProgressMonitor monitor) throws CoreException {
+		return this.index.findIndexedFunctions(fingerprint, monitor);
+	}
+	
 }
@@ -0,0 +1,340 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.internal.core.sourcemodel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import de.walware.statet.r.core.RCore;
+import de.walware.statet.r.core.model.IRFrame;
+import de.walware.statet.r.core.model.IRFrameInSource;
+import de.walware.statet.r.core.model.IRModelInfo;
+import de.walware.statet.r.core.model.RElementAccess;
+import de.walware.statet.r.internal.core.RCorePlugin;
+
+
+/**
+ * Cache for compact summaries of the R models of workspace files.
+ * 
+ * The summaries are created by the builder when it builds the model of a file and allow to answer
+ * simple questions about the file (e.g. whether it defines a name) without parsing it again as
+ * long as the file is unchanged. The cache is bounded by its (estimated) size in bytes, entries
+ * are evicted in least-recently-used order. The cache is saved in the state location of the
+ * plug-in when the index is disposed and loaded again on startup.
+ */
+public class RModelSummaryCache {
+	
+	
+	private static final String FILE_NAME= "rmodel-summaries.dat"; //$NON-NLS-1$
+	
+	private static final int FILE_VERSION= 1;
+	
+	
+	/**
+	 * Summary of the model of a single file.
+	 */
+	public static final class Summary implements Serializable {
+		
+		private static final long serialVersionUID= 1L;
+		
+		
+		private final long sourceStamp;
+		
+		/** frame id (<code>null</code> for top frame) -> sorted names with definition */
+		private final Map<String, String[]> definedNames;
+		
+		private transient int size;
+		
+		
+		private Summary(final long sourceStamp, final Map<String, String[]> definedNames) {
+			this.sourceStamp= sourceStamp;
+			this.definedNames= definedNames;
+			this.size= computeSize();
+		}
+		
+		
+		private int computeSize() {
+			int size= 64;
+			for (final Map.Entry<String, String[]> entry : this.definedNames.entrySet()) {
+				size+= 48;
+				if (entry.getKey() != null) {
+					size+= 40 + entry.getKey().length() * 2;
+				}
+				for (final String name : entry.getValue()) {
+					size+= 40 + name.length() * 2;
+				}
+			}
+			return size;
+		}
+		
+		private Object readResolve() {
+			this.size= computeSize();
+			return this;
+		}
+		
+		
+		/**
+		 * Returns the stamp of the source the summary was created for.
+		 * 
+		 * @return the source stamp
+		 */
+		public long getSourceStamp() {
+			return this.sourceStamp;
+		}
+		
+		/**
+		 * Returns if the specified frame of the model contains a definition (write access
+		 * without sub segments) of the specified name.
+		 * 
+		 * @param frameId the id of the frame or <code>null</code> for the top frame
+		 * @param name the name
+		 * @return <code>true</code> if the name is defined in the frame, otherwise <code>false</code>
+		 */
+		public boolean isDefined(final String frameId, final String name) {
+			final String[] names= this.definedNames.get(frameId);
+			return (names != null && Arrays.binarySearch(names, name) >= 0);
+		}
+		
+	}
+	
+	
+	/**
+	 * Creates the summary for the specified model.
+	 * 
+	 * @param model the model info
+	 * @return the summary
+	 */
+	public static Summary createSummary(final IRModelInfo model) {
+		final Map<String, String[]> definedNames= new HashMap<>();
+		addDefinedNames(null, model.getTopFrame(), definedNames);
+		for (final Map.Entry<String, ? extends IRFrame> entry : model.getReferencedFrames().entrySet()) {
+			addDefinedNames(entry.getKey(), entry.getValue(), definedNames);
+		}
+		return new Summary(model.getStamp().getSourceStamp(), definedNames);
+	}
+	
+	private static void addDefinedNames(final String frameId, final IRFrame frame,
+			final Map<String, String[]> definedNames) {
+		if (!(frame instanceof IRFrameInSource)) {
+			return;
+		}
+		final IRFrameInSource frameInSource= (IRFrameInSource) frame;
+		final Set<String> accessNames= frameInSource.getAllAccessNames();
+		final String[] names= new String[accessNames.size()];
+		int count= 0;
+		for (final String name : accessNames) {
+			final List<? extends RElementAccess> allAccess= frameInSource.getAllAccessOf(name, false);
+			if (allAccess != null) {
+				for (final RElementAccess access : allAccess) {
+					if (access.isWriteAccess() && access.getNextSegment() == null) {
+						names[count++]= name;
+						break;
+					}
+				}
+			}
+		}
+		if (count > 0) {
+			final String[] sorted= Arrays.copyOf(names, count);
+			Arrays.sort(sorted);
+			definedNames.put(frameId, sorted);
+		}
+	}
+	
+	
+	private final long maxSize;
+	
+	private final LinkedHashMap<String, Summary> summaries= new LinkedHashMap<>(0x100, 0.75f, true);
+	private long size;
+	
+	private long hitCount;
+	private long missCount;
+	
+	private boolean changed;
+	
+	
+	/**
+	 * Creates a new cache.
+	 * 
+	 * @param maxSize the maximum (estimated) size of all summaries in bytes
+	 */
+	public RModelSummaryCache(final long maxSize) {
+		this.maxSize= maxSize;
+	}
+	
+	
+	/**
+	 * Returns the summary for the specified file if it is up-to-date.
+	 * 
+	 * @param fileId the full path of the file
+	 * @param sourceStamp the current stamp of the file
+	 * @return the summary or <code>null</code>
+	 */
+	public synchronized Summary get(final String fileId, final long sourceStamp) {
+		final Summary summary= this.summaries.get(fileId);
+		if (summary != null && summary.sourceStamp == sourceStamp) {
+			this.hitCount++;
+			return summary;
+		}
+		this.missCount++;
+		return null;
+	}
+	
+	/**
+	 * Adds or replaces the summary for the specified file.
+	 * 
+	 * @param fileId the full path of the file
+	 * @param summary the summary
+	 */
+	public synchronized void put(final String fileId, final Summary summary) {
+		final Summary old= this.summaries.put(fileId, summary);
+		if (old != null) {
+			this.size-= old.size;
+		}
+		this.size+= summary.size;
+		this.changed= true;
+		
+		if (this.size > this.maxSize) {
+			final Iterator<Summary> iter= this.summaries.values().iterator();
+			while (this.size > this.maxSize && iter.hasNext()) {
+				final Summary eldest= iter.next();
+				if (eldest == summary) {
+					break;
+				}
+				iter.remove();
+				this.size-= eldest.size;
+			}
+		}
+	}
+	
+	/**
+	 * Removes the summary for the specified file.
+	 * 
+	 * @param fileId the full path of the file
+	 */
+	public synchronized void remove(final String fileId) {
+		final Summary old= this.summaries.remove(fileId);
+		if (old != null) {
+			this.size-= old.size;
+			this.changed= true;
+		}
+	}
+	
+	/**
+	 * Removes the summaries of all files in the specified project.
+	 * 
+	 * @param projectName the name of the project
+	 */
+	public synchronized void removeProject(final String projectName) {
+		final String prefix= '/' + projectName + '/';
+		final Iterator<Map.Entry<String, Summary>> iter= this.summaries.entrySet().iterator();
+		while (iter.hasNext()) {
+			final Map.Entry<String, Summary> entry= iter.next();
+			if (entry.getKey().startsWith(prefix)) {
+				iter.remove();
+				this.size-= entry.getValue().size;
+				this.changed= true;
+			}
+		}
+	}
+	
+	
+	public synchronized long getHitCount() {
+		return this.hitCount;
+	}
+	
+	public synchronized long getMissCount() {
+		return this.missCount;
+	}
+	
+	public synchronized long getSize() {
+		return this.size;
+	}
+	
+	
+	private File getFile() {
+		return RCorePlugin.getDefault().getStateLocation().append(FILE_NAME).toFile();
+	}
+	
+	/**
+	 * Loads the summaries saved in the state location.
+	 */
+	public synchronized void load() {
+		final File file= getFile();
+		if (!file.exists()) {
+			return;
+		}
+		try (final ObjectInputStream in= new ObjectInputStream(
+				new BufferedInputStream(new FileInputStream(file)) )) {
+			if (in.readInt() != FILE_VERSION) {
+				return;
+			}
+			final int count= in.readInt();
+			for (int i= 0; i < count; i++) {
+				final String fileId= in.readUTF();
+				final Summary summary= (Summary) in.readObject();
+				this.summaries.put(fileId, summary);
+				this.size+= summary.size;
+			}
+			this.changed= false;
+		}
+		catch (final IOException | ClassNotFoundException | ClassCastException e) {
+			this.summaries.clear();
+			this.size= 0;
+			file.delete();
+			RCorePlugin.log(new Status(IStatus.WARNING, RCore.PLUGIN_ID, -1,
+					"An error occurred when loading the R model summary cache.", e ));
+		}
+	}
+	
+	/**
+	 * Saves the summaries to the state location, if changed.
+	 */
+	public synchronized void save() {
+		if (!this.changed) {
+			return;
+		}
+		final File file= getFile();
+		try (final ObjectOutputStream out= new ObjectOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file)) )) {
+			out.writeInt(FILE_VERSION);
+			out.writeInt(this.summaries.size());
+			for (final Map.Entry<String, Summary> entry : this.summaries.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeObject(entry.getValue());
+			}
+			this.changed= false;
+		}
+		catch (final IOException e) {
+			file.delete();
+			RCorePlugin.log(new Status(IStatus.WARNING, RCore.PLUGIN_ID, -1,
+					"An error occurred when saving the R model summary cache.", e ));
+		}
+	}
+	
+}
@@ -37,6 +37,7 @@ import de.walware.statet.r.core.model.RChunkElement;
 import de.walware.statet.r.core.model.RModel;
 import de.walware.statet.r.core.model.RProblemReporter;
 import de.walware.statet.r.core.model.RSuModelContainer;
+import de.walware.statet.r.core.rsource.RSymbolPool;
 import de.walware.statet.r.core.rsource.ast.RAstNode;
 import de.walware.statet.r.core.rsource.ast.RScanner;
 import de.walware.statet.r.core.rsource.ast.RoxygenScanner;
@@ -201,6 +202,7 @@ public class RReconciler {
 			
 			if (LOG_TIME) {
 				System.out.println(this.raAstStringCache.toString());
+				System.out.println(RSymbolPool.getDefault().toString());
 				System.out.println("RReconciler/createAST   : " + DecimalFormat.getInstance().format(stopAst-startAst)); //$NON-NLS-1$
 			}
 			
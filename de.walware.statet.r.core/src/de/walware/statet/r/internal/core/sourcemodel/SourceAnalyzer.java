@@ -45,6 +45,7 @@ import de.walware.statet.r.core.model.RElementAccess;
 import de.walware.statet.r.core.model.RElementName;
 import de.walware.statet.r.core.rlang.RTerminal;
 import de.walware.statet.r.core.rsource.IRSourceConstants;
+import de.walware.statet.r.core.rsource.RSymbolPool;
 import de.walware.statet.r.core.rsource.ast.Arithmetic;
 import de.walware.statet.r.core.rsource.ast.Assignment;
 import de.walware.statet.r.core.rsource.ast.CForLoop;
@@ -394,6 +395,8 @@ public class SourceAnalyzer extends RAstVisitor {
 	private final HashMap<String, Integer> classNames= new HashMap<>();
 	private final HashMap<String, Integer> importNames= new HashMap<>();
 	
+	private final RSymbolPool symbolPool= RSymbolPool.getDefault();
+	
 	
 	public SourceAnalyzer() {
 		configure(RCoreFunctions.DEFAULT);
@@ -1299,7 +1302,7 @@ public class SourceAnalyzer extends RAstVisitor {
 		case STRING_CONST:
 			if (allowString && ((node.getStatusCode() & IRSourceConstants.STATUSFLAG_REAL_ERROR) == 0)) {
 				access.fNameNode= node;
-				return node.getText();
+				return this.symbolPool.intern(node.getText());
 			}
 			return null;
 		case SUB_INDEXED_S:
@@ -1442,10 +1445,10 @@ public class SourceAnalyzer extends RAstVisitor {
 				access.fNameNode= nameValue;
 				final BuildSourceFrame envir= readScopeArgs(args.getArgValueNode(this.argIdx_scope), SourceAnalyzer.this.topScope);
 				if (evalBoolean(args.getArgValueNode("inherits"), false)) {
-					envir.addLateResolve(nameValue.getText(), access);
+					envir.addLateResolve(SourceAnalyzer.this.symbolPool.intern(nameValue.getText()), access);
 				}
 				else {
-					envir.add(nameValue.getText(), access);
+					envir.add(SourceAnalyzer.this.symbolPool.intern(nameValue.getText()), access);
 				}
 				
 				SourceAnalyzer.this.argValueToIgnore.add(nameValue);
@@ -1496,7 +1499,7 @@ public class SourceAnalyzer extends RAstVisitor {
 						final ElementAccess access= new ElementAccess.Default(node);
 						access.fFlags= ElementAccess.A_READ | ElementAccess.A_FUNC;
 						access.fNameNode= argValue;
-						SourceAnalyzer.this.genericDefaultEnvir.addLateResolve(argValue.getText(), access);
+						SourceAnalyzer.this.genericDefaultEnvir.addLateResolve(SourceAnalyzer.this.symbolPool.intern(argValue.getText()), access);
 						
 						SourceAnalyzer.this.argValueToIgnore.add(argValue);
 						continue ITER_ARGS;
@@ -1513,7 +1516,7 @@ public class SourceAnalyzer extends RAstVisitor {
 						final ElementAccess access= new ElementAccess.Default(node);
 						access.fFlags= ElementAccess.A_READ;
 						access.fNameNode= argValue;
-						SourceAnalyzer.this.topScope.addLateResolve(argValue.getText(), access);
+						SourceAnalyzer.this.topScope.addLateResolve(SourceAnalyzer.this.symbolPool.intern(argValue.getText()), access);
 						
 						SourceAnalyzer.this.argValueToIgnore.add(argValue);
 						continue ITER_ARGS;
@@ -11,16 +11,22 @@
 
 package de.walware.statet.r.debug.core.sourcelookup;
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.debug.core.sourcelookup.ISourceContainer;
 import org.eclipse.debug.core.sourcelookup.ISourceContainerType;
 import org.eclipse.debug.core.sourcelookup.containers.CompositeSourceContainer;
 import org.eclipse.osgi.util.NLS;
 
+import de.walware.statet.r.core.RCore;
+import de.walware.statet.r.core.pkgmanager.IRLibPaths;
+import de.walware.statet.r.core.pkgmanager.IRPkgManager;
 import de.walware.statet.r.core.renv.IREnv;
 import de.walware.statet.r.core.renv.IREnvConfiguration;
 import de.walware.statet.r.core.renv.IRLibraryGroup;
@@ -28,7 +34,7 @@ import de.walware.statet.r.core.renv.IRLibraryLocation;
 import de.walware.statet.r.internal.debug.core.sourcelookup.Messages;
 
 
-public class REnvLibraryPathSourceContainer extends CompositeSourceContainer {
+public class REnvLibraryPathSourceContainer extends CompositeSourceContainer implements IRSourceContainer {
 	
 	
 	public static final String TYPE_ID= "de.walware.statet.r.sourceContainers.REnvLibraryPathType"; //$NON-NLS-1$
@@ -36,6 +42,19 @@ public class REnvLibraryPathSourceContainer extends CompositeSourceContainer {
 	
 	private final IREnv rEnv;
 	
+	private IRPkgManager pkgManager;
+	private final IRPkgManager.Listener pkgListener= new IRPkgManager.Listener() {
+		@Override
+		public void handleChange(final IRPkgManager.Event event) {
+			if (event.pkgsChanged() != 0) {
+				updateListings();
+			}
+		}
+	};
+	
+	private volatile List<IRLibraryLocation> libraryLocations;
+	private volatile List<RLibrarySourceContainer> libraryContainers;
+	
 	
 	public REnvLibraryPathSourceContainer(final IREnv rEnv) {
 		if (rEnv == null) {
@@ -61,7 +80,8 @@ public class REnvLibraryPathSourceContainer extends CompositeSourceContainer {
 	
 	@Override
 	protected ISourceContainer[] createSourceContainers() throws CoreException {
-		final List<ISourceContainer> list= new ArrayList<>();
+		final List<RLibrarySourceContainer> list= new ArrayList<>();
+		final List<IRLibraryLocation> locations= new ArrayList<>();
 		final IREnvConfiguration config= this.rEnv.getConfig();
 		if (config == null) {
 			abort(Messages.REnvLibraryPathSourceContainer_error_REnvNotAvailable_message, null);
@@ -76,12 +96,84 @@ public class REnvLibraryPathSourceContainer extends CompositeSourceContainer {
 							store.toString(), lib.getDirectoryStore() );
 					container.init(getDirector());
 					list.add(container);
+					locations.add(lib);
+				}
+			}
+		}
+		
+		this.libraryLocations= locations;
+		this.libraryContainers= list;
+		synchronized (this) {
+			if (this.pkgManager == null) {
+				this.pkgManager= RCore.getRPkgManager(this.rEnv);
+				if (this.pkgManager != null) {
+					this.pkgManager.addListener(this.pkgListener);
 				}
 			}
 		}
+		updateListings();
+		
 		return list.toArray(new ISourceContainer[list.size()]);
 	}
 	
+	/**
+	 * Updates the cached listings of the libraries by the stamps of the package manager.
+	 */
+	private void updateListings() {
+		final List<IRLibraryLocation> locations= this.libraryLocations;
+		final List<RLibrarySourceContainer> containers= this.libraryContainers;
+		final IRPkgManager manager= this.pkgManager;
+		if (locations == null || containers == null
+				|| locations.size() != containers.size() ) {
+			return;
+		}
+		final IRLibPaths libPaths= (manager != null) ? manager.getRLibPaths() : null;
+		for (int i= 0; i < containers.size(); i++) {
+			final RLibraryListing listing= containers.get(i).getListing();
+			if (listing == null) {
+				continue;
+			}
+			final IRLibPaths.Entry entry= (libPaths != null) ?
+					libPaths.getEntryByLocation(locations.get(i)) : null;
+			if (entry != null) {
+				listing.setStamp(entry.getStamp());
+			}
+			else {
+				listing.clear();
+			}
+		}
+	}
+	
+	@Override
+	public Object findSourceElement(final URI fileUri, final IFile[] fileInWorkspace) throws CoreException {
+		final ISourceContainer[] containers= getSourceContainers();
+		for (int i= 0; i < containers.length; i++) {
+			final Object element= ((RLibrarySourceContainer) containers[i]).findSourceElement(
+					fileUri, fileInWorkspace );
+			if (element != null) {
+				return element;
+			}
+		}
+		return null;
+	}
+	
+	@Override
+	public void findSourceElement(final IPath path, final List<Object> elements) throws CoreException {
+	}
+	
+	@Override
+	public void dispose() {
+		synchronized (this) {
+			if (this.pkgManager != null) {
+				this.pkgManager.removeListener(this.pkgListener);
+				this.pkgManager= null;
+			}
+		}
+		this.libraryLocations= null;
+		this.libraryContainers= null;
+		super.dispose();
+	}
+	
 	
 	@Override
 	public int hashCode() {
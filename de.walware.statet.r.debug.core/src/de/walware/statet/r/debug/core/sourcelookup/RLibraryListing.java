@@ -0,0 +1,151 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.debug.core.sourcelookup;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
+
+
+/**
+ * Cached listing of the files in an R library location.
+ * 
+ * The directories are listed lazily when a file in it is looked up the first time. The listing
+ * is valid until it is cleared explicitly (libraries of an R environment, see
+ * {@link #setStamp(double)}) or its maximum age is exceeded (other libraries).
+ */
+final class RLibraryListing {
+	
+	
+	private static final long MAX_AGE_NANOS= 60_000_000_000L;
+	
+	private static final Set<String> NO_CHILDREN= Collections.emptySet();
+	
+	
+	private static String getDirPath(final URI uri) {
+		final String path= uri.getPath();
+		if (path == null) {
+			return null;
+		}
+		return (path.endsWith("/")) ? path : path + '/'; //$NON-NLS-1$
+	}
+	
+	
+	private final IFileStore locationStore;
+	private final URI locationUri;
+	private final String locationPath;
+	
+	/** relative directory path -> names of children */
+	private final Map<String, Set<String>> directories= new ConcurrentHashMap<>();
+	
+	private volatile boolean managed;
+	private volatile double stamp;
+	private volatile long listingNanos;
+	
+	
+	public RLibraryListing(final IFileStore locationStore) {
+		this.locationStore= locationStore;
+		this.locationUri= locationStore.toURI();
+		this.locationPath= getDirPath(this.locationUri);
+		this.listingNanos= System.nanoTime();
+	}
+	
+	
+	/**
+	 * Sets the stamp of the library (e.g. {@link de.walware.statet.r.core.pkgmanager.IRLibPaths.Entry#getStamp()})
+	 * and clears the listing if it changed.
+	 * 
+	 * After the stamp is set, the listing no longer expires.
+	 * 
+	 * @param stamp the current stamp of the library
+	 */
+	public void setStamp(final double stamp) {
+		if (!this.managed || this.stamp != stamp) {
+			this.stamp= stamp;
+			clear();
+		}
+		this.managed= true;
+	}
+	
+	public void clear() {
+		this.directories.clear();
+		this.listingNanos= System.nanoTime();
+	}
+	
+	/**
+	 * Returns the file store for the specified file, if it is located in the library and exists.
+	 * 
+	 * @param fileUri the URI of the file
+	 * @return the file store or <code>null</code>
+	 */
+	public IFileStore find(final URI fileUri) {
+		if (this.locationPath == null
+				|| !Objects.equals(fileUri.getScheme(), this.locationUri.getScheme())
+				|| !Objects.equals(fileUri.getAuthority(), this.locationUri.getAuthority()) ) {
+			return null;
+		}
+		final String path= fileUri.getPath();
+		if (path == null || !path.startsWith(this.locationPath)
+				|| path.length() == this.locationPath.length() ) {
+			return null;
+		}
+		if (!this.managed && System.nanoTime() - this.listingNanos > MAX_AGE_NANOS) {
+			clear();
+		}
+		
+		final String relativePath= path.substring(this.locationPath.length());
+		int begin= 0;
+		while (true) {
+			final int end= relativePath.indexOf('/', begin);
+			final String dirPath= relativePath.substring(0, begin);
+			final String name= (end >= 0) ?
+					relativePath.substring(begin, end) : relativePath.substring(begin);
+			if (name.isEmpty() || !getChildNames(dirPath).contains(name)) {
+				return null;
+			}
+			if (end < 0) {
+				return this.locationStore.getFileStore(new Path(relativePath));
+			}
+			begin= end + 1;
+		}
+	}
+	
+	private Set<String> getChildNames(final String dirPath) {
+		Set<String> names= this.directories.get(dirPath);
+		if (names == null) {
+			try {
+				final IFileStore dirStore= (dirPath.isEmpty()) ?
+						this.locationStore : this.locationStore.getFileStore(new Path(dirPath));
+				final String[] childNames= dirStore.childNames(EFS.NONE, null);
+				names= (childNames.length > 0) ?
+						new HashSet<>(Arrays.asList(childNames)) : NO_CHILDREN;
+			}
+			catch (final CoreException e) {
+				// maybe temporary, not cached
+				return NO_CHILDREN;
+			}
+			this.directories.put(dirPath, names);
+		}
+		return names;
+	}
+	
+}
@@ -11,8 +11,13 @@
 
 package de.walware.statet.r.debug.core.sourcelookup;
 
+import java.net.URI;
+import java.util.List;
+
 import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.sourcelookup.ISourceContainerType;
@@ -26,7 +31,7 @@ import de.walware.statet.r.internal.debug.core.RDebugCorePlugin;
 import de.walware.statet.r.internal.debug.core.sourcelookup.Messages;
 
 
-public class RLibrarySourceContainer extends AbstractSourceContainer {
+public class RLibrarySourceContainer extends AbstractSourceContainer implements IRSourceContainer {
 	
 	
 	public static final String TYPE_ID = "de.walware.statet.r.sourceContainers.RLibraryType"; //$NON-NLS-1$
@@ -50,6 +55,8 @@ public class RLibrarySourceContainer extends AbstractSourceContainer {
 	private final String fLocationPath;
 	private final IFileStore fLocationStore;
 	
+	private final RLibraryListing fListing;
+	
 	
 	public RLibrarySourceContainer(final String locationPath) {
 		this(locationPath, resolve(locationPath));
@@ -61,6 +68,7 @@ public class RLibrarySourceContainer extends AbstractSourceContainer {
 		}
 		fLocationPath = locationPath;
 		fLocationStore = locationStore;
+		fListing = (locationStore != null) ? new RLibraryListing(locationStore) : null;
 	}
 	
 	
@@ -92,11 +100,30 @@ public class RLibrarySourceContainer extends AbstractSourceContainer {
 		return fLocationStore;
 	}
 	
+	/**
+	 * @return the cached listing of the library, if resolved
+	 */
+	RLibraryListing getListing() {
+		return fListing;
+	}
+	
 	@Override
 	public Object[] findSourceElements(final String name) throws CoreException {
 		return null;
 	}
 	
+	@Override
+	public Object findSourceElement(final URI fileUri, final IFile[] fileInWorkspace) throws CoreException {
+		if (fListing == null) {
+			return null;
+		}
+		return fListing.find(fileUri);
+	}
+	
+	@Override
+	public void findSourceElement(final IPath path, final List<Object> elements) throws CoreException {
+	}
+	
 	
 	@Override
 	public int hashCode() {
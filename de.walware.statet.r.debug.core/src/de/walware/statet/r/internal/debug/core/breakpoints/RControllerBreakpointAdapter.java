@@ -16,10 +16,12 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IFile;
@@ -225,7 +227,8 @@ public class RControllerBreakpointAdapter implements IRControllerTracepointAdapt
 	
 	private boolean initialized;
 	
-	private final List<IRLineBreakpoint> positionUpdatesBreakpoints= new ArrayList<>();
+	private final Set<IRLineBreakpoint> positionUpdatesBreakpoints= Collections.newSetFromMap(
+			new IdentityHashMap<IRLineBreakpoint, Boolean>() );
 	private final List<UpdateData> positionUpdatesElements= new ArrayList<>();
 	private final AtomicInteger positionModCounter= new AtomicInteger();
 	private final Object positionUpdatesLock= this.positionUpdatesBreakpoints;
@@ -234,7 +237,8 @@ public class RControllerBreakpointAdapter implements IRControllerTracepointAdapt
 	private boolean flagUpdateCheck;
 	private ITargetData exceptionBreakpointData;
 	
-	private final List<IRBreakpoint> stateUpdatesBreakpoints= new ArrayList<>();
+	private final Set<IRBreakpoint> stateUpdatesBreakpoints= Collections.newSetFromMap(
+			new IdentityHashMap<IRBreakpoint, Boolean>() );
 	private final Object stateUpdatesLock= this.stateUpdatesBreakpoints;
 	
 	private final Map<IResource, List<TracepointState>> stateUpdatesMap= new HashMap<>();
@@ -871,17 +875,20 @@ public class RControllerBreakpointAdapter implements IRControllerTracepointAdapt
 	
 	/** Call in R thread */
 	private List<Element> getPendingElementPositions(final IProgressMonitor monitor) {
-		final IRBreakpoint[] breakpointsToUpdate;
+		final IRLineBreakpoint[] breakpointsToUpdate;
 		final UpdateData[] elementsToUpdate;
 		synchronized (this.positionUpdatesLock) {
 			if (this.positionUpdatesBreakpoints.isEmpty() && this.positionUpdatesElements.isEmpty()) {
 				return ImCollections.emptyList();
 			}
-			breakpointsToUpdate= this.positionUpdatesBreakpoints.toArray(new IRBreakpoint[this.positionUpdatesBreakpoints.size()]);
+			breakpointsToUpdate= this.positionUpdatesBreakpoints.toArray(new IRLineBreakpoint[this.positionUpdatesBreakpoints.size()]);
 			this.positionUpdatesBreakpoints.clear();
 			elementsToUpdate= this.positionUpdatesElements.toArray(new UpdateData[this.positionUpdatesElements.size()]);
 			this.positionUpdatesElements.clear();
 		}
+		final Set<IRLineBreakpoint> breakpointsToUpdateSet= Collections.newSetFromMap(
+				new IdentityHashMap<IRLineBreakpoint, Boolean>(breakpointsToUpdate.length) );
+		Collections.addAll(breakpointsToUpdateSet, breakpointsToUpdate);
 		final Map<IResource, @Nullable Map<String, Element>> resourceMap= new HashMap<>();
 		// by resources
 		for (int i= 0; i < breakpointsToUpdate.length; i++) {
@@ -938,7 +945,7 @@ public class RControllerBreakpointAdapter implements IRControllerTracepointAdapt
 						try {
 							if (su instanceof IRWorkspaceSourceUnit) {
 								doGetPendingElementPositions(srcfile, (IRWorkspaceSourceUnit) su,
-										breakpointsToUpdate, map, monitor);
+										breakpointsToUpdateSet, map, monitor);
 								continue;
 							}
 						}
@@ -968,19 +975,17 @@ public class RControllerBreakpointAdapter implements IRControllerTracepointAdapt
 	}
 	
 	private void doGetPendingElementPositions(final SrcfileData srcfile, final IRWorkspaceSourceUnit rSourceUnit,
-			final IRBreakpoint[] breakpointsToUpdate, final Map<String, Element> map,
+			final Set<IRLineBreakpoint> breakpointsToUpdate, final Map<String, Element> map,
 			final IProgressMonitor monitor) throws CoreException {
 		final int modCounter= this.positionModCounter.get();
 		final List<IRLineBreakpoint> breakpoints= RDebugModel.getLineBreakpoints(
 				(IFile) rSourceUnit.getResource() );
 		for (final IRLineBreakpoint lineBreakpoint : breakpoints) {
-			if (contains(breakpointsToUpdate, lineBreakpoint)) {
+			if (breakpointsToUpdate.contains(lineBreakpoint)) {
 				try {
 					if (lineBreakpoint.isEnabled()) {
 						final RLineBreakpointValidator validator= new RLineBreakpointValidator(
-								rSourceUnit,
-								lineBreakpoint.getBreakpointType(), lineBreakpoint.getCharStart(),
-								monitor );
+								rSourceUnit, lineBreakpoint, monitor );
 						final String elementId;
 						if (validator.getType() == lineBreakpoint.getBreakpointType()
 								&& (elementId= validator.computeElementId()) != null ) {
@@ -994,14 +999,24 @@ public class RControllerBreakpointAdapter implements IRControllerTracepointAdapt
 				}
 			}
 		}
+		if (map.isEmpty()) {
+			return;
+		}
+		final boolean useCachedPosition= rSourceUnit.isSynchronized();
 		for (final IRLineBreakpoint lineBreakpoint : breakpoints) {
-			if (!contains(breakpointsToUpdate, lineBreakpoint)) {
+			if (!breakpointsToUpdate.contains(lineBreakpoint)) {
 				try {
 					if (lineBreakpoint.isEnabled()) {
+						// skip breakpoints of other elements by the element id cached for the
+						// saved content of the file
+						final ModelPosition modelPosition;
+						if (useCachedPosition
+								&& (modelPosition= RLineBreakpointValidator.getModelPosition(lineBreakpoint)) != null
+								&& !map.containsKey(modelPosition.getElementId()) ) {
+							continue;
+						}
 						final RLineBreakpointValidator validator= new RLineBreakpointValidator(
-								rSourceUnit,
-								lineBreakpoint.getBreakpointType(), lineBreakpoint.getCharStart(),
-								monitor );
+								rSourceUnit, lineBreakpoint, monitor );
 						final String elementId;
 						if (validator.getType() == lineBreakpoint.getBreakpointType()
 								&& (elementId= validator.computeElementId()) != null
@@ -1066,7 +1081,7 @@ public class RControllerBreakpointAdapter implements IRControllerTracepointAdapt
 			return; // ?
 		}
 		
-		ArrayList<Element> cleanup= null;
+		Set<Element> cleanup= null;
 		List<IRLineBreakpoint> updated= null;
 		
 		for (int i= 0; i < l; i++) {
@@ -1095,11 +1110,9 @@ public class RControllerBreakpointAdapter implements IRControllerTracepointAdapt
 					if (oldData != null && oldData.installed != null
 							&& oldData.installed.getElementId().equals(current.getElementId())) {
 						if (cleanup == null) {
-							cleanup= new ArrayList<>(l-i);
-						}
-						if (!contains(cleanup, oldData.installed)) {
-							cleanup.add(oldData.installed);
+							cleanup= Collections.newSetFromMap(new IdentityHashMap<Element, Boolean>());
 						}
+						cleanup.add(oldData.installed);
 					}
 					if (updated == null) {
 						updated= new ArrayList<>(l - i);
@@ -1111,8 +1124,7 @@ public class RControllerBreakpointAdapter implements IRControllerTracepointAdapt
 		}
 		
 		if (cleanup != null) {
-			for (int i= 0; i < cleanup.size(); i++) {
-				final Element current= cleanup.get(i);
+			for (final Element current : cleanup) {
 				for (final TracepointPosition position : current.getPositions()) {
 					if (!(position instanceof Position)) {
 						continue;
@@ -1504,9 +1516,7 @@ public class RControllerBreakpointAdapter implements IRControllerTracepointAdapt
 	
 	
 	private void schedulePositionUpdate(final IRLineBreakpoint lineBreakpoint) {
-		if (!contains(this.positionUpdatesBreakpoints, lineBreakpoint)) {
-			this.positionUpdatesBreakpoints.add(lineBreakpoint);
-		}
+		this.positionUpdatesBreakpoints.add(lineBreakpoint);
 	}
 	
 	private void scheduleExceptionUpdate() {
@@ -1514,9 +1524,7 @@ public class RControllerBreakpointAdapter implements IRControllerTracepointAdapt
 	}
 	
 	private void scheduleStateUpdate(final IRBreakpoint lineBreakpoint) {
-		if (!contains(this.stateUpdatesBreakpoints, lineBreakpoint)) {
-			this.stateUpdatesBreakpoints.add(lineBreakpoint);
-		}
+		this.stateUpdatesBreakpoints.add(lineBreakpoint);
 	}
 	
 	private void checkUpdates() {
@@ -1554,24 +1562,6 @@ public class RControllerBreakpointAdapter implements IRControllerTracepointAdapt
 	}
 	
 	
-	private boolean contains(final List<? extends Object> list, final Object object) {
-		for (int i= 0; i < list.size(); i++) {
-			if (list.get(i) == object) {
-				return true;
-			}
-		}
-		return false;
-	}
-	
-	private boolean contains(final Object[] array, final Object object) {
-		for (int i= 0; i < array.length; i++) {
-			if (array[i] == object) {
-				return true;
-			}
-		}
-		return false;
-	}
-	
 	private int getLineNumber(final IMarker marker, final IMarkerPositionResolver resolver) {
 		return (resolver != null) ?
 				resolver.getLine(marker) :
@@ -11,12 +11,17 @@
 
 package de.walware.statet.r.internal.debug.core.eval;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugException;
-import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -28,16 +33,17 @@ import de.walware.ecommons.debug.core.eval.IEvaluationListener;
 import de.walware.ecommons.ts.ISystemRunnable;
 import de.walware.ecommons.ts.ITool;
 
+import de.walware.rj.data.RCharacterStore;
 import de.walware.rj.data.RDataUtil;
+import de.walware.rj.data.RList;
 import de.walware.rj.data.RObject;
-import de.walware.rj.data.RReference;
+import de.walware.rj.data.RStore;
 import de.walware.rj.data.UnexpectedRDataException;
 import de.walware.rj.data.defaultImpl.RReferenceImpl;
 import de.walware.rj.eclient.IRToolService;
-import de.walware.rj.services.FunctionCall;
 import de.walware.rj.services.RService;
 
-import de.walware.statet.r.console.core.RWorkspace;
+import de.walware.statet.r.core.RUtil;
 import de.walware.statet.r.core.data.ICombinedRElement;
 import de.walware.statet.r.core.model.RElementName;
 import de.walware.statet.r.core.tool.AbstractStatetRRunnable;
@@ -46,35 +52,84 @@ import de.walware.statet.r.internal.debug.core.RDebugCorePlugin;
 import de.walware.statet.r.internal.debug.core.RJTmp;
 import de.walware.statet.r.internal.debug.core.model.RElementVariable;
 import de.walware.statet.r.internal.debug.core.model.RMainThread;
+import de.walware.statet.r.internal.debug.core.model.RStackFrame;
 import de.walware.statet.r.nico.AbstractRDbgController;
 
 
+/**
+ * Evaluates a batch of watch expressions.
+ * 
+ * Expressions can be added until the runnable is started. All expressions of a stack frame
+ * are evaluated in a single R evaluation (each expression is parsed and evaluated separately,
+ * so errors are reported per expression); only the structure of changed values is loaded
+ * separately. If the value of an expression is identical to the value of the previous stamp,
+ * the previous result is reused.
+ */
 @NonNullByDefault
 public class EvalExpressionRunnable extends AbstractStatetRRunnable implements ISystemRunnable {
 	
 	
-	private final REvalExpressionTask task;
+	private static final boolean DEBUG_LOG= Boolean.parseBoolean(
+			Platform.getDebugOption("de.walware.statet.r.debug/debug/Expressions/log") ); //$NON-NLS-1$
 	
-	private final int stamp;
+	/* Codes returned by the batch evaluation for successful evaluations */
+	private static final int VALUE_CHANGED= 0;
+	private static final int VALUE_ENV= 1;
+	private static final int VALUE_UNCHANGED= 2;
+	
+	
+	private static class Entry {
+		
+		final REvalExpressionTask task;
+		final IEvaluationListener listener;
+		
+		boolean finished;
+		
+		
+		public Entry(final REvalExpressionTask task, final IEvaluationListener listener) {
+			this.task= task;
+			this.listener= listener;
+		}
+		
+	}
 	
-	private final IEvaluationListener listener;
 	
-	private int state;
+	private final RMainThread thread;
+	
+	private final int stamp;
+	
+	private final List<Entry> entries= new ArrayList<>();
+	private boolean started;
 	
 	
-	public EvalExpressionRunnable(final REvalExpressionTask task, final int stamp,
-			final IEvaluationListener listener) {
+	public EvalExpressionRunnable(final RMainThread thread, final int stamp) {
 		super("r/dbg/watch", Messages.Expression_Evaluate_task);
 		
-		this.task= task;
+		this.thread= thread;
 		this.stamp= stamp;
-		this.listener= listener;
 	}
 	
 	
+	public int getStamp() {
+		return this.stamp;
+	}
+	
+	/**
+	 * Adds an expression to the batch.
+	 * 
+	 * @return <code>true</code> if added, <code>false</code> if the runnable is already started
+	 */
+	public synchronized boolean add(final REvalExpressionTask task, final IEvaluationListener listener) {
+		if (this.started) {
+			return false;
+		}
+		this.entries.add(new Entry(task, listener));
+		return true;
+	}
+	
 	@Override
 	public boolean isRunnableIn(final ITool tool) {
-		return (tool == this.task.getThread().getTool());
+		return (tool == this.thread.getTool());
 	}
 	
 	@Override
@@ -86,15 +141,24 @@ public class EvalExpressionRunnable extends AbstractStatetRRunnable implements I
 		case BEING_ABANDONED:
 		case FINISHING_OK:
 		case FINISHING_ERROR:
-		case FINISHING_CANCEL:
+		case FINISHING_CANCEL: {
+			final List<Entry> unfinished= new ArrayList<>();
 			synchronized (this) {
-				if (this.state == 0) {
-					this.state= event;
-					this.listener.evaluationFinished(new REvaluationResult(
-							this.task.getRExpression(), this.task.getThread()) );
+				this.started= true;
+				for (final Entry entry : this.entries) {
+					if (!entry.finished) {
+						entry.finished= true;
+						unfinished.add(entry);
+					}
 				}
 			}
+			// notify the listeners without lock
+			for (final Entry entry : unfinished) {
+				entry.listener.evaluationFinished(new REvaluationResult(
+						entry.task.getRExpression(), this.thread ));
+			}
 			break;
+		}
 		default:
 			break;
 		}
@@ -105,113 +169,264 @@ public class EvalExpressionRunnable extends AbstractStatetRRunnable implements I
 	@Override
 	protected void run(final IRToolService service,
 			final IProgressMonitor monitor) throws CoreException {
-		try {
-			final AbstractRDbgController r= (AbstractRDbgController) service;
-			
-			if (this.stamp != r.getChangeStamp()) {
-				return;
-			}
-			
-			final RMainThread thread= this.task.getThread();
-			final @Nullable REvaluationResult result= thread.getExpressionManager()
-					.getEvalResult(this.task.getKey());
+		final List<Entry> entries;
+		synchronized (this) {
+			this.started= true;
+			entries= new ArrayList<>(this.entries);
+		}
+		final AbstractRDbgController r= (AbstractRDbgController) service;
+		if (this.stamp != r.getChangeStamp()) {
+			return;
+		}
+		final long startTime= System.nanoTime();
+		final ExpressionManager manager= this.thread.getExpressionManager();
+		
+		// group by frame and expression, use cached results
+		final Map<RStackFrame, Map<REvalExpressionTask.Key, List<Entry>>> frames= new LinkedHashMap<>();
+		int cachedCount= 0;
+		for (final Entry entry : entries) {
+			final @Nullable REvaluationResult result= manager.getEvalResult(entry.task.getKey());
 			if (result != null) {
-				this.state= FINISHING_OK;
-				this.listener.evaluationFinished(result);
-				return;
+				finish(entry, result);
+				cachedCount++;
+				continue;
 			}
-			
-			final @NonNull String id;
-			{	final FunctionCall call= r.createFunctionCall(RJTmp.CREATE_ID);
-				call.addChar(RJTmp.PREFIX_PAR, "dbg_watch"); //$NON-NLS-1$
-				id= RDataUtil.checkSingleCharValue(call.evalData(monitor));
+			Map<REvalExpressionTask.Key, List<Entry>> tasks= frames.get(entry.task.getStackFrame());
+			if (tasks == null) {
+				tasks= new LinkedHashMap<>();
+				frames.put(entry.task.getStackFrame(), tasks);
 			}
+			List<Entry> keyEntries= tasks.get(entry.task.getKey());
+			if (keyEntries == null) {
+				keyEntries= new ArrayList<>(1);
+				tasks.put(entry.task.getKey(), keyEntries);
+			}
+			keyEntries.add(entry);
+		}
+		
+		int reusedCount= 0;
+		for (final Map.Entry<RStackFrame, Map<REvalExpressionTask.Key, List<Entry>>> frameEntry : frames.entrySet()) {
 			try {
-				evalExpression(id, r, monitor);
+				reusedCount+= evalExpressions(frameEntry.getKey(), frameEntry.getValue(), r, monitor);
 			}
-			finally {
-				if (this.state != FINISHING_OK) {
-					thread.getExpressionManager().cleanEvalResult(id, r, monitor);
-				}
+			catch (final CoreException | UnexpectedRDataException e) {
+				final ToStringBuilder sb= new ObjectUtils.ToStringBuilder(
+						"An error occurred when evaluating watch expressions." );
+				sb.addProp("expressions", frameEntry.getValue().keySet().size()); //$NON-NLS-1$
+				sb.addProp("frame", frameEntry.getKey()); //$NON-NLS-1$
+				RDebugCorePlugin.log(new Status(IStatus.ERROR, RDebugCorePlugin.PLUGIN_ID, 0,
+						sb.toString(), e ));
 			}
 		}
-		catch (final CoreException | UnexpectedRDataException e) {
-			this.state= FINISHING_ERROR;
-			final ToStringBuilder sb= new ObjectUtils.ToStringBuilder(
-					"An error occurred when evaluating watch expression." );
-			sb.addProp("expression", this.task.getRExpression()); //$NON-NLS-1$
-			sb.addProp("frame", this.task.getStackFrame()); //$NON-NLS-1$
-			RDebugCorePlugin.log(new Status(IStatus.ERROR, RDebugCorePlugin.PLUGIN_ID, 0,
-					sb.toString(), e ));
+		
+		if (DEBUG_LOG) {
+			RDebugCorePlugin.log(new Status(IStatus.INFO, RDebugCorePlugin.PLUGIN_ID, 0,
+					String.format("Evaluated watch expressions for stamp %1$s: %2$s requests, %3$s cached, %4$s unchanged, in %5$s ms.", //$NON-NLS-1$
+							this.stamp, entries.size(), cachedCount, reusedCount,
+							(System.nanoTime() - startTime) / 1000000 ),
+					null ));
 		}
 	}
 	
-	private void evalExpression(final String id, final AbstractRDbgController r,
-			final IProgressMonitor monitor) throws UnexpectedRDataException, CoreException, DebugException {
-		final RMainThread thread= this.task.getThread();
+	private int evalExpressions(final RStackFrame frame,
+			final Map<REvalExpressionTask.Key, List<Entry>> tasks,
+			final AbstractRDbgController r, final IProgressMonitor monitor)
+			throws CoreException, UnexpectedRDataException {
+		final ExpressionManager manager= this.thread.getExpressionManager();
+		final List<REvalExpressionTask.Key> keys= new ArrayList<>(tasks.keySet());
+		final int n= keys.size();
 		
-		final String valueName= id + ".value"; //$NON-NLS-1$
-		final RElementName valueElementName= RElementName.create(ImCollections.newList(
-				RJTmp.PKG_NAME, RJTmp.ENV_NAME,
-				RElementName.create(RElementName.MAIN_DEFAULT, valueName) ));
-		
-//		System.out.println(this.task.getRExpression() + " in " + this.task.getStackFrame());
-		
-		ICombinedRElement element;
-		final RReference ref;
-		try {
-			element= r.evalCombinedStruct(
-					this.task.getRExpression(),
-					new RReferenceImpl(this.task.getStackFrame().getHandle(), RObject.TYPE_ENV, null),
-					0, RService.DEPTH_REFERENCE, valueElementName, monitor );
-			ref= RDataUtil.checkRReference(element);
+		final RCharacterStore ids;
+		{	final StringBuilder cmd= new StringBuilder();
+			cmd.append("base::vapply(base::seq_len(").append(n).append("L), function(i) "); //$NON-NLS-1$ //$NON-NLS-2$
+			cmd.append(RJTmp.CREATE_ID).append('(').append(RJTmp.PREFIX_PAR).append("= \"dbg_watch\")"); //$NON-NLS-1$
+			cmd.append(", \"\")"); //$NON-NLS-1$
+			ids= RDataUtil.checkRCharVector(r.evalData(cmd.toString(), monitor)).getData();
+			RDataUtil.checkLengthEqual(ids, n);
 		}
-		catch (final CoreException e) {
-			synchronized (this) {
-				this.state= FINISHING_ERROR;
-				final IStatus status= e.getStatus();
-				if (status.getSeverity() == IStatus.CANCEL) {
-					evalCompleted(new REvaluationResult(this.task.getRExpression(), thread,
-							IStatus.CANCEL, Messages.Expression_Evaluate_Cancelled_message ));
+		
+		final @Nullable REvaluationResult[] previousResults= new @Nullable REvaluationResult[n];
+		final RList codes;
+		{	// the expressions are passed as text and parsed separately in R
+			final StringBuilder exprs= new StringBuilder(n * 64);
+			final StringBuilder names= new StringBuilder(n * 32);
+			final StringBuilder previousNames= new StringBuilder(n * 32);
+			for (int i= 0; i < n; i++) {
+				final REvaluationResult previousResult= manager.getPreviousEvalResult(keys.get(i));
+				previousResults[i]= previousResult;
+				if (i > 0) {
+					exprs.append(", "); //$NON-NLS-1$
+					names.append(", "); //$NON-NLS-1$
+					previousNames.append(", "); //$NON-NLS-1$
+				}
+				exprs.append('"').append(RUtil.escapeCompletely(
+						tasks.get(keys.get(i)).get(0).task.getRExpression() )).append('"');
+				names.append('"').append(RUtil.escapeCompletely(ids.getChar(i) + ".value")).append('"'); //$NON-NLS-1$
+				if (previousResult != null) {
+					previousNames.append('"').append(RUtil.escapeCompletely(
+							previousResult.getTmpId() + ".value" )).append('"'); //$NON-NLS-1$
 				}
 				else {
-					evalCompleted(new REvaluationResult(this.task.getRExpression(), thread,
-							IStatus.ERROR, status.getMessage() ));
+					previousNames.append("NA_character_"); //$NON-NLS-1$
 				}
-				return;
+			}
+			
+			final StringBuilder cmd= new StringBuilder(exprs.length() + names.length() + previousNames.length() + 1024);
+			cmd.append("(function(exprs, names, previousNames, envir) "); //$NON-NLS-1$
+			cmd.append("base::lapply(base::seq_along(exprs), function(i) base::tryCatch({\n"); //$NON-NLS-1$
+			cmd.append("v <- base::eval(base::parse(text= exprs[[i]]), envir= envir)\n"); //$NON-NLS-1$
+			cmd.append("if (base::is.environment(v)) { "); //$NON-NLS-1$
+			appendSet(cmd);
+			cmd.append("; 1L }\n"); //$NON-NLS-1$
+			cmd.append("else if (!base::is.na(previousNames[[i]]) "); //$NON-NLS-1$
+			cmd.append("&& base::exists(previousNames[[i]], envir= ").append(RJTmp.ENV).append(", inherits= FALSE) "); //$NON-NLS-1$ //$NON-NLS-2$
+			cmd.append("&& base::identical(v, base::get(previousNames[[i]], envir= ").append(RJTmp.ENV).append("))) 2L\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			cmd.append("else { "); //$NON-NLS-1$
+			appendSet(cmd);
+			cmd.append("; 0L }\n"); //$NON-NLS-1$
+			cmd.append("}, error= function(e) base::conditionMessage(e)))"); //$NON-NLS-1$
+			cmd.append(")(\n"); //$NON-NLS-1$
+			cmd.append("base::c(").append(exprs).append("),\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			cmd.append("base::c(").append(names).append("),\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			cmd.append("base::c(").append(previousNames).append("),\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			cmd.append("base::environment() )"); //$NON-NLS-1$
+			try {
+				codes= RDataUtil.checkRList(r.evalData(cmd.toString(),
+						new RReferenceImpl(frame.getHandle(), RObject.TYPE_ENV, null),
+						null, 0, RService.DEPTH_INFINITE, monitor ));
+				RDataUtil.checkLengthEqual(codes, n);
+			}
+			catch (final CoreException e) {
+				final IStatus status= e.getStatus();
+				for (int i= 0; i < n; i++) {
+					final String expression= tasks.get(keys.get(i)).get(0).task.getRExpression();
+					evalCompleted(tasks.get(keys.get(i)), (status.getSeverity() == IStatus.CANCEL) ?
+							new REvaluationResult(expression, this.thread,
+									IStatus.CANCEL, Messages.Expression_Evaluate_Cancelled_message ) :
+							new REvaluationResult(expression, this.thread,
+									IStatus.ERROR, status.getMessage() ));
+				}
+				return 0;
 			}
 		}
 		
-		{	final FunctionCall call= r.createFunctionCall(RJTmp.SET);
-			call.addChar(RJTmp.NAME_PAR, valueName);
-			call.add(RJTmp.VALUE_PAR, ref);
-			call.evalVoid(monitor);
+		int reusedCount= 0;
+		for (int i= 0; i < n; i++) {
+			final List<Entry> keyEntries= tasks.get(keys.get(i));
+			final String expression= keyEntries.get(0).task.getRExpression();
+			final RObject code= codes.get(i);
+			if (code.getRObjectType() == RObject.TYPE_VECTOR
+					&& code.getData().getStoreType() == RStore.CHARACTER) {
+				evalCompleted(keyEntries, new REvaluationResult(expression, this.thread,
+						IStatus.ERROR, RDataUtil.checkSingleCharValue(code) ));
+				continue;
+			}
+			final int valueCode= RDataUtil.checkSingleIntValue(code);
+			switch (valueCode) {
+			case VALUE_UNCHANGED: {
+				final REvaluationResult previousResult= previousResults[i];
+				if (previousResult != null
+						&& manager.reuseEvalResult(keys.get(i), previousResult, keyEntries.size())) {
+					previousResult.reset(this.stamp, monitor);
+					for (final Entry entry : keyEntries) {
+						finish(entry, previousResult);
+					}
+					reusedCount++;
+				}
+				else { // not expected
+					evalSkipped(keyEntries);
+				}
+				continue;
+			}
+			case VALUE_ENV:
+			case VALUE_CHANGED:
+				try {
+					evalCompleted(keyEntries, loadValue(ids.getChar(i), expression,
+							(valueCode == VALUE_ENV), r, monitor ));
+				}
+				catch (final CoreException | UnexpectedRDataException e) {
+					final ToStringBuilder sb= new ObjectUtils.ToStringBuilder(
+							"An error occurred when loading the value of watch expression." );
+					sb.addProp("expression", expression); //$NON-NLS-1$
+					sb.addProp("frame", frame); //$NON-NLS-1$
+					RDebugCorePlugin.log(new Status(IStatus.ERROR, RDebugCorePlugin.PLUGIN_ID, 0,
+							sb.toString(), e ));
+					evalSkipped(keyEntries);
+				}
+				continue;
+			default:
+				throw new UnexpectedRDataException("code"); //$NON-NLS-1$
+			}
 		}
+		return reusedCount;
+	}
+	
+	private static void appendSet(final StringBuilder cmd) {
+		cmd.append(RJTmp.SET).append('(').append(RJTmp.NAME_PAR).append("= names[[i]], "); //$NON-NLS-1$
+		cmd.append(RJTmp.VALUE_PAR).append("= v)"); //$NON-NLS-1$
+	}
+	
+	private REvaluationResult loadValue(final String id, final String expression, final boolean isEnv,
+			final AbstractRDbgController r, final IProgressMonitor monitor)
+			throws CoreException, UnexpectedRDataException, DebugException {
+		final String valueName= id + ".value"; //$NON-NLS-1$
+		final RElementName valueElementName= RElementName.create(ImCollections.newList(
+				RJTmp.PKG_NAME, RJTmp.ENV_NAME,
+				RElementName.create(RElementName.MAIN_DEFAULT, valueName) ));
 		
-		if (ref.getReferencedRObjectType() == RObject.TYPE_ENV) {
-			thread.resolveReference((ICombinedRElement) ref, this.stamp, monitor);
-		}
-		else {
-			element= r.getWorkspaceData().resolve(ref, RWorkspace.RESOLVE_UPTODATE, 0, monitor);
+		boolean completed= false;
+		try {
+			final ICombinedRElement element= r.evalCombinedStruct(valueElementName, 0,
+					(isEnv) ? RService.DEPTH_REFERENCE : RService.DEPTH_INFINITE, monitor );
 			if (element == null) {
-				element= r.evalCombinedStruct(valueElementName, 0, RService.DEPTH_INFINITE,
-						monitor );
-				if (element == null) {
-					throw new UnexpectedRDataException("null");
-				}
+				throw new UnexpectedRDataException("null"); //$NON-NLS-1$
+			}
+			if (isEnv) {
+				RDataUtil.checkRReference(element, RObject.TYPE_ENV);
+				this.thread.resolveReference(element, this.stamp, monitor);
+			}
+			
+			final RElementVariable variable= new RElementVariable(element, this.thread, this.stamp, null);
+			variable.getValue(monitor);
+			completed= true;
+			return new REvaluationResult(expression, this.thread, variable, id);
+		}
+		finally {
+			if (!completed) {
+				this.thread.getExpressionManager().cleanEvalResult(id, r, monitor);
 			}
 		}
-		
-		final RElementVariable variable= new RElementVariable(element, thread, this.stamp, null);
-		variable.getValue(monitor);
-		this.state= FINISHING_OK;
-		evalCompleted(new REvaluationResult(this.task.getRExpression(), thread,
-				variable, id ));
 	}
 	
-	private void evalCompleted(final REvaluationResult evalResult) {
-		this.task.getThread().getExpressionManager().setEvalResult(this.task.getKey(), evalResult);
-		this.listener.evaluationFinished(evalResult);
+	private void evalCompleted(final List<Entry> keyEntries, final REvaluationResult evalResult) {
+		for (int i= 1; i < keyEntries.size(); i++) {
+			evalResult.lock();
+		}
+		this.thread.getExpressionManager().setEvalResult(keyEntries.get(0).task.getKey(), evalResult);
+		for (final Entry entry : keyEntries) {
+			finish(entry, evalResult);
+		}
+	}
+	
+	private void evalSkipped(final List<Entry> keyEntries) {
+		for (final Entry entry : keyEntries) {
+			finish(entry, new REvaluationResult(entry.task.getRExpression(), this.thread));
+		}
+	}
+	
+	private void finish(final Entry entry, final REvaluationResult evalResult) {
+		final boolean alreadyFinished;
+		synchronized (this) {
+			alreadyFinished= entry.finished;
+			entry.finished= true;
+		}
+		// notify the listener without lock
+		if (alreadyFinished) {
+			evalResult.free();
+		}
+		else {
+			entry.listener.evaluationFinished(evalResult);
+		}
 	}
 	
 }
@@ -109,6 +109,11 @@ public class ExpressionManager {
 	
 	private final Map<REvalExpressionTask.Key, @Nullable REvaluationResult> evalResults= new HashMap<>();
 	private final List<@NonNull REvaluationResult> oldEvalResults= new ArrayList<>();
+	/** results of previous stamps, candidates for reuse if the value is unchanged */
+	private final Map<REvalExpressionTask.Key, @NonNull REvaluationResult> prevEvalResults= new HashMap<>();
+	
+	/** the runnable collecting the expressions to evaluate, if not yet started */
+	private @Nullable EvalExpressionRunnable evalRunnable;
 	
 	private final CopyOnWriteList<@NonNull REvaluationExpression> expressions= new CopyOnWriteList<>();
 	
@@ -130,6 +135,9 @@ public class ExpressionManager {
 					final REvaluationResult result= entry.getValue();
 					if (result != null) {
 						this.oldEvalResults.add(result);
+						if (result.getTmpId() != null) {
+							this.prevEvalResults.put(entry.getKey(), result);
+						}
 						entry.setValue(null);
 					}
 					else {
@@ -181,15 +189,33 @@ public class ExpressionManager {
 		if (result == null) {
 			final int stamp= this.thread.checkStackFrame(stackFrame);
 			if (stamp != 0) {
-				final RProcess tool= this.thread.getTool();
-				final EvalExpressionRunnable runnable= new EvalExpressionRunnable(task, stamp,
-						listener );
-				synchronized (runnable) {
-					if (tool.getQueue().add(runnable).isOK()) {
-						// async
+				synchronized (this) {
+					final EvalExpressionRunnable runnable= this.evalRunnable;
+					if (runnable != null && runnable.getStamp() == stamp
+							&& runnable.add(task, listener) ) {
+						// async, batched
 						return;
 					}
 				}
+				final RProcess tool= this.thread.getTool();
+				final EvalExpressionRunnable runnable= new EvalExpressionRunnable(this.thread, stamp);
+				runnable.add(task, listener);
+				// the manager lock is never taken while holding the lock of the runnable
+				synchronized (this) {
+					this.evalRunnable= runnable;
+				}
+				if (tool.getQueue().add(runnable).isOK()) {
+					// async
+					return;
+				}
+				synchronized (this) {
+					if (this.evalRunnable == runnable) {
+						this.evalRunnable= null;
+					}
+				}
+				// finishes also the expressions added in the meantime
+				runnable.changed(ISystemRunnable.BEING_ABANDONED, tool);
+				return;
 			}
 			result= new REvaluationResult(expressionText, this.thread);
 		}
@@ -234,6 +260,38 @@ public class ExpressionManager {
 		}
 	}
 	
+	/**
+	 * Returns the result of a previous stamp for the expression, if it is still available.
+	 */
+	public @Nullable REvaluationResult getPreviousEvalResult(final REvalExpressionTask.Key evalKey) {
+		synchronized (this) {
+			final REvaluationResult result= this.prevEvalResults.get(evalKey);
+			return (result != null && this.oldEvalResults.contains(result)) ? result : null;
+		}
+	}
+	
+	/**
+	 * Reuses the result of a previous stamp as result for the current stamp, because the value
+	 * of the expression is unchanged.
+	 * 
+	 * @param lockCount the number of locks to acquire for the listeners
+	 * @return <code>true</code> if the result was reused, otherwise <code>false</code>
+	 */
+	public boolean reuseEvalResult(final REvalExpressionTask.Key evalKey,
+			final REvaluationResult result, final int lockCount) {
+		synchronized (this) {
+			if (!this.oldEvalResults.remove(result)) {
+				return false;
+			}
+			this.prevEvalResults.remove(evalKey);
+			for (int i= 0; i < lockCount; i++) {
+				result.lock();
+			}
+			this.evalResults.put(evalKey, result);
+			return true;
+		}
+	}
+	
 	
 	public void scheduleClean() {
 		synchronized (this.cleanRunnable) {
@@ -253,6 +311,9 @@ public class ExpressionManager {
 				continue;
 			}
 			iter.remove();
+			synchronized (this) {
+				this.prevEvalResults.values().remove(result);
+			}
 			final @Nullable String tmpId= result.getTmpId();
 			if (tmpId != null) {
 				cleanEvalResult(tmpId, r, monitor);
@@ -153,11 +153,11 @@ public class REnvValue extends RElementValue<ICombinedREnvironment> implements I
 	
 	@Override
 	public @NonNull IRVariable[] getVariables(final long offset, final int length, final IRVariable parent) {
+		final IRVariable[] variables= new @NonNull IRVariable[length];
 		synchronized (this.childVariables) {
 			if (this.stamp != this.thread.getCurrentStamp()) {
 				return RElementVariableValue.NO_VARIABLES;
 			}
-			final IRVariable[] variables= new @NonNull IRVariable[length];
 			final boolean direct= (parent == this.variable);
 			for (int i= 0; i < length; i++) {
 				final long idx= offset + i;
@@ -175,8 +175,9 @@ public class REnvValue extends RElementValue<ICombinedREnvironment> implements I
 				}
 				variables[i]= (direct) ? childVariable : RVariableProxy.create(childVariable, parent);
 			}
-			return variables;
 		}
+		this.thread.loadValueSummaries(this.element, offset, length, this.stamp);
+		return variables;
 	}
 	
 	protected RElementVariable checkPreviousVariable(long idx, final ICombinedRElement element) {
@@ -147,8 +147,8 @@ public class RListValue extends RElementVariableValue<ICombinedRList> implements
 			}
 			previousValue= getVariablePreviousValue();
 		}
+		final @NonNull IRVariable[] variables= new @NonNull IRVariable[length];
 		synchronized (this.childVariables) {
-			final @NonNull IRVariable[] variables= new @NonNull IRVariable[length];
 			final boolean direct= (parent == this.variable);
 			for (int i= 0; i < length; i++) {
 				final long idx= offset + i;
@@ -166,8 +166,9 @@ public class RListValue extends RElementVariableValue<ICombinedRList> implements
 				}
 				variables[i]= (direct) ? childVariable : RVariableProxy.create(childVariable, parent);
 			}
-			return variables;
 		}
+		this.variable.getThread().loadValueSummaries(this.element, offset, length, this.stamp);
+		return variables;
 	}
 	
 	protected @Nullable RElementVariable checkPreviousVariable(final RListValue previousValue,
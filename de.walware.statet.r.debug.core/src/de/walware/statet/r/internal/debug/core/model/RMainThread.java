@@ -14,8 +14,10 @@ package de.walware.statet.r.internal.debug.core.model;
 import static de.walware.statet.r.console.core.RWorkspace.RESOLVE_UPTODATE;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -46,8 +48,10 @@ import de.walware.statet.nico.core.runtime.ToolStatus;
 
 import de.walware.rj.data.RDataUtil;
 import de.walware.rj.data.RLanguage;
+import de.walware.rj.data.RList;
 import de.walware.rj.data.RObject;
 import de.walware.rj.data.RReference;
+import de.walware.rj.data.RVector;
 import de.walware.rj.data.UnexpectedRDataException;
 import de.walware.rj.data.defaultImpl.RLanguageImpl;
 import de.walware.rj.data.defaultImpl.RReferenceImpl;
@@ -63,7 +67,9 @@ import de.walware.rj.services.RService;
 import de.walware.statet.r.console.core.RProcess;
 import de.walware.statet.r.console.core.RWorkspace;
 import de.walware.statet.r.console.core.RWorkspace.ICombinedREnvironment;
+import de.walware.statet.r.console.core.RWorkspace.ICombinedRList;
 import de.walware.statet.r.console.core.util.LoadReferenceRunnable;
+import de.walware.statet.r.core.RUtil;
 import de.walware.statet.r.core.data.ICombinedRElement;
 import de.walware.statet.r.core.model.RElementName;
 import de.walware.statet.r.debug.core.IRStackFrame;
@@ -198,10 +204,86 @@ public class RMainThread extends RDebugElement implements IRThread,
 	}
 	
 	
+	/**
+	 * Loads the contexts of the top stack frames and the values of the variables of their
+	 * environments in advance, after the thread is suspended.
+	 * 
+	 * The runnable stops as soon as the thread is resumed.
+	 */
+	private class PrefetchContextRunnable implements ISystemRunnable {
+		
+		
+		private final int stamp;
+		private final @NonNull RStackFrame[] frames;
+		
+		private volatile boolean cancel;
+		
+		
+		public PrefetchContextRunnable(final int stamp, final @NonNull RStackFrame[] frames) {
+			this.stamp= stamp;
+			this.frames= frames;
+		}
+		
+		
+		@Override
+		public String getTypeId() {
+			return "r/dbg/thread/prefetch"; //$NON-NLS-1$
+		}
+		
+		@Override
+		public String getLabel() {
+			return Messages.DebugContext_UpdateVariables_task;
+		}
+		
+		@Override
+		public boolean isRunnableIn(final ITool tool) {
+			return (tool == getTool());
+		}
+		
+		@Override
+		public boolean changed(final int event, final ITool tool) {
+			switch (event) {
+			case MOVING_FROM:
+				return false;
+			default:
+				return true;
+			}
+		}
+		
+		public void cancel() {
+			this.cancel= true;
+		}
+		
+		@Override
+		public void run(final IToolService service,
+				final IProgressMonitor monitor) throws CoreException {
+			final AbstractRDbgController r= (AbstractRDbgController) service;
+			for (final RStackFrame frame : this.frames) {
+				if (this.cancel || monitor.isCanceled()
+						|| !r.isSuspended() || this.stamp != r.getChangeStamp()) {
+					return;
+				}
+				final ICombinedRElement element= frame.prefetchContext(r, monitor);
+				if (element instanceof ICombinedREnvironment && !this.cancel) {
+					loadValueSummaries((ICombinedREnvironment) element, 0,
+							(int) Math.min(element.getLength(), PREFETCH_VALUE_COUNT), this.stamp,
+							r, monitor );
+				}
+			}
+		}
+		
+	}
+	
+	
 	private static final @NonNull RStackFrame[] NO_FRAMES= new RStackFrame[0];
 	
 	private static final @NonNull IRBreakpoint[] NO_BREAKPOINTS= new IRBreakpoint[0];
 	
+	/** number of the top stack frames whose context is prefetched on suspend */
+	private static final int PREFETCH_FRAME_COUNT= 10;
+	/** max number of variables of a frame environment whose values are prefetched */
+	private static final int PREFETCH_VALUE_COUNT= 100;
+	
 	
 	private final AbstractRDbgController controller;
 	
@@ -219,6 +301,13 @@ public class RMainThread extends RDebugElement implements IRThread,
 	private Map<Long, @Nullable EnvItem> envItems;
 	private @Nullable Map<Long, @Nullable EnvItem> envPrevItems;
 	
+	/** values of scalar vectors, loaded in bulk (see {@link #loadValueSummaries}) */
+	private Map<ICombinedRElement, @Nullable RVector<?>> valueSummaries;
+	private Map<ICombinedRElement, @Nullable RVector<?>> valuePrevSummaries;
+	private int valuePrevSummariesStamp;
+	
+	private @Nullable PrefetchContextRunnable prefetchRunnable;
+	
 	private @Nullable RReference rGlobelEnvRef;
 	private @Nullable RReference rjTmpEnvRef;
 	
@@ -241,6 +330,8 @@ public class RMainThread extends RDebugElement implements IRThread,
 		synchronized (this.suspendLock) {
 			this.frames= NO_FRAMES;
 			this.envItems= Collections.EMPTY_MAP;
+			this.valueSummaries= new IdentityHashMap<>();
+			this.valuePrevSummaries= Collections.emptyMap();
 		}
 		
 		this.controller.addSuspendUpdateRunnable(new ISystemRunnable() {
@@ -316,6 +407,8 @@ public class RMainThread extends RDebugElement implements IRThread,
 					this.state= RUN_OTHER;
 					eventCollection.add(new DebugEvent(this, DebugEvent.RESUME, detail));
 					
+					cancelPrefetch();
+					
 					this.expressionManager.clearCache(0, null);
 				}
 				break;
@@ -326,6 +419,8 @@ public class RMainThread extends RDebugElement implements IRThread,
 					this.state= newState;
 					eventCollection.add(new DebugEvent(this, DebugEvent.RESUME, detail));
 					
+					cancelPrefetch();
+					
 					this.expressionManager.clearCache(0, null);
 				}
 				break;
@@ -484,6 +579,12 @@ public class RMainThread extends RDebugElement implements IRThread,
 				this.envItems= newEnvItems;
 				
 				this.stampChanged= (stamp != prevStamp);
+				
+				if (this.stampChanged) {
+					this.valuePrevSummaries= this.valueSummaries;
+					this.valuePrevSummariesStamp= prevStamp;
+					this.valueSummaries= new IdentityHashMap<>();
+				}
 			}
 			
 			if (this.frames.length > 0) {
@@ -492,8 +593,35 @@ public class RMainThread extends RDebugElement implements IRThread,
 			
 			if (this.stampChanged) {
 				this.expressionManager.clearCache(stamp, monitor);
+				schedulePrefetch();
+			}
+		}
+	}
+	
+	private void schedulePrefetch() {
+		final PrefetchContextRunnable runnable;
+		synchronized (this.suspendLock) {
+			cancelPrefetch();
+			if (this.frames.length == 0) {
+				return;
 			}
+			runnable= new PrefetchContextRunnable(this.stamp, Arrays.copyOf(this.frames,
+					Math.min(this.frames.length, PREFETCH_FRAME_COUNT) ));
+			this.prefetchRunnable= runnable;
 		}
+		getTool().getQueue().add(runnable);
+	}
+	
+	private void cancelPrefetch() {
+		final PrefetchContextRunnable runnable;
+		synchronized (this.suspendLock) {
+			runnable= this.prefetchRunnable;
+			if (runnable == null) {
+				return;
+			}
+			this.prefetchRunnable= null;
+		}
+		runnable.cancel(); // the queued runnable returns immediately
 	}
 	
 	private @Nullable EnvItem getEnvItem(final Long first, final Long second) {
@@ -556,6 +684,7 @@ public class RMainThread extends RDebugElement implements IRThread,
 	
 	
 	protected void exec(final DbgRequest request) throws DebugException {
+		cancelPrefetch();
 		try {
 			this.controller.exec(request);
 		}
@@ -870,6 +999,173 @@ public class RMainThread extends RDebugElement implements IRThread,
 	}
 	
 	
+	/**
+	 * Returns the value of a scalar vector loaded by {@link #loadValueSummaries}.
+	 * 
+	 * @param element the vector element
+	 * @param stamp the stamp of the element
+	 * @return the vector with data or <code>null</code> if not available
+	 */
+	public @Nullable RVector<?> getValueSummary(final ICombinedRElement element, final int stamp) {
+		synchronized (this.suspendLock) {
+			if (stamp == this.stamp) {
+				return this.valueSummaries.get(element);
+			}
+			if (stamp == this.valuePrevSummariesStamp) {
+				return this.valuePrevSummaries.get(element);
+			}
+			return null;
+		}
+	}
+	
+	/**
+	 * Loads the values of all scalar vectors in the specified range of the children of a list or
+	 * environment in a single request, instead of a request for each vector.
+	 * 
+	 * @param parent the list or environment
+	 * @param offset the index of the first child
+	 * @param length the number of children
+	 * @param stamp the stamp of the parent
+	 */
+	public void loadValueSummaries(final ICombinedRList parent, final long offset, final int length,
+			final int stamp) {
+		final List<ICombinedRElement> elements= new ArrayList<>();
+		final String idxs= prepareValueSummaries(parent, offset, length, stamp, elements);
+		if (idxs == null) {
+			return;
+		}
+		
+		final RList data= loadData(new AccessDataRunnable<RList>() {
+			@Override
+			protected int getRequiredStamp() {
+				return stamp;
+			}
+			@Override
+			protected RList doRun(final IRToolService r, final IProgressMonitor monitor)
+					throws CoreException, UnexpectedRDataException {
+				return doLoadValueSummaries(parent, idxs, elements.size(), stamp, r, monitor);
+			}
+		});
+		setValueSummaries(elements, data, stamp);
+	}
+	
+	/**
+	 * Like {@link #loadValueSummaries(ICombinedRList, long, int, int)}, but runs directly in the
+	 * tool thread.
+	 */
+	void loadValueSummaries(final ICombinedRList parent, final long offset, final int length,
+			final int stamp,
+			final IRToolService r, final IProgressMonitor monitor) throws CoreException {
+		final List<ICombinedRElement> elements= new ArrayList<>();
+		final String idxs= prepareValueSummaries(parent, offset, length, stamp, elements);
+		if (idxs == null) {
+			return;
+		}
+		
+		RList data= null;
+		try {
+			data= doLoadValueSummaries(parent, idxs, elements.size(), stamp, r, monitor);
+		}
+		catch (final UnexpectedRDataException e) {
+			throw new CoreException(new Status(IStatus.ERROR, RDebugCorePlugin.PLUGIN_ID,
+					"Unexpected state", e ));
+		}
+		finally {
+			setValueSummaries(elements, data, stamp);
+		}
+	}
+	
+	private @Nullable String prepareValueSummaries(final ICombinedRList parent,
+			final long offset, final int length, final int stamp,
+			final List<ICombinedRElement> elements) {
+		final byte parentType= parent.getRObjectType();
+		if (parentType != RObject.TYPE_ENV && parentType != RObject.TYPE_LIST
+				&& parentType != RObject.TYPE_DATAFRAME) {
+			return null;
+		}
+		final StringBuilder idxs= new StringBuilder();
+		synchronized (this.suspendLock) {
+			if (stamp != this.stamp) {
+				return null;
+			}
+			for (int i= 0; i < length; i++) {
+				final long idx= offset + i;
+				final ICombinedRElement element= parent.get(idx);
+				if (element.getRObjectType() == RObject.TYPE_VECTOR && element.getLength() == 1
+						&& !this.valueSummaries.containsKey(element)) {
+					if (parentType == RObject.TYPE_ENV) {
+						final String name= parent.getName(idx);
+						if (name == null) {
+							continue;
+						}
+						idxs.append('"').append(RUtil.escapeCompletely(name)).append("\", "); //$NON-NLS-1$
+					}
+					else {
+						idxs.append(idx + 1).append("L, "); //$NON-NLS-1$
+					}
+					elements.add(element);
+				}
+			}
+			if (elements.size() < 2) {
+				return null; // single requests
+			}
+			for (final ICombinedRElement element : elements) {
+				this.valueSummaries.put(element, null);
+			}
+		}
+		idxs.setLength(idxs.length() - 2);
+		return idxs.toString();
+	}
+	
+	private @Nullable RList doLoadValueSummaries(final ICombinedRList parent, final String idxs,
+			final int count, final int stamp,
+			final IRToolService r, final IProgressMonitor monitor)
+			throws CoreException, UnexpectedRDataException {
+		final StringBuilder cmd= new StringBuilder(idxs.length() + 128);
+		final RObject envir;
+		cmd.append("base::lapply("); //$NON-NLS-1$
+		if (parent.getRObjectType() == RObject.TYPE_ENV) {
+			final long handle= ((ICombinedREnvironment) parent).getHandle();
+			if (handle == 0) {
+				return null;
+			}
+			envir= new RReferenceImpl(handle, RObject.TYPE_ENV, RObject.CLASSNAME_ENV);
+			cmd.append("base::mget(c(").append(idxs).append("), envir= base::environment())"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		else {
+			final IFQRObjectRef ref= createElementRef(parent, stamp, monitor);
+			if (ref == null) {
+				return null;
+			}
+			envir= ref.getEnv();
+			cmd.append(((RLanguage) ref.getName()).getSource());
+			cmd.append("[c(").append(idxs).append(")]"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		cmd.append(", function(e) if (base::is.atomic(e) && base::length(e) == 1L) e)"); //$NON-NLS-1$
+		final RList list= RDataUtil.checkRList(r.evalData(cmd.toString(), envir,
+				null, 0, RService.DEPTH_INFINITE, monitor ));
+		RDataUtil.checkLengthEqual(list, count);
+		return list;
+	}
+	
+	private void setValueSummaries(final List<ICombinedRElement> elements,
+			final @Nullable RList data, final int stamp) {
+		if (data == null) {
+			return;
+		}
+		synchronized (this.suspendLock) {
+			if (stamp != this.stamp) {
+				return;
+			}
+			for (int i= 0; i < elements.size(); i++) {
+				final RObject value= data.get(i);
+				if (value instanceof RVector && value.getLength() == 1) {
+					this.valueSummaries.put(elements.get(i), (RVector<?>) value);
+				}
+			}
+		}
+	}
+	
 	public <V extends RObject> @Nullable V loadData(final AccessDataRunnable<V> runnable) {
 		if (runnable.getRequiredStamp() != getCurrentStamp()) {
 			return null;
@@ -490,6 +490,26 @@ public class RStackFrame extends RDebugElement implements IRStackFrame {
 		}
 	}
 	
+	/**
+	 * Loads the context of the frame in advance, if it is not yet loaded or requested.
+	 * 
+	 * @return the frame environment or <code>null</code> if not available
+	 */
+	protected @Nullable ICombinedRElement prefetchContext(final AbstractRDbgController r,
+			final IProgressMonitor monitor) throws CoreException {
+		this.lock.writeLock().lock();
+		try {
+			if (!this.detailLoaded && this.contextRunnable == null) {
+				loadContext(r, monitor);
+			}
+			final RElementVariable variable= this.frameVariable;
+			return (variable != null) ? variable.getElement() : null;
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
 	protected void loadContext(final AbstractRDbgController r, final IProgressMonitor monitor) throws CoreException {
 		this.lock.writeLock().lock();
 		try {
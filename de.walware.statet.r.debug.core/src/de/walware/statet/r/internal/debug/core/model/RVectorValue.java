@@ -84,29 +84,52 @@ public class RVectorValue extends RElementVariableValue<ICombinedRElement> imple
 			if (index >= previousValue.length) {
 				return true;
 			}
-			final LazyRStore.Fragment<RVector<?>> previousFragment;
-			final LazyRStore.Fragment<RVector<?>> currentFragment;
+			final Object previousData;
+			final Object currentData;
 			synchronized (previousValue) {
-				previousFragment= previousValue.getLoadedDataFragment(index);
-				if (previousFragment == null || previousFragment.getRObject() == null) {
-					return false;
+				final RVector<?> summary= previousValue.getValueSummary(index);
+				if (summary != null) {
+					previousData= summary.getData().get(0);
+				}
+				else {
+					final LazyRStore.Fragment<RVector<?>> previousFragment= previousValue.getLoadedDataFragment(index);
+					if (previousFragment == null || previousFragment.getRObject() == null) {
+						return false;
+					}
+					previousData= previousFragment.getRObject().getData().get(
+							previousFragment.toLocalRowIdx(index) );
 				}
 			}
 			synchronized (this) {
-				currentFragment= getDataFragment(index);
-				if (currentFragment == null || currentFragment.getRObject() == null) {
-					return false;
+				final RVector<?> summary= getValueSummary(index);
+				if (summary != null) {
+					currentData= summary.getData().get(0);
+				}
+				else {
+					final LazyRStore.Fragment<RVector<?>> currentFragment= getDataFragment(index);
+					if (currentFragment == null || currentFragment.getRObject() == null) {
+						return false;
+					}
+					currentData= currentFragment.getRObject().getData().get(
+							currentFragment.toLocalRowIdx(index) );
 				}
 			}
-			return (!Objects.equals(
-					currentFragment.getRObject().getData().get(
-							currentFragment.toLocalRowIdx(index) ),
-					previousFragment.getRObject().getData().get(
-							previousFragment.toLocalRowIdx(index) )));
+			return (!Objects.equals(currentData, previousData));
 		}
 		return false;
 	}
 	
+	/**
+	 * Returns the value of a scalar vector, if loaded in bulk with the values of its siblings
+	 * and not yet loaded or modified by this value itself.
+	 */
+	private @Nullable RVector<?> getValueSummary(final long idx) {
+		if (idx == 0 && this.length == 1 && this.dataStore == null) {
+			return this.variable.getThread().getValueSummary(this.element, this.stamp);
+		}
+		return null;
+	}
+	
 	
 	@Override
 	public String getValueString() throws DebugException {
@@ -231,18 +254,27 @@ public class RVectorValue extends RElementVariableValue<ICombinedRElement> imple
 			}
 		}
 		
-		final LazyRStore.Fragment<RVector<?>> fragment;
+		final RStore<?> data;
+		final int localIdx;
 		synchronized (this) {
-			fragment= getDataFragment(idx);
-			if (fragment == null || fragment.getRObject() == null) {
-				return null;
+			final RVector<?> summary= getValueSummary(idx);
+			if (summary != null) {
+				data= summary.getData();
+				localIdx= 0;
+			}
+			else {
+				final LazyRStore.Fragment<RVector<?>> fragment= getDataFragment(idx);
+				if (fragment == null || fragment.getRObject() == null) {
+					return null;
+				}
+				data= fragment.getRObject().getData();
+				localIdx= (int) fragment.toLocalRowIdx(idx);
 			}
 		}
 		
 		final RValueFormatter formatter= getDebugTarget().getValueFormatter();
 		synchronized (formatter) {
-			return formatter.format(
-					fragment.getRObject().getData(), (int) fragment.toLocalRowIdx(idx) );
+			return formatter.format(data, localIdx);
 		}
 	}
 	
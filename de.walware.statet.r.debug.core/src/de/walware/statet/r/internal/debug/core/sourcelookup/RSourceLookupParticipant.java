@@ -43,6 +43,8 @@ import de.walware.ecommons.io.FileUtil;
 import de.walware.ecommons.ltk.IModelManager;
 import de.walware.ecommons.ltk.ISourceUnitManager;
 import de.walware.ecommons.ltk.LTK;
+import de.walware.ecommons.ltk.ast.AstSelection;
+import de.walware.ecommons.ltk.ast.IAstNode;
 import de.walware.ecommons.ltk.core.model.IModelElement;
 import de.walware.ecommons.ltk.core.model.ISourceUnit;
 import de.walware.ecommons.ltk.core.model.ISourceUnitModelInfo;
@@ -55,6 +57,7 @@ import de.walware.statet.r.console.core.RProcess;
 import de.walware.statet.r.core.model.IRMethod;
 import de.walware.statet.r.core.model.IRModelInfo;
 import de.walware.statet.r.core.model.IRSourceUnit;
+import de.walware.statet.r.core.model.RIndexedFunction;
 import de.walware.statet.r.core.model.RModel;
 import de.walware.statet.r.core.rsource.ast.Block;
 import de.walware.statet.r.core.rsource.ast.FDef;
@@ -81,6 +84,7 @@ public class RSourceLookupParticipant extends AbstractSourceLookupParticipant {
 	private static final int QUALITY_EXACT_FILE_CONTENT=    22;
 	private static final int QUALITY_EXACT_FUNCTION_CONTENT=13;
 	private static final int QUALITY_POSITION_FOUND=        10;
+	private static final int QUALITY_FUNCTION_FINGERPRINT=   5;
 	
 	
 	protected static class LookupData {
@@ -140,6 +144,9 @@ public class RSourceLookupParticipant extends AbstractSourceLookupParticipant {
 		
 		private final Object sourceElement;
 		
+		/** position of the function in the source element according to the model index */
+		private RIndexedFunction indexedFunction;
+		
 		private FrameContext currentContext;
 		private int quality;
 		
@@ -441,7 +448,38 @@ public class RSourceLookupParticipant extends AbstractSourceLookupParticipant {
 					}
 				}
 				
-				// fallback method 2: runtime source
+				// fallback method 2: function in workspace by model index
+				if (data.context.getSourceCode() != null && data.context.getSourceType() == 3
+						&& (bestQuality <= 0 || findDuplicates) ) {
+					try {
+						final List<RIndexedFunction> functions= findIndexedFunctions(data);
+						if (functions != null) {
+							for (final RIndexedFunction function : functions) {
+								final IFile file= getFile(function);
+								if (file == null) {
+									continue;
+								}
+								final RSourceLookupMatch match= new RSourceLookupMatch(data.frame, file);
+								match.indexedFunction= function;
+								checkPosition(data, match);
+								if (match.quality <= 0) {
+									continue;
+								}
+								matches.add(match);
+								bestQuality= Math.max(bestQuality, match.quality);
+								if (bestQuality >= QUALITY_POSITION_FOUND && !findDuplicates) {
+									break;
+								}
+							}
+						}
+					}
+					catch (final Exception e) {
+						data.addStatus(new Status(IStatus.WARNING, RDebugCorePlugin.PLUGIN_ID, 0,
+								"An error occured when looking up R sources in the model index.", e ));
+					}
+				}
+				
+				// fallback method 3: runtime source
 				if (data.context.getSourceCode() != null
 						&& (bestQuality <= 0 || findDuplicates) ) {
 					try {
@@ -605,6 +643,66 @@ public class RSourceLookupParticipant extends AbstractSourceLookupParticipant {
 		return null;
 	}
 	
+	/**
+	 * Looks up the function of the frame in the model index, by the fingerprint of the function
+	 * body of the runtime source.
+	 * 
+	 * If the function is found in more than one source unit, the match is ambiguous and the
+	 * runtime source is preferred.
+	 * 
+	 * @return the indexed functions or <code>null</code>
+	 */
+	private List<RIndexedFunction> findIndexedFunctions(final LookupData data) throws CoreException {
+		final IProgressMonitor monitor= new NullProgressMonitor();
+		createFragment(data);
+		final ISourceUnit fragmentSu= LTK.getSourceUnitManager().getSourceUnit(RModel.R_TYPE_ID,
+				LTK.EDITOR_CONTEXT, data.fragment, true, monitor );
+		if (fragmentSu == null) {
+			return null;
+		}
+		try {
+			final RAstNode body= findFBody(fragmentSu.getModelInfo(
+					RModel.R_TYPE_ID, IModelManager.MODEL_FILE, monitor ));
+			if (body == null || !RIndexedFunction.isIndexable(body)) {
+				return null;
+			}
+			final List<RIndexedFunction> functions= RModel.getRModelManager().findIndexedFunctions(
+					RIndexedFunction.computeFingerprint(body), monitor );
+			if (DEBUG_LOG) {
+				data.addStatus(new Status(IStatus.INFO, RDebugCorePlugin.PLUGIN_ID, 0,
+						NLS.bind("Functions found in model index: {0}", functions), null ));
+			}
+			if (functions != null) {
+				for (int i= 1; i < functions.size(); i++) {
+					if (!functions.get(i).getUnitId().equals(functions.get(0).getUnitId())) {
+						return null;
+					}
+				}
+			}
+			return functions;
+		}
+		finally {
+			fragmentSu.disconnect(monitor);
+		}
+	}
+	
+	private IFile getFile(final RIndexedFunction function) {
+		final IProgressMonitor monitor= new NullProgressMonitor();
+		final ISourceUnit su= LTK.getSourceUnitManager().getSourceUnit(function.getModelTypeId(),
+				LTK.PERSISTENCE_CONTEXT, function.getUnitId(), true, monitor );
+		if (su != null) {
+			try {
+				final Object resource= su.getResource();
+				return (resource instanceof IFile && ((IFile) resource).exists()) ?
+						(IFile) resource : null;
+			}
+			finally {
+				su.disconnect(monitor);
+			}
+		}
+		return null;
+	}
+	
 	private IRSourceUnit getSourceUnit(final RSourceLookupMatch match, final IProgressMonitor monitor) {
 		final ISourceUnitManager suManager= LTK.getSourceUnitManager();
 		ISourceUnit su= suManager.getSourceUnit(
@@ -697,7 +795,8 @@ public class RSourceLookupParticipant extends AbstractSourceLookupParticipant {
 										final String bCode= bDocument.get(corr.bFirstColumnCharOffset,
 												end - corr.bFirstColumnCharOffset );
 										match.quality= searchCode(data, corr,
-												suDocument, suCode, bDocument, bCode);
+												su, suDocument, suCode, bDocument, bCode,
+												match.indexedFunction, monitor );
 									}
 								}
 							}
@@ -720,7 +819,8 @@ public class RSourceLookupParticipant extends AbstractSourceLookupParticipant {
 										corr.bLineShift= bDocument.getLineOfOffset(body.getOffset()) - corr.firstLine;
 										final String bCode= bDocument.get(body.getOffset(), body.getLength());
 										match.quality= searchCode(data, corr,
-												suDocument, suDocument.get(), bDocument, bCode);
+												su, suDocument, suDocument.get(), bDocument, bCode,
+												match.indexedFunction, monitor );
 									}
 								}
 							}
@@ -757,8 +857,26 @@ public class RSourceLookupParticipant extends AbstractSourceLookupParticipant {
 	}
 	
 	private int searchCode(final LookupData data, final SourceCorrection corr,
-			final AbstractDocument suDocument, final String suCode,
-			final AbstractDocument bDocument, String bCode) throws BadLocationException {
+			final ISourceUnit su, final AbstractDocument suDocument, final String suCode,
+			final AbstractDocument bDocument, String bCode,
+			final RIndexedFunction indexedFunction, final IProgressMonitor monitor) throws BadLocationException {
+		if (indexedFunction != null) {
+			// Position from model index
+			final int offset= indexedFunction.getOffset();
+			if (suCode.startsWith(bCode, offset)
+					|| (bDocument.getDefaultLineDelimiter() != suDocument.getDefaultLineDelimiter()
+							&& suCode.startsWith(bCode.replace(bDocument.getDefaultLineDelimiter(),
+									suDocument.getDefaultLineDelimiter() ), offset ))) {
+				setSuFirstPosition(corr, suDocument, offset);
+				return QUALITY_EXACT_FUNCTION_CONTENT;
+			}
+			if (checkFingerprint(su, indexedFunction, monitor)) {
+				// same tokens, different formatting: lines are only approximated
+				setSuFirstPosition(corr, suDocument, offset);
+				return QUALITY_FUNCTION_FINGERPRINT;
+			}
+		}
+		
 		// First match
 		int offset= suCode.indexOf(bCode);
 		if (offset < 0
@@ -789,15 +907,37 @@ public class RSourceLookupParticipant extends AbstractSourceLookupParticipant {
 		}
 		
 		if (offset >= 0) {
-			final int suLine= suDocument.getLineOfOffset(offset);
-			corr.suLineShift= suLine - corr.firstLine;
-			corr.suFirstLineCharOffset= suDocument.getLineOffset(suLine);
-			corr.suFirstColumnCharOffset= offset;
+			setSuFirstPosition(corr, suDocument, offset);
 			return QUALITY_EXACT_FUNCTION_CONTENT;
 		}
 		return 0;
 	}
 	
+	private void setSuFirstPosition(final SourceCorrection corr, final AbstractDocument suDocument,
+			final int offset) throws BadLocationException {
+		final int suLine= suDocument.getLineOfOffset(offset);
+		corr.suLineShift= suLine - corr.firstLine;
+		corr.suFirstLineCharOffset= suDocument.getLineOffset(suLine);
+		corr.suFirstColumnCharOffset= offset;
+	}
+	
+	private boolean checkFingerprint(final ISourceUnit su, final RIndexedFunction indexedFunction,
+			final IProgressMonitor monitor) {
+		final ISourceUnitModelInfo modelInfo= su.getModelInfo(RModel.R_TYPE_ID,
+				IModelManager.MODEL_FILE, monitor );
+		if (modelInfo == null) {
+			return false;
+		}
+		final AstSelection selection= AstSelection.search(modelInfo.getAst().root,
+				indexedFunction.getOffset(), indexedFunction.getOffset() + indexedFunction.getLength(),
+				AstSelection.MODE_COVERING_SAME_LAST );
+		final IAstNode node= selection.getCovering();
+		return (node instanceof RAstNode
+				&& node.getOffset() == indexedFunction.getOffset()
+				&& node.getLength() == indexedFunction.getLength()
+				&& RIndexedFunction.computeFingerprint((RAstNode) node) == indexedFunction.getFingerprint() );
+	}
+	
 	private Block findFBody(final ISourceUnitModelInfo modelInfo) {
 		if (modelInfo instanceof IRModelInfo && modelInfo.getSourceElement() != null) {
 			FDef fDef= null;
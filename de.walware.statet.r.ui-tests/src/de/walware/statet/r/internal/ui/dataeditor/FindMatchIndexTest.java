@@ -0,0 +1,135 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.internal.ui.dataeditor;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+
+public class FindMatchIndexTest {
+	
+	
+	/** 4 x 3, first in row: (0,1) (0,2) (1,0) | (1,2) | (2,2) (3,0) */
+	private static FindMatchIndex createRowWise() {
+		return new FindMatchIndex(true, 4, 3,
+				new long[] { 1, 5, 8 }, new long[] { 3, 1, 2 } );
+	}
+	
+	/** 4 x 3, first in column: (0,0) | (3,0) (0,1) (1,1) | (2,2) */
+	private static FindMatchIndex createColumnWise() {
+		return new FindMatchIndex(false, 4, 3,
+				new long[] { 0, 3, 10 }, new long[] { 1, 3, 1 } );
+	}
+	
+	
+	public FindMatchIndexTest() {
+	}
+	
+	
+	@Test
+	public void toPos_cell() {
+		assertEquals(5, createRowWise().toPos(1, 2, true));
+		assertEquals(5, createRowWise().toPos(1, 2, false));
+		assertEquals(5, createColumnWise().toPos(1, 1, true));
+		assertEquals(5, createColumnWise().toPos(1, 1, false));
+		
+		final FindMatchIndex index= createColumnWise();
+		assertEquals(1, index.getRowIdx(5));
+		assertEquals(1, index.getColumnIdx(5));
+	}
+	
+	@Test
+	public void toPos_undefined() {
+		assertEquals(-1, createRowWise().toPos(-1, -1, true));
+		assertEquals(-1, createRowWise().toPos(-1, -1, false));
+	}
+	
+	@Test
+	public void find_rowOnly_rowWise() {
+		final FindMatchIndex index= createRowWise();
+		
+		// forward: first cell of the row
+		assertEquals(3, index.find(index.toPos(1, -1, true), true));
+		assertEquals(8, index.find(index.toPos(2, -1, true), true));
+		assertEquals(1, index.find(index.toPos(0, -1, true), true));
+		
+		// backward: last cell before the row
+		assertEquals(2, index.find(index.toPos(1, -1, false), false));
+		assertEquals(8, index.find(index.toPos(3, -1, false), false));
+		assertEquals(-1, index.find(index.toPos(0, -1, false), false));
+	}
+	
+	@Test
+	public void find_rowOnly_columnWise() {
+		final FindMatchIndex index= createColumnWise();
+		
+		// forward: first match
+		assertEquals(0, index.find(index.toPos(2, -1, true), true));
+		
+		// backward: (row - 1, 0)
+		assertEquals(0, index.find(index.toPos(1, -1, false), false));
+		assertEquals(-1, index.find(index.toPos(0, -1, false), false));
+	}
+	
+	@Test
+	public void find_runBoundaries() {
+		final FindMatchIndex index= createRowWise();
+		
+		assertEquals(1, index.find(-1, true));
+		assertEquals(2, index.find(1, true));
+		assertEquals(5, index.find(3, true));
+		assertEquals(8, index.find(5, true));
+		assertEquals(8, index.find(6, true));
+		assertEquals(-1, index.find(9, true));
+		
+		assertEquals(9, index.find(11, false));
+		assertEquals(5, index.find(8, false));
+		assertEquals(3, index.find(5, false));
+		assertEquals(3, index.find(4, false));
+		assertEquals(-1, index.find(1, false));
+		assertEquals(-1, index.find(0, false));
+	}
+	
+	@Test
+	public void getMatchIdx() {
+		final FindMatchIndex index= createRowWise();
+		
+		assertEquals(6, index.getMatchCount());
+		assertEquals(0, index.getMatchIdx(1));
+		assertEquals(2, index.getMatchIdx(3));
+		assertEquals(3, index.getMatchIdx(5));
+		assertEquals(5, index.getMatchIdx(9));
+	}
+	
+	@Test
+	public void rowMatches() {
+		final FindMatchIndex index= new FindMatchIndex(false, 10, -1,
+				new long[] { 2, 7 }, new long[] { 2, 1 } );
+		
+		assertEquals(4, index.toPos(4, -1, true));
+		assertEquals(7, index.find(index.toPos(4, -1, true), true));
+		assertEquals(3, index.find(index.toPos(4, -1, false), false));
+		assertEquals(4, index.getRowIdx(4));
+		assertEquals(-1, index.getColumnIdx(4));
+	}
+	
+	@Test
+	public void empty() {
+		final FindMatchIndex index= new FindMatchIndex(true, 4, 3, new long[0], new long[0]);
+		
+		assertEquals(0, index.getMatchCount());
+		assertEquals(-1, index.find(-1, true));
+		assertEquals(-1, index.find(5, false));
+	}
+	
+}
@@ -0,0 +1,64 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.internal.ui.dataeditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+
+public class FormattedCellCacheTest {
+	
+	
+	public FormattedCellCacheTest() {
+	}
+	
+	
+	@Test
+	public void get() {
+		final FormattedCellCache cache= new FormattedCellCache();
+		final RDataFormatter formatter= new RDataFormatter();
+		
+		assertNull(cache.get(1, 2, 3, formatter));
+		cache.put(2, 3, formatter, "1.5");
+		assertEquals("1.5", cache.get(1, 2, 3, formatter));
+		assertNull(cache.get(1, 3, 2, formatter));
+		assertNull(cache.get(1, 2, 3, new RDataFormatter()));
+	}
+	
+	@Test
+	public void get_dataChanged() {
+		final FormattedCellCache cache= new FormattedCellCache();
+		final RDataFormatter formatter= new RDataFormatter();
+		
+		assertNull(cache.get(1, 2, 3, formatter));
+		cache.put(2, 3, formatter, "1.5");
+		assertNull(cache.get(2, 2, 3, formatter));
+	}
+	
+	@Test
+	public void get_formatChanged() {
+		final FormattedCellCache cache= new FormattedCellCache();
+		final RDataFormatter formatter= new RDataFormatter();
+		formatter.initNumFormat(1, 0);
+		
+		assertNull(cache.get(1, 2, 3, formatter));
+		cache.put(2, 3, formatter, "1.5");
+		formatter.initNumFormat(2, 0);
+		assertNull(cache.get(1, 2, 3, formatter));
+		
+		cache.put(2, 3, formatter, "1.50");
+		assertEquals("1.50", cache.get(1, 2, 3, formatter));
+	}
+	
+}
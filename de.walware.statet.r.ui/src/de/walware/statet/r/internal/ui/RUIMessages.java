@@ -27,6 +27,9 @@ public class RUIMessages extends NLS {
 	
 	public static String StripComments_task_label;
 	public static String CorrectIndent_task_label;
+	public static String CorrectIndent_Files_task_label;
+	public static String CorrectIndent_Files_error_Reading_message;
+	public static String CorrectIndent_Files_error_Writing_message;
 	
 	public static String Proposal_RenameInFile_label;
 	public static String Proposal_RenameInFile_description;
@@ -11,6 +11,7 @@
 
 package de.walware.statet.r.internal.ui.dataeditor;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -46,6 +47,7 @@ import de.walware.rj.data.RDataUtil;
 import de.walware.rj.data.RFactorStore;
 import de.walware.rj.data.RIntegerStore;
 import de.walware.rj.data.RLanguage;
+import de.walware.rj.data.RList;
 import de.walware.rj.data.RObject;
 import de.walware.rj.data.RObjectFactory;
 import de.walware.rj.data.RStore;
@@ -79,6 +81,9 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 	public static final ControlData NA= new ControlData(ControlData.NA, "NA"); //$NON-NLS-1$
 	public static final ControlData DUMMY= new ControlData(0, ""); //$NON-NLS-1$
 	
+	/** Number of columns whose info is loaded by a single R call */
+	protected static final int COLUMN_INFO_BATCH_SIZE= 500;
+	
 	protected static final RElementName BASE_NAME= RElementName.create(RElementName.MAIN_DEFAULT, "x"); //$NON-NLS-1$
 	
 	
@@ -156,16 +161,35 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 	private static final long CANCEL_WAIT= 200_000000;
 	private static final long BLOCKING_WAIT= 300_000000;
 	
+	/** Number of neighbouring fragments to load in advance */
+	private static final int PREFETCH_COUNT= 2;
+	
 	private class MainLock extends Lock implements LazyRStore.Updater {
 		
 		
 		private final List<Fragment> waitingFragments= new ArrayList<>();
 		
+		/** Fragments requested while prefetching are loaded by the running update */
+		private boolean prefetching;
+		
+		private Fragment<?> lastRequested;
+		private int rowDirection= 1;
+		
 		
 		@Override
 		public void scheduleUpdate(final LazyRStore store,
 				final RDataAssignment assignment, final Fragment fragment,
 				final int flags, final IProgressMonitor monitor) {
+			if (this.prefetching) {
+				return;
+			}
+			if (fragment != null && store == AbstractRDataProvider.this.dataStore) {
+				if (this.lastRequested != null
+						&& fragment.getRowBeginIdx() != this.lastRequested.getRowBeginIdx()) {
+					this.rowDirection= (fragment.getRowBeginIdx() > this.lastRequested.getRowBeginIdx()) ? 1 : -1;
+				}
+				this.lastRequested= fragment;
+			}
 			long waitNanos;
 			if (!this.scheduled) {
 				this.scheduled= true;
@@ -220,6 +244,22 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 			}
 		}
 		
+		/**
+		 * Returns the fragment of the current data store; the store is read within the lock,
+		 * because it can be replaced by {@link AbstractRDataProvider#updateDataStore(long)}.
+		 */
+		LazyRStore.Fragment<T> getDataFragment(final long rowIdx, final long columnIdx,
+				final int flags, final IProgressMonitor monitor) throws LoadDataException {
+			lock();
+			try {
+				return getFragment(AbstractRDataProvider.this.dataStore, rowIdx, columnIdx,
+						flags, monitor );
+			}
+			finally {
+				unlock();
+			}
+		}
+		
 		void notify(final Object obj) {
 			if (this.waitingFragments.remove(obj)) {
 				this.requestor.signalAll();
@@ -229,6 +269,7 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 		@Override
 		void clear() {
 			this.waitingFragments.clear();
+			this.lastRequested= null;
 			super.clear();
 		}
 		
@@ -255,8 +296,8 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 		public Object getDataValue(final long columnIndex, final long rowIndex,
 				final int flags, final IProgressMonitor monitor) {
 			try {
-				final LazyRStore.Fragment<T> fragment= AbstractRDataProvider.this.fragmentsLock.getFragment(
-						AbstractRDataProvider.this.dataStore, 0, columnIndex, flags, monitor);
+				final LazyRStore.Fragment<T> fragment= AbstractRDataProvider.this.fragmentsLock.getDataFragment(
+						0, columnIndex, flags, monitor);
 				if (fragment != null) {
 					return getColumnName(fragment, columnIndex);
 				}
@@ -561,7 +602,12 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 	private final MainLock fragmentsLock= new MainLock();
 	
 	protected final AbstractRDataAdapter<T, T> adapter;
-	private final LazyRStore<T> dataStore;
+	/** replaced by {@link #updateDataStore(long)}, read it only with the lock */
+	private volatile LazyRStore<T> dataStore;
+	private int dataFragmentSize= LazyRStore.DEFAULT_FRAGMENT_SIZE;
+	private int dataMaxFragmentCount;
+	private final FragmentLoadStats dataLoadStats= new FragmentLoadStats();
+	private volatile int dataStamp;
 	
 	private final List<Object> activeOperations= new ArrayList<>();
 	
@@ -605,7 +651,9 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 		else {
 			dataMax= 25;
 		}
-		this.dataStore= new LazyRStore<>(this.rowCount, this.columnCount, dataMax, this.fragmentsLock);
+		this.dataMaxFragmentCount= dataMax;
+		this.dataStore= new LazyRStore<>(this.rowCount, this.columnCount, dataMax,
+				this.dataFragmentSize, this.fragmentsLock );
 		this.findManager= new FindManager(this);
 		
 		this.columnDataProvider= createColumnDataProvider();
@@ -877,11 +925,18 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 					}
 				}
 				if (work == 0) {
+					boolean prefetched= false;
 					while (true) {
-						final Fragment<T> fragment;
+						Fragment<T> fragment;
 						this.fragmentsLock.lock();
 						try {
 							fragment= this.dataStore.getNextScheduledFragment();
+							if (fragment == null && work > 0 && !prefetched) {
+								prefetched= true;
+								if (schedulePrefetch()) {
+									fragment= this.dataStore.getNextScheduledFragment();
+								}
+							}
 						}
 						finally {
 							this.fragmentsLock.unlock();
@@ -894,12 +949,16 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 							elementRef= checkElementRef(this.input.getElementRef(), r, monitor);
 							this.adapter.check(elementRef, this.rObjectStruct, r, monitor);
 						}
+						final long startTime= System.nanoTime();
 						final T fragmentObject= this.adapter.loadData(elementRef,
 								this.rObjectStruct, fragment, this.rCacheIdx, r, monitor);
+						final long loadTime= System.nanoTime() - startTime;
 						
 						this.fragmentsLock.lock();
 						try {
 							this.dataStore.updateFragment(fragment, fragmentObject);
+							this.dataLoadStats.addSample(fragment.getRowCount() * fragment.getColumnCount(),
+									loadTime );
 							
 							this.fragmentsLock.notify(fragment);
 						}
@@ -921,6 +980,44 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 		}
 	}
 	
+	/**
+	 * Schedules the loading of the fragments following the last requested fragment in scroll
+	 * direction, if no other request is waiting.
+	 * 
+	 * Requires the lock.
+	 * 
+	 * @return <code>true</code> if fragments were requested, otherwise <code>false</code>
+	 */
+	private boolean schedulePrefetch() {
+		final Fragment<?> last= this.fragmentsLock.lastRequested;
+		if (last == null || this.fragmentsLock.state != 0
+				|| !this.fragmentsLock.waitingFragments.isEmpty()
+				|| !this.activeOperations.isEmpty() ) {
+			return false;
+		}
+		final long fragmentRowCount= last.getRowCount();
+		if (fragmentRowCount <= 0) {
+			return false;
+		}
+		boolean requested= false;
+		this.fragmentsLock.prefetching= true;
+		try {
+			long rowIdx= last.getRowBeginIdx();
+			for (int i= 0; i < PREFETCH_COUNT; i++) {
+				rowIdx+= this.fragmentsLock.rowDirection * fragmentRowCount;
+				if (rowIdx < 0 || rowIdx >= this.rowCount) {
+					break;
+				}
+				this.dataStore.getFragment(rowIdx, last.getColumnBeginIdx(), 0, null);
+				requested= true;
+			}
+		}
+		finally {
+			this.fragmentsLock.prefetching= false;
+		}
+		return requested;
+	}
+	
 	private IFQRObjectRef checkElementRef(final IFQRObjectRef elementRef,
 			final RService r, final IProgressMonitor monitor) throws UnexpectedRDataException, CoreException {
 		RObject env= elementRef.getEnv();
@@ -1043,6 +1140,18 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 		return this.rCacheFilter;
 	}
 	
+	/**
+	 * Returns the name of the R index of the rows in the current order (sorting and filter).
+	 * 
+	 * Only in R jobs.
+	 * 
+	 * @return the name of the index in {@link RJTmp#ENV} or <code>null</code> if the rows are
+	 *     in the original order
+	 */
+	String checkRowIndex() {
+		return this.rCacheIdx;
+	}
+	
 	String checkRevIndex(
 			final IRToolService r, final IProgressMonitor monitor) throws CoreException {
 		if (this.rCacheIdx != null) {
@@ -1074,17 +1183,63 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 			IProgressMonitor monitor) throws CoreException, UnexpectedRDataException;
 	
 	
+	/**
+	 * Loads the information required to create the columns for a range of elements of a list
+	 * (e.g. the columns of a data frame) in a single R call.
+	 * 
+	 * For each element the returned list contains a list with the class names and the detail
+	 * info depending on the type (levels, time zone or format info).
+	 * 
+	 * @param listExpression the R expression of the list
+	 * @param beginIdx the index of the first element (inclusive)
+	 * @param endIdx the index of the last element (exclusive)
+	 * @return the list with the column infos
+	 */
+	protected RList loadColumnInfos(final String listExpression, final long beginIdx, final long endIdx,
+			final IRToolService r, final IProgressMonitor monitor) throws CoreException, UnexpectedRDataException {
+		final StringBuilder cmd= getRCmdStringBuilder();
+		cmd.append("lapply(.subset(").append(listExpression).append(", ") //$NON-NLS-1$ //$NON-NLS-2$
+				.append(beginIdx + 1).append(':').append(endIdx).append("), function(x) list(class(x), ") //$NON-NLS-1$
+				.append("if (is.factor(x)) levels(x) ") //$NON-NLS-1$
+				.append("else if (inherits(x, 'Date')) NULL ") //$NON-NLS-1$
+				.append("else if (inherits(x, 'POSIXct')) base::attr(x, 'tzone') ") //$NON-NLS-1$
+				.append("else switch(typeof(x), double=, integer=, character=, complex= rj:::.getFormatInfo(x= x), NULL) ))"); //$NON-NLS-1$
+		final RList infos= RDataUtil.checkRList(r.evalData(cmd.toString(), monitor));
+		RDataUtil.checkLengthEqual(infos, endIdx - beginIdx);
+		return infos;
+	}
+	
 	protected RDataTableColumn createColumn(final RStore store, final String expression,
 			final RElementName elementName, final long columnIndex, final String columnName,
 			final IRToolService r, final IProgressMonitor monitor) throws CoreException, UnexpectedRDataException {
+		return createColumn(store, expression, elementName, columnIndex, columnName, null,
+				r, monitor );
+	}
+	
+	/**
+	 * Creates the column for the specified R data.
+	 * 
+	 * @param columnInfo the info of the column, loaded by {@link #loadColumnInfos}, or
+	 *     <code>null</code> to load the info of the column separately
+	 */
+	protected RDataTableColumn createColumn(final RStore store, final String expression,
+			final RElementName elementName, final long columnIndex, final String columnName,
+			final RList columnInfo,
+			final IRToolService r, final IProgressMonitor monitor) throws CoreException, UnexpectedRDataException {
 		
 		final ImList<String> classNames;
 		
 		RObject rObject;
-		{	final FunctionCall call= r.createFunctionCall("class"); //$NON-NLS-1$
+		if (columnInfo != null) {
+			RDataUtil.checkLengthEqual(columnInfo, 2);
+			rObject= columnInfo.get(0);
+		}
+		else {
+			final FunctionCall call= r.createFunctionCall("class"); //$NON-NLS-1$
 			call.add(expression);
 			rObject= call.evalData(monitor);
-			final RVector<RCharacterStore> names= RDataUtil.checkRCharVector(rObject);
+		}
+		{	final RVector<RCharacterStore> names= RDataUtil.checkRCharVector(rObject);
 			classNames= ImCollections.newList(names.getData().toArray());
 		}
 		RDataTableColumn column;
@@ -1101,15 +1256,12 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 						IRDataTableVariable.DATE, store, classNames, format);
 				break;
 			}
-			if (checkDateTimeFormat(expression, classNames, format, r, monitor)) {
+			if (checkDateTimeFormat(expression, classNames, format, columnInfo, r, monitor)) {
 				column= new RDataTableColumn(columnIndex, columnName, expression, elementName,
 						IRDataTableVariable.DATETIME, store, classNames, format);
 				break;
 			}
-			{	final FunctionCall call= r.createFunctionCall("rj:::.getFormatInfo"); //$NON-NLS-1$
-				call.add("x", expression); //$NON-NLS-1$
-				rObject= call.evalData(monitor);
-			}
+			rObject= loadFormatInfo(expression, columnInfo, r, monitor);
 			{	final RIntegerStore formatInfo= RDataUtil.checkRIntVector(rObject).getData();
 				RDataUtil.checkLengthGreaterOrEqual(formatInfo, 3);
 				format.setAutoWidth(Math.max(formatInfo.getInt(0), 3));
@@ -1125,15 +1277,12 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 						IRDataTableVariable.DATE, store, classNames, format);
 				break;
 			}
-			if (checkDateTimeFormat(expression, classNames, format, r, monitor)) {
+			if (checkDateTimeFormat(expression, classNames, format, columnInfo, r, monitor)) {
 				column= new RDataTableColumn(columnIndex, columnName, expression, elementName,
 						IRDataTableVariable.DATETIME, store, classNames, format);
 				break;
 			}
-			{	final FunctionCall call= r.createFunctionCall("rj:::.getFormatInfo"); //$NON-NLS-1$
-				call.add("x", expression); //$NON-NLS-1$
-				rObject= call.evalData(monitor);
-			}
+			rObject= loadFormatInfo(expression, columnInfo, r, monitor);
 			{	final RIntegerStore formatInfo= RDataUtil.checkRIntVector(rObject).getData();
 				RDataUtil.checkLengthGreaterOrEqual(formatInfo, 1);
 				format.setAutoWidth(Math.max(formatInfo.getInt(0), 3));
@@ -1142,10 +1291,7 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 				break;
 			}
 		case RStore.CHARACTER:
-			{	final FunctionCall call= r.createFunctionCall("rj:::.getFormatInfo"); //$NON-NLS-1$
-				call.add("x", expression); //$NON-NLS-1$
-				rObject= call.evalData(monitor);
-			}
+			rObject= loadFormatInfo(expression, columnInfo, r, monitor);
 			{	final RIntegerStore formatInfo= RDataUtil.checkRIntVector(rObject).getData();
 				RDataUtil.checkLengthGreaterOrEqual(formatInfo, 1);
 				format.setAutoWidth(Math.max(formatInfo.getInt(0), 3));
@@ -1154,10 +1300,7 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 				break;
 			}
 		case RStore.COMPLEX:
-			{	final FunctionCall call= r.createFunctionCall("rj:::.getFormatInfo"); //$NON-NLS-1$
-				call.add("x", expression); //$NON-NLS-1$
-				rObject= call.evalData(monitor);
-			}
+			rObject= loadFormatInfo(expression, columnInfo, r, monitor);
 			{	final RIntegerStore formatInfo= RDataUtil.checkRIntVector(rObject).getData();
 				RDataUtil.checkLengthGreaterOrEqual(formatInfo, 3);
 				format.setAutoWidth(Math.max(formatInfo.getInt(0), 3));
@@ -1173,10 +1316,7 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 					IRDataTableVariable.RAW, store, classNames, format);
 			break;
 		case RStore.FACTOR:
-			{	final FunctionCall call= r.createFunctionCall("levels"); //$NON-NLS-1$
-				call.add(expression);
-				rObject= call.evalData(monitor);
-			}
+			rObject= loadLevels(expression, columnInfo, r, monitor);
 			{	format.setAutoWidth(3);
 				final RCharacterStore levels= RDataUtil.checkRCharVector(rObject).getData();
 				final int l= RDataUtil.checkIntLength(levels);
@@ -1200,6 +1340,26 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 		return column;
 	}
 	
+	private RObject loadFormatInfo(final String expression, final RList columnInfo,
+			final IRToolService r, final IProgressMonitor monitor) throws CoreException {
+		if (columnInfo != null) {
+			return columnInfo.get(1);
+		}
+		final FunctionCall call= r.createFunctionCall("rj:::.getFormatInfo"); //$NON-NLS-1$
+		call.add("x", expression); //$NON-NLS-1$
+		return call.evalData(monitor);
+	}
+	
+	private RObject loadLevels(final String expression, final RList columnInfo,
+			final IRToolService r, final IProgressMonitor monitor) throws CoreException {
+		if (columnInfo != null) {
+			return columnInfo.get(1);
+		}
+		final FunctionCall call= r.createFunctionCall("levels"); //$NON-NLS-1$
+		call.add(expression);
+		return call.evalData(monitor);
+	}
+	
 	protected boolean checkDateFormat(final String expression, final List<String> classNames,
 			final RDataFormatter formatter,
 			final IRToolService r, final IProgressMonitor monitor) throws CoreException, UnexpectedRDataException {
@@ -1212,14 +1372,18 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 	}
 	
 	protected boolean checkDateTimeFormat(final String expression, final List<String> classNames,
-			final RDataFormatter formatter,
+			final RDataFormatter formatter, final RList columnInfo,
 			final IRToolService r, final IProgressMonitor monitor) throws CoreException, UnexpectedRDataException {
 		RObject rObject;
 		if (classNames.contains("POSIXct")) { //$NON-NLS-1$
 			formatter.initDateTimeFormat(RDataFormatter.MILLIS_PER_SECOND);
 			formatter.setAutoWidth(27);
 			
-			{	final FunctionCall call= r.createFunctionCall("base::attr"); //$NON-NLS-1$
+			if (columnInfo != null) {
+				rObject= columnInfo.get(1);
+			}
+			else {
+				final FunctionCall call= r.createFunctionCall("base::attr"); //$NON-NLS-1$
 				call.add(expression);
 				call.addChar("tzone"); //$NON-NLS-1$
 				rObject= call.evalData(monitor);
@@ -1325,8 +1489,8 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 	public Object getDataValue(final long columnIndex, final long rowIndex, final int flags,
 			final IProgressMonitor monitor) {
 		try {
-			final LazyRStore.Fragment<T> fragment= this.fragmentsLock.getFragment(
-					this.dataStore, rowIndex, columnIndex, flags, monitor );
+			final LazyRStore.Fragment<T> fragment= this.fragmentsLock.getDataFragment(
+					rowIndex, columnIndex, flags, monitor );
 			if (fragment != null) {
 				return getDataValue(fragment, rowIndex, columnIndex);
 			}
@@ -1341,6 +1505,16 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 	
 	protected abstract Object getDataValue(LazyRStore.Fragment<T> fragment, long rowIdx, long columnIdx);
 	
+	/**
+	 * Returns the stamp of the loaded data; it changes each time values of already loaded cells
+	 * may change (e.g. by reload, sorting or filtering).
+	 * 
+	 * @return the current data stamp
+	 */
+	public int getDataStamp() {
+		return this.dataStamp;
+	}
+	
 	@Override
 	public void setDataValue(final long columnIndex, final long rowIndex, final Object newValue) {
 		throw new UnsupportedOperationException();
@@ -1529,6 +1703,9 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 			final boolean clearFind) {
 		this.fragmentsLock.lock();
 		try {
+			if (filteredRowCount >= 0) {
+				updateDataStore(filteredRowCount);
+			}
 			this.dataStore.clear(filteredRowCount);
 			if (this.rowDataProvider instanceof AbstractRDataProvider<?>.RowDataProvider) {
 				((RowDataProvider) this.rowDataProvider).rowNamesStore.clear(filteredRowCount);
@@ -1540,6 +1717,7 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 				this.fragmentsLock.state= newState;
 			}
 			this.fragmentsLock.clear();
+			this.dataStamp++;
 			
 			if (filteredRowCount >= 0) {
 				this.rowCount= filteredRowCount;
@@ -1555,6 +1733,37 @@ public abstract class AbstractRDataProvider<T extends RObject> implements IDataP
 		}
 	}
 	
+	/**
+	 * Adapts the fragment size and count of the data store to the measured load times and the
+	 * memory size of the data.
+	 * 
+	 * Requires the lock.
+	 */
+	private void updateDataStore(final long rowCount) {
+		if (this.description != null) {
+			this.dataLoadStats.setColumns(this.description.getDataColumns());
+		}
+		final int fragmentSize= this.dataLoadStats.getFragmentSize(this.dataFragmentSize);
+		final int maxFragmentCount= this.dataLoadStats.getMaxFragmentCount(fragmentSize);
+		if (fragmentSize != this.dataFragmentSize || maxFragmentCount != this.dataMaxFragmentCount) {
+			this.dataFragmentSize= fragmentSize;
+			this.dataMaxFragmentCount= maxFragmentCount;
+			this.dataStore= new LazyRStore<>(rowCount, this.columnCount,
+					maxFragmentCount, fragmentSize, this.fragmentsLock );
+			this.fragmentsLock.lastRequested= null;
+		}
+	}
+	
+	/**
+	 * Schedules the export of the data, with the current sorting and filter, to the specified file.
+	 * 
+	 * @param file the file to write
+	 * @param format the format, {@link ExportDataRunnable#CSV} or {@link ExportDataRunnable#TSV}
+	 */
+	public void exportData(final File file, final int format) {
+		schedule(new ExportDataRunnable(this, file, format));
+	}
+	
 	public void dispose() {
 		this.disposeScheduled= true;
 		schedule(this.cleanRunnable);
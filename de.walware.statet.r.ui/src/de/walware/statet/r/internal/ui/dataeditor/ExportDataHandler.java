@@ -0,0 +1,59 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.internal.ui.dataeditor;
+
+import java.io.File;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.FileDialog;
+
+import de.walware.statet.r.ui.dataeditor.RDataTableComposite;
+
+
+/**
+ * Exports the complete data (with the current sorting and filter) to a CSV or TSV file.
+ */
+public class ExportDataHandler extends AbstractHandler {
+	
+	
+	private final RDataTableComposite fTableComposite;
+	
+	
+	public ExportDataHandler(final RDataTableComposite tableProvider) {
+		this.fTableComposite= tableProvider;
+	}
+	
+	
+	@Override
+	public Object execute(final ExecutionEvent event) throws ExecutionException {
+		if (!this.fTableComposite.isOK()) {
+			return null;
+		}
+		final FileDialog dialog= new FileDialog(this.fTableComposite.getShell(), SWT.SAVE);
+		dialog.setText(Messages.ExportData_Dialog_title);
+		dialog.setFilterExtensions(new String[] { "*.csv", "*.tsv;*.txt" }); //$NON-NLS-1$ //$NON-NLS-2$
+		dialog.setFilterNames(new String[] { Messages.ExportData_Dialog_CSV_label, Messages.ExportData_Dialog_TSV_label });
+		dialog.setOverwrite(true);
+		final String path= dialog.open();
+		if (path == null) {
+			return null;
+		}
+		final int format= (path.toLowerCase().endsWith(".csv")) ? //$NON-NLS-1$
+				ExportDataRunnable.CSV : ExportDataRunnable.TSV;
+		this.fTableComposite.exportData(new File(path), format);
+		return null;
+	}
+	
+}
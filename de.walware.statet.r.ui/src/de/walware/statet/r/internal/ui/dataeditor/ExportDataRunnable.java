@@ -0,0 +1,173 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.internal.ui.dataeditor;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.osgi.util.NLS;
+
+import de.walware.ecommons.ts.ISystemRunnable;
+import de.walware.ecommons.ts.ITool;
+import de.walware.ecommons.ts.IToolService;
+
+import de.walware.rj.data.RCharacterStore;
+import de.walware.rj.data.RDataUtil;
+import de.walware.rj.data.UnexpectedRDataException;
+import de.walware.rj.eclient.IRToolService;
+
+import de.walware.statet.r.ui.RUI;
+
+
+/**
+ * Exports the data of a data provider, with the current sorting and filter, to a text file.
+ * 
+ * The rows are formatted in R ({@code write.table}) and transferred in blocks, so neither the
+ * table nor the file content is materialized at once.
+ */
+public class ExportDataRunnable implements ISystemRunnable {
+	
+	
+	/** Comma separated values, quoted strings */
+	public static final int CSV= 1;
+	/** Tab separated values, no quoting */
+	public static final int TSV= 2;
+	
+	private static final int BLOCK_ROW_COUNT= 10000;
+	
+	
+	private final AbstractRDataProvider<?> dataProvider;
+	
+	private final File file;
+	private final int format;
+	
+	
+	public ExportDataRunnable(final AbstractRDataProvider<?> dataProvider,
+			final File file, final int format) {
+		this.dataProvider= dataProvider;
+		this.file= file;
+		this.format= format;
+	}
+	
+	
+	@Override
+	public String getTypeId() {
+		return "r/dataeditor/export"; //$NON-NLS-1$
+	}
+	
+	@Override
+	public String getLabel() {
+		return NLS.bind(Messages.ExportData_task_label, this.dataProvider.getInput().getName());
+	}
+	
+	@Override
+	public boolean isRunnableIn(final ITool tool) {
+		return true; // TODO
+	}
+	
+	@Override
+	public boolean changed(final int event, final ITool process) {
+		switch (event) {
+		case MOVING_FROM:
+			return false;
+		default:
+			return true;
+		}
+	}
+	
+	@Override
+	public void run(final IToolService service,
+			final IProgressMonitor monitor) throws CoreException {
+		final IRToolService r= (IRToolService) service;
+		final long rowCount= this.dataProvider.getRowCount();
+		final String rowIndex= this.dataProvider.checkRowIndex();
+		final SubMonitor progress= SubMonitor.convert(monitor, getLabel(),
+				(int) ((rowCount + BLOCK_ROW_COUNT - 1) / BLOCK_ROW_COUNT) + 1 );
+		
+		boolean completed= false;
+		try (final Writer writer= new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(this.file), StandardCharsets.UTF_8 ))) {
+			long beginIdx= 0;
+			do {
+				if (progress.isCanceled()) {
+					throw new CoreException(Status.CANCEL_STATUS);
+				}
+				final long endIdx= Math.min(beginIdx + BLOCK_ROW_COUNT, rowCount);
+				final RCharacterStore lines= RDataUtil.checkRCharVector(r.evalData(
+						createBlockCmd(rowIndex, beginIdx, endIdx), progress.newChild(1) )).getData();
+				for (long i= 0; i < lines.getLength(); i++) {
+					writer.write(lines.getChar(i));
+					writer.write('\n');
+				}
+				beginIdx= endIdx;
+			} while (beginIdx < rowCount);
+			completed= true;
+		}
+		catch (final IOException | UnexpectedRDataException e) {
+			throw new CoreException(new Status(IStatus.ERROR, RUI.PLUGIN_ID,
+					Messages.ExportData_error_message, e ));
+		}
+		finally {
+			if (!completed) {
+				this.file.delete();
+			}
+		}
+	}
+	
+	private String createBlockCmd(final String rowIndex, final long beginIdx, final long endIdx) {
+		final StringBuilder cmd= new StringBuilder(256);
+		cmd.append("local({"); //$NON-NLS-1$
+		cmd.append("x <- ").append(this.dataProvider.getInput().getFullName()).append("; "); //$NON-NLS-1$ //$NON-NLS-2$
+		cmd.append("i <- "); //$NON-NLS-1$
+		if (beginIdx >= endIdx) {
+			cmd.append("integer(0)"); //$NON-NLS-1$
+		}
+		else if (rowIndex != null) {
+			cmd.append(RJTmp.ENV + '$').append(rowIndex)
+					.append('[').append(beginIdx + 1).append(':').append(endIdx).append(']');
+		}
+		else {
+			cmd.append(beginIdx + 1).append(':').append(endIdx);
+		}
+		cmd.append("; "); //$NON-NLS-1$
+		cmd.append("utils::capture.output(utils::write.table("); //$NON-NLS-1$
+		if (this.dataProvider.hasRealColumns()) {
+			cmd.append("x[i, , drop= FALSE]"); //$NON-NLS-1$
+		}
+		else {
+			cmd.append("x[i]"); //$NON-NLS-1$
+		}
+		switch (this.format) {
+		case CSV:
+			cmd.append(", sep= \",\", quote= TRUE, qmethod= \"double\""); //$NON-NLS-1$
+			break;
+		default:
+			cmd.append(", sep= \"\\t\", quote= FALSE"); //$NON-NLS-1$
+			break;
+		}
+		cmd.append(", row.names= FALSE, col.names= ").append((beginIdx == 0) ? "TRUE" : "FALSE"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		cmd.append("))"); //$NON-NLS-1$
+		cmd.append("})"); //$NON-NLS-1$
+		return cmd.toString();
+	}
+	
+}
@@ -28,6 +28,7 @@ import de.walware.ecommons.ui.components.StatusInfo;
 import de.walware.ecommons.ui.util.UIAccess;
 
 import de.walware.rj.data.RDataUtil;
+import de.walware.rj.data.RList;
 import de.walware.rj.data.RObject;
 import de.walware.rj.data.RObjectFactory;
 import de.walware.rj.data.RStore;
@@ -49,6 +50,9 @@ class FindManager {
 	private static final int FIND_ROW= 2;
 	private static final int FIND_ERROR= -1;
 	
+	/** Maximum number of runs of the match index */
+	private static final int MATCH_INDEX_MAX_RUNS= 1000000;
+	
 	
 	private class FindLock extends Lock implements LazyRStore.Updater<RObject> {
 		
@@ -125,6 +129,10 @@ class FindManager {
 	private long findTotalCount;
 	private long findFilteredCount;
 	private long findLastMatchIdx;
+	/** The index of all matches, if loaded */
+	private FindMatchIndex matchIndex;
+	/** If the index for the current state is not available (too large) */
+	private boolean matchIndexDisabled;
 	
 	private final FindLock lock= new FindLock();
 	private final LazyRStore<RObject> findStore;
@@ -171,6 +179,7 @@ class FindManager {
 				this.activeExpression= null;
 			}
 			this.findLastMatchIdx= -1;
+			clearMatchIndex();
 			
 			if (newState >= 0 && this.lock.state < Lock.ERROR_STATE) {
 				this.lock.state= newState;
@@ -191,6 +200,7 @@ class FindManager {
 				this.findFilteredCount= -1;
 			}
 			this.findLastMatchIdx= -1;
+			clearMatchIndex();
 			
 			if (this.lock.state < Lock.LOCAL_PAUSE_STATE) {
 				this.lock.state= Lock.LOCAL_PAUSE_STATE;
@@ -202,6 +212,14 @@ class FindManager {
 	}
 	
 	
+	/**
+	 * Requires the lock.
+	 */
+	private void clearMatchIndex() {
+		this.matchIndex= null;
+		this.matchIndexDisabled= false;
+	}
+	
 	public void find(final FindTask task) {
 		this.lock.lock();
 		try {
@@ -356,6 +374,7 @@ class FindManager {
 				this.findFilteredCount= filteredCount;
 				this.findStore.clear(filteredCount);
 				this.findLastMatchIdx= -1;
+				clearMatchIndex();
 				if (mode != FIND_ERROR && this.lock.state < Lock.PAUSE_STATE) {
 					this.lock.state= 0;
 				}
@@ -467,6 +486,8 @@ class FindManager {
 		long filteredCount;
 		long totalCount;
 		long globalMatchIdx;
+		FindMatchIndex matchIndex;
+		boolean loadMatchIndex;
 		this.lock.lock();
 		try {
 			task= this.scheduledTask;
@@ -474,6 +495,12 @@ class FindManager {
 			totalCount= this.findTotalCount;
 			filteredCount= this.findFilteredCount;
 			globalMatchIdx= this.findLastMatchIdx;
+			matchIndex= this.matchIndex;
+			if (matchIndex != null && task != null
+					&& mode == FIND_CELL && matchIndex.isFirstInRow() != task.firstInRow) {
+				matchIndex= null;
+			}
+			loadMatchIndex= (matchIndex == null && !this.matchIndexDisabled);
 			
 			if (task == null || !task.equals(this.currentTask)
 					|| this.lock.state == Lock.LOCAL_PAUSE_STATE) {
@@ -528,6 +555,25 @@ class FindManager {
 							(task.forward ? "next" : "previous"), filteredCount, totalCount })),
 					filteredCount, -1, -1 );
 		}
+		if (matchIndex == null && loadMatchIndex && r != null) {
+			matchIndex= loadMatchIndex(task, mode, r, monitor);
+			this.lock.lock();
+			try {
+				if (task != this.scheduledTask || this.lock.state > 0) {
+					return;
+				}
+				this.matchIndex= matchIndex;
+				this.matchIndexDisabled= (matchIndex == null);
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+		if (matchIndex != null) {
+			findMatch(task, matchIndex, filteredCount, totalCount);
+			return;
+		}
+		
 		if (globalMatchIdx >= filteredCount) {
 			globalMatchIdx= filteredCount - 1;
 		}
@@ -682,6 +728,100 @@ class FindManager {
 		}
 	}
 	
+	/**
+	 * Finds the match using the match index (without R).
+	 */
+	private void findMatch(final FindTask task, final FindMatchIndex matchIndex,
+			final long filteredCount, final long totalCount) {
+		long pos= matchIndex.toPos(task.rowIdx, task.columnIdx, task.forward);
+		while (true) {
+			pos= matchIndex.find(pos, task.forward);
+			if (pos < 0) {
+				notifyListeners(task, new StatusInfo(IStatus.INFO,
+						NLS.bind("No further match (total {0}/{1}).", filteredCount, totalCount)),
+						filteredCount, -1, -1 );
+				return;
+			}
+			final long posRow= matchIndex.getRowIdx(pos);
+			final long posCol= matchIndex.getColumnIdx(pos);
+			if (task.filter == null || task.filter.match(posRow, posCol)) {
+				final long globalMatchIdx= matchIndex.getMatchIdx(pos);
+				this.lock.lock();
+				try {
+					if (task != this.scheduledTask) {
+						return;
+					}
+					this.findLastMatchIdx= globalMatchIdx;
+				}
+				finally {
+					this.lock.unlock();
+				}
+				notifyListeners(task, new StatusInfo(IStatus.INFO,
+						NLS.bind("Match {0} (total {1}/{2}).", new Object[] {
+								(globalMatchIdx + 1), filteredCount, totalCount })),
+						filteredCount, posRow, posCol );
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Loads the run-length encoded index of all matches in the current order of the table.
+	 * 
+	 * @return the index or <code>null</code> if the matches are too fragmented
+	 */
+	private FindMatchIndex loadMatchIndex(final FindTask task, final int mode,
+			final IRToolService r, final IProgressMonitor monitor) throws CoreException, UnexpectedRDataException {
+		final String revIndexName= this.dataProvider.checkRevIndex(r, monitor);
+		final long rowCount= this.dataProvider.getRowCount();
+		final long columnCount= (mode == FIND_CELL) ? this.dataProvider.getColumnCount() : -1;
+		final RObject data;
+		{	final StringBuilder cmd= this.dataProvider.getRCmdStringBuilder();
+			cmd.append("local({");
+			cmd.append("x <- ").append(RJTmp.ENV+'$').append(this.rCacheFind).append("\n");
+			if (mode == FIND_CELL) {
+				if (revIndexName != null) {
+					cmd.append("x <- cbind(").append(RJTmp.ENV+'$').append(revIndexName).append("[x[,1L]], x[,2L])\n");
+					cmd.append("x <- na.omit(x)\n");
+				}
+				if (task.firstInRow) {
+					cmd.append("p <- (as.numeric(x[,1L]) - 1) * ").append(columnCount).append(" + (x[,2L] - 1)\n");
+				}
+				else {
+					cmd.append("p <- (as.numeric(x[,2L]) - 1) * ").append(rowCount).append(" + (x[,1L] - 1)\n");
+				}
+			}
+			else {
+				cmd.append("if (is.matrix(x)) x <- x[,1L]\n");
+				if (revIndexName != null) {
+					cmd.append("x <- na.omit(").append(RJTmp.ENV+'$').append(revIndexName).append("[x])\n");
+				}
+				cmd.append("p <- as.numeric(x) - 1\n");
+			}
+			cmd.append("p <- sort(p)\n");
+			cmd.append("b <- c(TRUE, diff(p) != 1)\n");
+			cmd.append("if (sum(b) > ").append(MATCH_INDEX_MAX_RUNS).append("L) NULL ");
+			cmd.append("else list(p[b], as.numeric(diff(c(which(b), length(p) + 1L))))\n");
+			cmd.append("})");
+			data= r.evalData(cmd.toString(), monitor);
+		}
+		if (data.getRObjectType() == RObject.TYPE_NULL) {
+			return null;
+		}
+		final RList list= RDataUtil.checkRList(data);
+		RDataUtil.checkLengthEqual(list, 2);
+		final RStore<?> startData= RDataUtil.checkRNumVector(list.get(0)).getData();
+		final RStore<?> lengthData= RDataUtil.checkRNumVector(list.get(1)).getData();
+		final int runCount= RDataUtil.checkIntLength(startData);
+		final long[] starts= new long[runCount];
+		final long[] lengths= new long[runCount];
+		for (int i= 0; i < runCount; i++) {
+			starts[i]= (long) startData.getNum(i);
+			lengths[i]= (long) lengthData.getNum(i);
+		}
+		return new FindMatchIndex(task.firstInRow, rowCount, columnCount, starts, lengths);
+	}
+	
 	private void notifyListeners(final FindTask task, final IStatus status, final long total,
 			final long rowIdx, final long colIdx) {
 		UIAccess.getDisplay().asyncExec(new Runnable() {
@@ -0,0 +1,173 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.internal.ui.dataeditor;
+
+import java.util.Arrays;
+
+
+/**
+ * Run-length encoded index of all matches of a find task in the current order (sorting and
+ * filter) of the table.
+ * 
+ * The matches are indexed by their linear position in the table: the row index for row
+ * matches, for cell matches depending on the search direction
+ * <code>rowIdx * columnCount + columnIdx</code> (first in row) or
+ * <code>columnIdx * rowCount + rowIdx</code>. Consecutive positions are stored as run.
+ */
+final class FindMatchIndex {
+	
+	
+	private final boolean firstInRow;
+	private final long rowCount;
+	private final long columnCount;
+	
+	/** start positions of the runs, sorted */
+	private final long[] starts;
+	/** number of matches before each run, the last element is the total count */
+	private final long[] counts;
+	
+	
+	/**
+	 * Creates a new index.
+	 * 
+	 * @param firstInRow the search direction (cells only)
+	 * @param rowCount the row count of the table
+	 * @param columnCount the column count of the table, <code>-1</code> for row matches
+	 * @param starts the start positions of the runs, sorted
+	 * @param lengths the lengths of the runs
+	 */
+	public FindMatchIndex(final boolean firstInRow, final long rowCount, final long columnCount,
+			final long[] starts, final long[] lengths) {
+		this.firstInRow= firstInRow;
+		this.rowCount= rowCount;
+		this.columnCount= columnCount;
+		this.starts= starts;
+		this.counts= new long[starts.length + 1];
+		for (int i= 0; i < starts.length; i++) {
+			this.counts[i + 1]= this.counts[i] + lengths[i];
+		}
+	}
+	
+	
+	public boolean isFirstInRow() {
+		return this.firstInRow;
+	}
+	
+	public long getMatchCount() {
+		return this.counts[this.starts.length];
+	}
+	
+	/**
+	 * Returns the start position for {@link #find(long, boolean)}.
+	 * 
+	 * If only the row is specified (cell matches), the position is set so that the search starts
+	 * at the first cell of the row (forward) or at the last cell before the row (backward). If
+	 * the cells are searched column by column, the forward search starts at the first match (like
+	 * the search without index).
+	 * 
+	 * @param rowIdx the row index of the current position, <code>-1</code> if not specified
+	 * @param columnIdx the column index of the current position, <code>-1</code> if not specified
+	 * @param forward the search direction
+	 * @return the position
+	 */
+	public long toPos(final long rowIdx, final long columnIdx, final boolean forward) {
+		if (rowIdx < 0) {
+			return -1;
+		}
+		if (this.columnCount < 0) {
+			return rowIdx;
+		}
+		if (columnIdx < 0) {
+			if (this.firstInRow) {
+				final long rowStart= rowIdx * this.columnCount;
+				return (forward) ? rowStart - 1 : rowStart;
+			}
+			return (forward) ? -1 : rowIdx;
+		}
+		return (this.firstInRow) ?
+				rowIdx * this.columnCount + columnIdx :
+				columnIdx * this.rowCount + rowIdx;
+	}
+	
+	public long getRowIdx(final long pos) {
+		if (this.columnCount < 0) {
+			return pos;
+		}
+		return (this.firstInRow) ? pos / this.columnCount : pos % this.rowCount;
+	}
+	
+	public long getColumnIdx(final long pos) {
+		if (this.columnCount < 0) {
+			return -1;
+		}
+		return (this.firstInRow) ? pos % this.columnCount : pos / this.rowCount;
+	}
+	
+	/**
+	 * Returns the index of the run containing or preceding the specified position.
+	 * 
+	 * @return the run index or <code>-1</code> if the position is before the first run
+	 */
+	private int getRun(final long pos) {
+		final int idx= Arrays.binarySearch(this.starts, pos);
+		return (idx >= 0) ? idx : -(idx + 1) - 1;
+	}
+	
+	private long getRunEnd(final int run) {
+		return this.starts[run] + (this.counts[run + 1] - this.counts[run]);
+	}
+	
+	/**
+	 * Returns the position of the next match after or the previous match before the specified
+	 * position.
+	 * 
+	 * @param pos the current position
+	 * @param forward the search direction
+	 * @return the position of the match or <code>-1</code> if there is no further match
+	 */
+	public long find(final long pos, final boolean forward) {
+		if (this.starts.length == 0) {
+			return -1;
+		}
+		if (forward) {
+			final long next= pos + 1;
+			final int run= getRun(next);
+			if (run >= 0 && next < getRunEnd(run)) {
+				return next;
+			}
+			return (run + 1 < this.starts.length) ? this.starts[run + 1] : -1;
+		}
+		else {
+			final long previous= pos - 1;
+			if (previous < 0) {
+				return -1;
+			}
+			final int run= getRun(previous);
+			if (run < 0) {
+				return -1;
+			}
+			return Math.min(previous, getRunEnd(run) - 1);
+		}
+	}
+	
+	/**
+	 * Returns the index of the match at the specified position in the list of all matches.
+	 * 
+	 * @param pos the position of a match
+	 * @return the match index
+	 */
+	public long getMatchIdx(final long pos) {
+		final int run= getRun(pos);
+		return this.counts[run] + (pos - this.starts[run]);
+	}
+	
+}
@@ -0,0 +1,97 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.internal.ui.dataeditor;
+
+import java.util.Arrays;
+
+
+/**
+ * Direct-mapped cache for the formatted display values of cells.
+ * 
+ * The cache is sized to hold the cells of the visible area of the table, so repeated paints
+ * don't need to box and format the values again. Entries are keyed by the cell index and the
+ * formatter used including the stamp of its format (see {@link RDataFormatter#getFormatStamp()});
+ * the cache is invalidated completely if the data stamp of the provider changes
+ * (see {@link AbstractRDataProvider#getDataStamp()}).
+ * 
+ * The cache is not thread-safe, it is intended to be used in the display thread only.
+ */
+final class FormattedCellCache {
+	
+	
+	private static final int SIZE= 0x2000;
+	private static final int MASK= SIZE - 1;
+	
+	
+	private final long[] columnIdxs= new long[SIZE];
+	private final long[] rowIdxs= new long[SIZE];
+	private final RDataFormatter[] formatters= new RDataFormatter[SIZE];
+	private final int[] formatStamps= new int[SIZE];
+	private final Object[] values= new Object[SIZE];
+	
+	private int stamp= -1;
+	
+	
+	public FormattedCellCache() {
+	}
+	
+	
+	private static int hash(final long columnIdx, final long rowIdx) {
+		final long h= (rowIdx * 0x9E3779B97F4A7C15L) ^ (columnIdx * 0xC2B2AE3D27D4EB4FL);
+		return (int) (h ^ (h >>> 29)) & MASK;
+	}
+	
+	/**
+	 * Returns the cached display value of the specified cell.
+	 * 
+	 * @param stamp the current data stamp
+	 * @param columnIdx the column index
+	 * @param rowIdx the row index
+	 * @param formatter the formatter for the cell
+	 * @return the display value or <code>null</code> if not cached
+	 */
+	public Object get(final int stamp, final long columnIdx, final long rowIdx,
+			final RDataFormatter formatter) {
+		if (stamp != this.stamp) {
+			Arrays.fill(this.values, null);
+			Arrays.fill(this.formatters, null);
+			this.stamp= stamp;
+			return null;
+		}
+		final int idx= hash(columnIdx, rowIdx);
+		if (this.formatters[idx] == formatter && this.formatStamps[idx] == formatter.getFormatStamp()
+				&& this.rowIdxs[idx] == rowIdx && this.columnIdxs[idx] == columnIdx) {
+			return this.values[idx];
+		}
+		return null;
+	}
+	
+	/**
+	 * Adds the display value of the specified cell, replacing the entry of another cell mapped
+	 * to the same slot.
+	 * 
+	 * @param columnIdx the column index
+	 * @param rowIdx the row index
+	 * @param formatter the formatter for the cell
+	 * @param value the display value
+	 */
+	public void put(final long columnIdx, final long rowIdx,
+			final RDataFormatter formatter, final Object value) {
+		final int idx= hash(columnIdx, rowIdx);
+		this.columnIdxs[idx]= columnIdx;
+		this.rowIdxs[idx]= rowIdx;
+		this.formatters[idx]= formatter;
+		this.formatStamps[idx]= formatter.getFormatStamp();
+		this.values[idx]= value;
+	}
+	
+}
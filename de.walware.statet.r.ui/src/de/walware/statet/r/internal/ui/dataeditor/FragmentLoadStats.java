@@ -0,0 +1,147 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.internal.ui.dataeditor;
+
+import java.util.List;
+
+import de.walware.rj.data.RStore;
+import de.walware.rj.services.utils.dataaccess.LazyRStore;
+
+import de.walware.statet.r.ui.dataeditor.RDataTableColumn;
+
+
+/**
+ * Statistics about the loading of data fragments, used to adapt the size and the number of the
+ * fragments of the data store.
+ * 
+ * The fragment size (number of cells) is chosen so that loading a fragment takes about
+ * {@link #TARGET_LOAD_NANOS}; the number of fragments is bounded by {@link #MEMORY_BUDGET}.
+ */
+final class FragmentLoadStats {
+	
+	
+	static final int MIN_FRAGMENT_SIZE= LazyRStore.DEFAULT_FRAGMENT_SIZE / 2;
+	static final int MAX_FRAGMENT_SIZE= LazyRStore.DEFAULT_FRAGMENT_SIZE * 16;
+	
+	static final int MIN_FRAGMENT_COUNT= 10;
+	static final int MAX_FRAGMENT_COUNT= 200;
+	
+	private static final long TARGET_LOAD_NANOS= 100_000000;
+	
+	private static final long MEMORY_BUDGET= 32L * 1024 * 1024;
+	
+	/** Weight of a new sample in the moving averages */
+	private static final double SAMPLE_WEIGHT= 0.25;
+	
+	
+	private static int estimateBytesPerCell(final int storeType, final RDataTableColumn column) {
+		switch (storeType) {
+		case RStore.RAW:
+			return 1;
+		case RStore.LOGICAL:
+		case RStore.INTEGER:
+		case RStore.FACTOR:
+			return 4;
+		case RStore.NUMERIC:
+			return 8;
+		case RStore.COMPLEX:
+			return 16;
+		case RStore.CHARACTER:
+			return 40 + 2 * ((column.getDefaultFormat() != null) ?
+					column.getDefaultFormat().getAutoWidth() : 8 );
+		default:
+			return 8;
+		}
+	}
+	
+	
+	private int bytesPerCell= 8;
+	
+	private double nanosPerCell;
+	private double latencyNanos;
+	private int sampleCount;
+	
+	
+	public FragmentLoadStats() {
+	}
+	
+	
+	/**
+	 * Updates the estimated memory size of a cell by the columns of the table.
+	 * 
+	 * @param columns the data columns
+	 */
+	public void setColumns(final List<RDataTableColumn> columns) {
+		if (columns == null || columns.isEmpty()) {
+			return;
+		}
+		long sum= 0;
+		for (final RDataTableColumn column : columns) {
+			sum+= estimateBytesPerCell(column.getDataStore().getStoreType(), column);
+		}
+		this.bytesPerCell= (int) Math.max(sum / columns.size(), 1);
+	}
+	
+	/**
+	 * Adds a sample for a loaded fragment.
+	 * 
+	 * @param cellCount the number of cells of the fragment
+	 * @param nanos the time required to load the fragment
+	 */
+	public void addSample(final long cellCount, final long nanos) {
+		if (cellCount <= 0 || nanos <= 0) {
+			return;
+		}
+		final double sampleNanosPerCell= (double) nanos / cellCount;
+		if (this.sampleCount == 0) {
+			this.nanosPerCell= sampleNanosPerCell;
+			this.latencyNanos= nanos;
+		}
+		else {
+			this.nanosPerCell+= SAMPLE_WEIGHT * (sampleNanosPerCell - this.nanosPerCell);
+			// the fastest load is dominated by the round-trip latency
+			this.latencyNanos= Math.min(this.latencyNanos, nanos);
+		}
+		this.sampleCount++;
+	}
+	
+	/**
+	 * Returns the recommended fragment size in cells.
+	 * 
+	 * @param currentSize the current fragment size
+	 * @return the fragment size
+	 */
+	public int getFragmentSize(final int currentSize) {
+		if (this.sampleCount < 4) {
+			return currentSize;
+		}
+		final double transferNanosPerCell= Math.max(this.nanosPerCell - this.latencyNanos / currentSize,
+				this.nanosPerCell / 10 );
+		final long size= (long) ((TARGET_LOAD_NANOS - Math.min(this.latencyNanos, TARGET_LOAD_NANOS / 2))
+				/ transferNanosPerCell );
+		final int newSize= (int) Math.max(MIN_FRAGMENT_SIZE, Math.min(size, MAX_FRAGMENT_SIZE));
+		// change only for significant differences
+		return (newSize >= currentSize * 2 || newSize <= currentSize / 2) ? newSize : currentSize;
+	}
+	
+	/**
+	 * Returns the maximum number of fragments to hold for the specified fragment size.
+	 * 
+	 * @param fragmentSize the fragment size in cells
+	 * @return the maximum fragment count
+	 */
+	public int getMaxFragmentCount(final int fragmentSize) {
+		final long count= MEMORY_BUDGET / ((long) fragmentSize * this.bytesPerCell);
+		return (int) Math.max(MIN_FRAGMENT_COUNT, Math.min(count, MAX_FRAGMENT_COUNT));
+	}
+	
+}
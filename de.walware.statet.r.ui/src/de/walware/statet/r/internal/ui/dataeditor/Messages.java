@@ -0,0 +1,32 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.internal.ui.dataeditor;
+
+import org.eclipse.osgi.util.NLS;
+
+
+public class Messages extends NLS {
+	
+	
+	public static String ExportData_Dialog_title;
+	public static String ExportData_Dialog_CSV_label;
+	public static String ExportData_Dialog_TSV_label;
+	public static String ExportData_task_label;
+	public static String ExportData_error_message;
+	
+	
+	static {
+		NLS.initializeMessages(Messages.class.getName(), Messages.class);
+	}
+	private Messages() {}
+	
+}
@@ -55,6 +55,9 @@ import de.walware.statet.r.ui.dataeditor.RLiveDataEditorInput;
 public class RDataEditor extends EditorPart { // INavigationLocationProvider ?
 	
 	
+	public static final String EXPORT_DATA_COMMAND_ID= "de.walware.statet.r.commands.ExportData"; //$NON-NLS-1$
+	
+	
 	private class ActivationListener implements IPartListener {
 		
 		@Override
@@ -263,6 +266,10 @@ public class RDataEditor extends EditorPart { // INavigationLocationProvider ?
 			handlers.add(IWorkbenchCommandConstants.EDIT_COPY, handler);
 			handlerService.activateHandler(IWorkbenchCommandConstants.EDIT_COPY, handler);
 		}
+		{	final IHandler2 handler= new ExportDataHandler(this.table);
+			handlers.add(EXPORT_DATA_COMMAND_ID, handler);
+			handlerService.activateHandler(EXPORT_DATA_COMMAND_ID, handler);
+		}
 		{	final IHandler2 handler= new FindDialogHandler(this);
 			handlers.add(IWorkbenchCommandConstants.EDIT_FIND_AND_REPLACE, handler);
 			handlerService.activateHandler(IWorkbenchCommandConstants.EDIT_FIND_AND_REPLACE, handler);
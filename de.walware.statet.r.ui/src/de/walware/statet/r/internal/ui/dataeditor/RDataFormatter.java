@@ -54,6 +54,8 @@ public class RDataFormatter {
 	
 	private int fAutoWidth= -1;
 	
+	private int fFormatStamp;
+	
 	
 	
 	public RDataFormatter() {
@@ -61,6 +63,7 @@ public class RDataFormatter {
 	
 	
 	protected void clean() {
+		this.fFormatStamp++;
 		this.fNumFormat= null;
 		this.fMathContext= null;
 		this.fDateFormat= null;
@@ -289,6 +292,7 @@ public class RDataFormatter {
 			throw new IllegalStateException();
 		}
 		this.fDateFormat.setTimeZone(zone);
+		this.fFormatStamp++;
 	}
 	
 	public void initFactorLevels(final RCharacterStore levels) {
@@ -302,6 +306,16 @@ public class RDataFormatter {
 	}
 	
 	
+	/**
+	 * Returns the stamp of the format settings, changed each time the format is changed.
+	 * 
+	 * @return the stamp
+	 */
+	public int getFormatStamp() {
+		return this.fFormatStamp;
+	}
+	
+	
 	public void setAutoWidth(final int width) {
 		this.fAutoWidth= width;
 	}
@@ -15,6 +15,7 @@ import java.util.List;
 
 import de.walware.ecommons.waltable.config.IConfigRegistry;
 import de.walware.ecommons.waltable.coordinate.Orientation;
+import de.walware.ecommons.waltable.data.ControlData;
 import de.walware.ecommons.waltable.data.convert.IDisplayConverter;
 import de.walware.ecommons.waltable.layer.cell.ILayerCell;
 
@@ -49,6 +50,8 @@ public class RDataFormatterConverter implements IDisplayConverter {
 	
 	RDataFormatter fFallbackFormatter;
 	
+	private final FormattedCellCache cellCache= new FormattedCellCache();
+	
 	
 	public RDataFormatterConverter(final AbstractRDataProvider<?> dataProvider) {
 		this.fDataProvider= dataProvider;
@@ -90,6 +93,33 @@ public class RDataFormatterConverter implements IDisplayConverter {
 		return getFormatter(cell).modelToDisplayValue(canonicalValue);
 	}
 	
+	/**
+	 * Returns the display value of the specified cell.
+	 * 
+	 * In contrast to {@link #canonicalToDisplayValue(ILayerCell, IConfigRegistry, Object)} the
+	 * formatted values of the cells are cached, so the data value of the cell is requested and
+	 * formatted only if it is not yet cached. Must be called in the display thread.
+	 * 
+	 * @param cell the cell
+	 * @param configRegistry the config registry
+	 * @return the display value
+	 */
+	public Object getDisplayValue(final ILayerCell cell, final IConfigRegistry configRegistry) {
+		final RDataFormatter formatter= getFormatter(cell);
+		final long columnIdx= getColumnIndex(cell);
+		final long rowIdx= cell.getDim(Orientation.VERTICAL).getId();
+		Object displayValue= this.cellCache.get(this.fDataProvider.getDataStamp(),
+				columnIdx, rowIdx, formatter );
+		if (displayValue == null) {
+			final Object canonicalValue= cell.getDataValue(0, null);
+			displayValue= formatter.modelToDisplayValue(canonicalValue);
+			if (!(canonicalValue instanceof ControlData)) { // loading, error
+				this.cellCache.put(columnIdx, rowIdx, formatter, displayValue);
+			}
+		}
+		return displayValue;
+	}
+	
 	@Override
 	public Object displayToCanonicalValue(final ILayerCell cell, final IConfigRegistry configRegistry,
 			final Object displayValue) {
@@ -19,6 +19,8 @@ import de.walware.jcommons.collections.ImCollections;
 import de.walware.ecommons.waltable.data.IDataProvider;
 
 import de.walware.rj.data.RDataFrame;
+import de.walware.rj.data.RDataUtil;
+import de.walware.rj.data.RList;
 import de.walware.rj.data.UnexpectedRDataException;
 import de.walware.rj.eclient.IRToolService;
 import de.walware.rj.services.utils.dataaccess.LazyRStore;
@@ -50,12 +52,20 @@ public class RDataFrameDataProvider extends AbstractRDataProvider<RDataFrame> {
 				createNamesColumn("attr(" + getInput().getFullName() + ", 'row.names', exact= TRUE)", //$NON-NLS-1$ //$NON-NLS-2$
 						struct.getRowCount(), r, monitor ));
 		final RDataTableColumn[] dataColumns= new RDataTableColumn[columnCount];
+		RList columnInfos= null;
+		int columnInfosBegin= 0;
 		for (int i= 0; i < columnCount; i++) {
+			if (columnInfos == null || i - columnInfosBegin >= COLUMN_INFO_BATCH_SIZE) {
+				columnInfosBegin= i;
+				columnInfos= loadColumnInfos(getInput().getFullName(),
+						i, Math.min(i + COLUMN_INFO_BATCH_SIZE, columnCount), r, monitor );
+			}
 			final String columnName= struct.getColumnNames().getChar(i);
 			final RElementName elementName= RElementName.create(ImCollections.newList(BASE_NAME,
 					RElementName.create(RElementName.SUB_NAMEDPART, columnName, i+1 )));
 			dataColumns[i]= createColumn(struct.getColumn(i),
 					getInput().getFullName() + "[[" + (i+1) + "]]", elementName, i, columnName,
+					RDataUtil.checkRList(columnInfos.get(i - columnInfosBegin)),
 					r, monitor);
 		}
 		description.setDataColumns(dataColumns);
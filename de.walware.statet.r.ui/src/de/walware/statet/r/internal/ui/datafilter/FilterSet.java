@@ -28,7 +28,10 @@ import de.walware.ecommons.ts.ITool;
 import de.walware.ecommons.ts.IToolRunnable;
 import de.walware.ecommons.ts.IToolService;
 
+import de.walware.rj.data.RDataUtil;
 import de.walware.rj.data.RFactorStore;
+import de.walware.rj.data.RList;
+import de.walware.rj.data.RObject;
 import de.walware.rj.data.UnexpectedRDataException;
 import de.walware.rj.eclient.IRToolService;
 
@@ -42,6 +45,9 @@ public class FilterSet {
 	
 	private final static int POST_DELAY = 400;
 	
+	/** Delay (millis) to combine changes of filters into one update */
+	private final static int UPDATE_DELAY = 200;
+	
 	private final static int STD_DELAY = 1;
 	private final static int NO_DELAY = 2;
 	
@@ -94,6 +100,22 @@ public class FilterSet {
 		
 	};
 	private boolean fUpdateAll;
+	private boolean fUpdateDelayed;
+	private long fUpdateRequestTime;
+	private final Runnable fUpdateDelayRunnable = new Runnable() {
+		@Override
+		public void run() {
+			synchronized (fUpdateLock) {
+				final long time = fUpdateRequestTime + UPDATE_DELAY - System.currentTimeMillis();
+				if (time > 10) {
+					fRealm.timerExec((int) time, this);
+					return;
+				}
+				fUpdateDelayed = false;
+				scheduleUpdate();
+			}
+		}
+	};
 	
 	private final List<VariableFilter> fFilters= new ArrayList<>();
 	private final List<String> fFilterNames= new ArrayList<>();
@@ -322,18 +344,42 @@ public class FilterSet {
 	}
 	
 	
+	/**
+	 * Schedules the update of the filter data.
+	 * 
+	 * Updates of single filters are delayed by {@link #UPDATE_DELAY} since the last request, so
+	 * that a sequence of changes results in a single update.
+	 * 
+	 * @param all if the data of all filters should be updated
+	 */
 	protected void scheduleUpdate(final boolean all) {
 		synchronized (fUpdateLock) {
 			if (all) {
 				fUpdateAll = true;
-			}
-			if (fUpdateScheduled || fInputUpdate) {
+				scheduleUpdate();
 				return;
 			}
-			if (fInput != null) {
-				fInput.getRHandle().getQueue().add(fUpdateRunnable);
-				fUpdateScheduled = true;
+			fUpdateRequestTime = System.currentTimeMillis();
+			if (fUpdateDelayed) {
+				return;
 			}
+			fUpdateDelayed = true;
+			runInRealm(new Runnable() {
+				@Override
+				public void run() {
+					fRealm.timerExec(UPDATE_DELAY, fUpdateDelayRunnable);
+				}
+			});
+		}
+	}
+	
+	private void scheduleUpdate() {
+		if (fUpdateScheduled || fInputUpdate) {
+			return;
+		}
+		if (fInput != null) {
+			fInput.getRHandle().getQueue().add(fUpdateRunnable);
+			fUpdateScheduled = true;
 		}
 	}
 	
@@ -356,23 +402,58 @@ public class FilterSet {
 		synchronized (this) {
 			filters = fFilters.toArray(new VariableFilter[fFilters.size()]);
 		}
+		
+		// evaluate the updates of all filters in a single call
+		final VariableFilter[] updateFilters = new VariableFilter[filters.length];
+		int updateCount = 0;
+		final StringBuilder sb = new StringBuilder("base::list("); //$NON-NLS-1$
 		for (int i = 0; i < filters.length; i++) {
 			final VariableFilter filter = filters[i];
 			if (all || filter.fUpdateScheduled) {
 				filter.fUpdateScheduled = false;
-				Exception error = null;
-				try {
-					filter.update(r, monitor);
+				final String rExpression = filter.prepareUpdate();
+				if (rExpression == null) {
+					continue;
 				}
-				catch (final CoreException e) {
-					error = e;
+				if (updateCount > 0) {
+					sb.append(", "); //$NON-NLS-1$
 				}
-				catch (final UnexpectedRDataException e) {
-					error = e;
+				// errors of single filters are returned as message
+				sb.append("base::tryCatch(base::list("); //$NON-NLS-1$
+				sb.append(rExpression);
+				sb.append("), error= function(e) base::conditionMessage(e))"); //$NON-NLS-1$
+				updateFilters[updateCount++] = filter;
+			}
+		}
+		sb.append(')');
+		
+		if (updateCount > 0) {
+			RList data = null;
+			try {
+				data = RDataUtil.checkRList(r.evalData(sb.toString(), monitor));
+				RDataUtil.checkLengthEqual(data, updateCount);
+			}
+			catch (final CoreException | UnexpectedRDataException e) {
+				e.printStackTrace();
+				for (int i = 0; i < updateCount; i++) {
+					updateFilters[i].setError(e.getMessage());
 				}
-				if (error != null) {
-					error.printStackTrace();
-					filters[i].setError(error.getMessage());
+			}
+			if (data != null) {
+				for (int i = 0; i < updateCount; i++) {
+					try {
+						final RObject result = data.get(i);
+						if (result.getRObjectType() == RObject.TYPE_LIST) {
+							updateFilters[i].processUpdate(((RList) result).get(0));
+						}
+						else {
+							updateFilters[i].setError(RDataUtil.checkSingleCharValue(result));
+						}
+					}
+					catch (final UnexpectedRDataException e) {
+						e.printStackTrace();
+						updateFilters[i].setError(e.getMessage());
+					}
 				}
 			}
 		}
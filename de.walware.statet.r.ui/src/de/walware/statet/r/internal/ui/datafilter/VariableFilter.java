@@ -18,12 +18,10 @@ import org.eclipse.core.databinding.observable.set.SetChangeEvent;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
 import org.eclipse.core.databinding.observable.value.IValueChangeListener;
 import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
-import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.IProgressMonitor;
 
+import de.walware.rj.data.RObject;
 import de.walware.rj.data.UnexpectedRDataException;
 import de.walware.rj.data.defaultImpl.RCharacterDataImpl;
-import de.walware.rj.eclient.IRToolService;
 
 import de.walware.statet.r.ui.dataeditor.RDataTableColumn;
 
@@ -122,8 +120,21 @@ public abstract class VariableFilter {
 		fListener = listener;
 	}
 	
-	protected abstract void update(IRToolService r,
-			IProgressMonitor monitor) throws CoreException, UnexpectedRDataException;
+	/**
+	 * Prepares the update of the filter data.
+	 * 
+	 * The expressions of all filters to update are evaluated by the filter set in a single call.
+	 * 
+	 * @return the R expression to evaluate or <code>null</code> if no update is required
+	 */
+	protected abstract String prepareUpdate();
+	
+	/**
+	 * Processes the result of the R expression returned by {@link #prepareUpdate()}.
+	 * 
+	 * @param data the result
+	 */
+	protected abstract void processUpdate(RObject data) throws UnexpectedRDataException;
 	
 	protected void notifyListeners() {
 		if (fListener != null) {
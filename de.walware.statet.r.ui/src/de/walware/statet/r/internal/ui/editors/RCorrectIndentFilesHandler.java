@@ -0,0 +1,214 @@
+/*=============================================================================#
+ # Copyright (c) 2016 Stephan Wahlbrink (WalWare.de) and others.
+ # All rights reserved. This program and the accompanying materials
+ # are made available under the terms of the Eclipse Public License v1.0
+ # which accompanies this distribution, and is available at
+ # http://www.eclipse.org/legal/epl-v10.html
+ # 
+ # Contributors:
+ #     Stephan Wahlbrink - initial API and implementation
+ #=============================================================================*/
+
+package de.walware.statet.r.internal.ui.editors;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceRuleFactory;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.resources.WorkspaceJob;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.osgi.util.NLS;
+
+import de.walware.ecommons.ICommonStatusConstants;
+import de.walware.ecommons.ltk.LTK;
+import de.walware.ecommons.ltk.core.model.ISourceUnit;
+import de.walware.ecommons.ltk.ui.util.LTKSelectionUtil;
+import de.walware.ecommons.workbench.ui.WorkbenchUIUtil;
+
+import de.walware.statet.r.core.IRCoreAccess;
+import de.walware.statet.r.core.IRProject;
+import de.walware.statet.r.core.RCore;
+import de.walware.statet.r.core.RProjects;
+import de.walware.statet.r.core.model.RModel;
+import de.walware.statet.r.core.rsource.RSourceBatchIndenter;
+import de.walware.statet.r.internal.ui.RUIMessages;
+import de.walware.statet.r.ui.RUI;
+
+
+/**
+ * Command handler to correct the indentation of the complete code of the selected R files.
+ * 
+ * The files are indented in a background job using the {@link RSourceBatchIndenter}. Files open
+ * in an editor are skipped; their indentation can be corrected in the editor.
+ */
+public class RCorrectIndentFilesHandler extends AbstractHandler {
+	
+	
+	private static class CorrectIndentJob extends WorkspaceJob {
+		
+		
+		private final List<IFile> files;
+		
+		
+		public CorrectIndentJob(final List<IFile> files) {
+			super(RUIMessages.CorrectIndent_Files_task_label);
+			this.files= files;
+			
+			final IResourceRuleFactory ruleFactory= ResourcesPlugin.getWorkspace().getRuleFactory();
+			final ISchedulingRule[] rules= new ISchedulingRule[files.size()];
+			for (int i= 0; i < rules.length; i++) {
+				rules[i]= ruleFactory.modifyRule(files.get(i));
+			}
+			setRule(MultiRule.combine(rules));
+			setUser(true);
+		}
+		
+		
+		@Override
+		public IStatus runInWorkspace(final IProgressMonitor monitor) throws CoreException {
+			final SubMonitor progress= SubMonitor.convert(monitor, this.files.size() * 3);
+			
+			// group the files by the code style of their project
+			final Set<IResource> openFiles= getOpenFiles();
+			final Map<IRCoreAccess, List<IFile>> groups= new LinkedHashMap<>();
+			for (final IFile file : this.files) {
+				if (openFiles.contains(file) || !file.exists()) {
+					continue;
+				}
+				final IRProject rProject= RProjects.getRProject(file.getProject());
+				final IRCoreAccess coreAccess= (rProject != null) ? rProject : RCore.getWorkbenchAccess();
+				List<IFile> group= groups.get(coreAccess);
+				if (group == null) {
+					group= new ArrayList<>();
+					groups.put(coreAccess, group);
+				}
+				group.add(file);
+			}
+			
+			for (final Map.Entry<IRCoreAccess, List<IFile>> group : groups.entrySet()) {
+				final List<IFile> files= group.getValue();
+				final List<String> sources= new ArrayList<>(files.size());
+				for (final IFile file : files) {
+					sources.add(readFile(file));
+					progress.worked(1);
+				}
+				
+				final List<String> results= new RSourceBatchIndenter(group.getKey())
+						.indent(sources, progress.newChild(files.size()));
+				
+				for (int i= 0; i < files.size(); i++) {
+					final String result= results.get(i);
+					if (result.equals(sources.get(i))) {
+						progress.worked(1);
+						continue;
+					}
+					writeFile(files.get(i), result, progress.newChild(1));
+				}
+			}
+			return Status.OK_STATUS;
+		}
+		
+		private Set<IResource> getOpenFiles() {
+			final List<? extends ISourceUnit> sus= LTK.getSourceUnitManager().getOpenSourceUnits(
+					RModel.TYPE_ID, LTK.EDITOR_CONTEXT );
+			final Set<IResource> files= new HashSet<>(sus.size());
+			for (final ISourceUnit su : sus) {
+				final Object resource= su.getResource();
+				if (resource instanceof IResource) {
+					files.add((IResource) resource);
+				}
+			}
+			return files;
+		}
+		
+		private String readFile(final IFile file) throws CoreException {
+			InputStream input= null;
+			try {
+				input= file.getContents();
+				final BufferedReader reader= new BufferedReader(new InputStreamReader(input, file.getCharset()));
+				
+				final StringBuilder text= new StringBuilder(0x1000);
+				final char[] readBuffer= new char[0x2000];
+				int n;
+				while ((n= reader.read(readBuffer)) > 0) {
+					text.append(readBuffer, 0, n);
+				}
+				return text.toString();
+			}
+			catch (final IOException e) {
+				throw new CoreException(new Status(IStatus.ERROR, RUI.PLUGIN_ID,
+						ICommonStatusConstants.IO_ERROR,
+						NLS.bind(RUIMessages.CorrectIndent_Files_error_Reading_message,
+								file.getFullPath().toString() ),
+						e ));
+			}
+			finally {
+				if (input != null) {
+					try {
+						input.close();
+					} catch (final IOException ignore) {}
+				}
+			}
+		}
+		
+		private void writeFile(final IFile file, final String text,
+				final IProgressMonitor monitor) throws CoreException {
+			try {
+				file.setContents(new ByteArrayInputStream(text.getBytes(file.getCharset())),
+						IResource.KEEP_HISTORY, monitor );
+			}
+			catch (final IOException e) {
+				throw new CoreException(new Status(IStatus.ERROR, RUI.PLUGIN_ID,
+						ICommonStatusConstants.IO_ERROR,
+						NLS.bind(RUIMessages.CorrectIndent_Files_error_Writing_message,
+								file.getFullPath().toString() ),
+						e ));
+			}
+		}
+		
+	}
+	
+	
+	public RCorrectIndentFilesHandler() {
+	}
+	
+	
+	@Override
+	public Object execute(final ExecutionEvent event) throws ExecutionException {
+		final ISelection selection= WorkbenchUIUtil.getCurrentSelection(event.getApplicationContext());
+		final IFile[] files= LTKSelectionUtil.getSelectedFiles(selection);
+		if (files != null && files.length > 0) {
+			final List<IFile> list= new ArrayList<>(files.length);
+			for (final IFile file : files) {
+				if (!list.contains(file)) {
+					list.add(file);
+				}
+			}
+			new CorrectIndentJob(list).schedule();
+		}
+		return null;
+	}
+	
+}
@@ -33,17 +33,23 @@ import de.walware.ecommons.waltable.style.VerticalAlignmentEnum;
 import de.walware.ecommons.waltable.swt.SWTUtil;
 import de.walware.ecommons.waltable.util.GUIHelper;
 
+import de.walware.statet.r.internal.ui.dataeditor.RDataFormatterConverter;
+
 
 public class RTextPainter extends AbstractTextPainter {
 	
 	
 	/**
 	 * Convert the data value of the cell using the {@link IDisplayConverter} from the {@link IConfigRegistry}
+	 * (for {@link RDataFormatterConverter} using its cache of formatted values)
 	 */
 	private static Object getData(final ILayerCell cell, final IConfigRegistry configRegistry) {
 		final IDisplayConverter displayConverter= configRegistry.getConfigAttribute(
 				CellConfigAttributes.DISPLAY_CONVERTER, cell.getDisplayMode(),
 				cell.getConfigLabels().getLabels() );
+		if (displayConverter instanceof RDataFormatterConverter) {
+			return ((RDataFormatterConverter) displayConverter).getDisplayValue(cell, configRegistry);
+		}
 		return (displayConverter != null) ?
 				displayConverter.canonicalToDisplayValue(cell, configRegistry, cell.getDataValue(0, null)) : EMPTY;
 	}
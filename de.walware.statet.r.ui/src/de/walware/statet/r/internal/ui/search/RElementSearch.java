@@ -33,6 +33,7 @@ import de.walware.statet.r.core.model.IRModelManager;
 import de.walware.statet.r.core.model.IRSourceUnit;
 import de.walware.statet.r.core.model.RElementAccess;
 import de.walware.statet.r.core.model.RElementName;
+import de.walware.statet.r.core.model.RIndexedAccesses;
 import de.walware.statet.r.core.model.RModel;
 import de.walware.statet.r.core.refactoring.RElementSearchProcessor;
 import de.walware.statet.r.core.rsource.ast.RAst;
@@ -91,6 +92,34 @@ public class RElementSearch extends RElementSearchProcessor {
 				bestUnit= sourceUnit;
 			}
 			
+			final RIndexedAccesses indexedAccesses= (this.name.getNextSegment() == null) ?
+					getIndexedAccesses(sourceUnit) : null;
+			if (indexedAccesses != null) {
+				final SourceContent content= sourceUnit.getContent(progress.newChild(1));
+				final Map<Integer, LineElement<IRSourceUnit>> lineElements= new HashMap<>();
+				
+				for (final String frameId : this.definitionFrameIds) {
+					final int[] accesses= indexedAccesses.getAccesses(frameId);
+					if (accesses == null) {
+						continue;
+					}
+					for (int idx= 0; idx < accesses.length; idx+= RIndexedAccesses.ENTRY_SIZE) {
+						final int flags= accesses[idx + RIndexedAccesses.FLAGS_IDX];
+						if ((flags & RIndexedAccesses.ACCESS_MASTER) == 0
+								|| (searchWrite() && (flags & RIndexedAccesses.ACCESS_WRITE) == 0) ) {
+							continue;
+						}
+						final int offset= accesses[idx + RIndexedAccesses.OFFSET_IDX];
+						this.result.addMatch(new RElementMatch(
+								getLineElement(lineElements, bestUnit, content, offset),
+								offset, accesses[idx + RIndexedAccesses.LENGTH_IDX],
+								((flags & (RIndexedAccesses.ACCESS_WRITE | RIndexedAccesses.ACCESS_SUB)) == RIndexedAccesses.ACCESS_WRITE) ));
+					}
+				}
+				progress.setWorkRemaining(1);
+				return;
+			}
+			
 			final IRModelInfo modelInfo= (IRModelInfo) sourceUnit.getModelInfo(RModel.R_TYPE_ID,
 					IRModelManager.MODEL_FILE, progress.newChild(1) );
 			final SourceContent content= sourceUnit.getContent(progress.newChild(1));
@@ -113,8 +142,6 @@ public class RElementSearch extends RElementSearchProcessor {
 				}
 			}
 			
-			final String contentText= content.getText();
-			final ILineInformation lineInformation= content.getLines();
 			final Map<Integer, LineElement<IRSourceUnit>> lineElements= new HashMap<>();
 			
 			for (final List<? extends RElementAccess> allAccess : allFrameAccess) {
@@ -124,17 +151,8 @@ public class RElementSearch extends RElementSearchProcessor {
 						final RAstNode nameNode= access.getNameNode();
 						final IRegion nameRegion= RAst.getElementNameRegion(nameNode);
 						
-						final Integer lineNumber= Integer.valueOf(
-								lineInformation.getLineOfOffset(nameRegion.getOffset()) );
-						LineElement<IRSourceUnit> lineElement= lineElements.get(lineNumber);
-						if (lineElement == null) {
-							final int lineOffset= lineInformation.getLineOffset(lineNumber);
-							lineElement= new LineElement<>(bestUnit, lineNumber, lineOffset,
-									getContent(contentText, lineOffset, lineOffset + lineInformation.getLineLength(lineNumber)) );
-							lineElements.put(lineNumber, lineElement);
-						}
-						
-						this.result.addMatch(new RElementMatch(lineElement,
+						this.result.addMatch(new RElementMatch(
+								getLineElement(lineElements, bestUnit, content, nameRegion.getOffset()),
 								nameRegion.getOffset(), nameRegion.getLength(),
 								(access.isWriteAccess() && access.getNextSegment() == null) ));
 					}
@@ -147,6 +165,22 @@ public class RElementSearch extends RElementSearchProcessor {
 		}
 	}
 	
+	private LineElement<IRSourceUnit> getLineElement(
+			final Map<Integer, LineElement<IRSourceUnit>> lineElements,
+			final IRSourceUnit unit, final SourceContent content, final int offset)
+			throws BadLocationException {
+		final ILineInformation lineInformation= content.getLines();
+		final Integer lineNumber= Integer.valueOf(lineInformation.getLineOfOffset(offset));
+		LineElement<IRSourceUnit> lineElement= lineElements.get(lineNumber);
+		if (lineElement == null) {
+			final int lineOffset= lineInformation.getLineOffset(lineNumber);
+			lineElement= new LineElement<>(unit, lineNumber, lineOffset,
+					getContent(content.getText(), lineOffset, lineOffset + lineInformation.getLineLength(lineNumber)) );
+			lineElements.put(lineNumber, lineElement);
+		}
+		return lineElement;
+	}
+	
 	private RElementAccess include(RElementAccess access) {
 		access= searchMatch(access);
 		return (access != null && access.isMaster()
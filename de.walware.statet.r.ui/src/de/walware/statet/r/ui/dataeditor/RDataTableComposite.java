@@ -13,6 +13,7 @@ package de.walware.statet.r.ui.dataeditor;
 
 import static de.walware.ecommons.waltable.coordinate.Orientation.HORIZONTAL;
 
+import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 import java.util.concurrent.atomic.AtomicReference;
@@ -1080,4 +1081,18 @@ public class RDataTableComposite extends Composite implements ISelectionProvider
 		}
 	}
 	
+	/**
+	 * Exports the data, with the current sorting and filter, to the specified file.
+	 * 
+	 * The export runs asynchronously in the R tool.
+	 * 
+	 * @param file the file to write
+	 * @param format the file format
+	 */
+	public void exportData(final File file, final int format) {
+		if (this.tableLayers != null) {
+			this.dataProvider.exportData(file, format);
+		}
+	}
+	
 }
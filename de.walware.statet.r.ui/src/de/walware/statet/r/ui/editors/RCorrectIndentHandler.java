@@ -85,22 +85,30 @@ public class RCorrectIndentHandler extends SourceEditorProgressHandler {
 //		if (length > 0 && fDocument.getLineOffset(fLastLine) == start+length) {
 //			fLastLine--;
 //		}
-		final MultiTextEdit edits= new MultiTextEdit();
+		final MultiTextEdit edits;
 		final List<? extends IRegion> codeRanges= getCodeRanges(document, selection);
-		for (final IRegion range : codeRanges) {
-			final int rStartLine= document.getLineOfOffset(Math.max(selection.getOffset(), range.getOffset()));
-			int rEndLine= document.getLineOfOffset(Math.min(selection.getOffset()+selection.getLength(), range.getOffset()+range.getLength()));
-			final int rEndLineOffset= document.getLineOffset(rEndLine);
-			if (rEndLineOffset == range.getOffset()+range.getLength()
-					|| (rStartLine < rEndLine && rEndLineOffset == selection.getOffset()+selection.getLength())) {
-				rEndLine--;
-			}
-			if (rStartLine <= rEndLine) {
-				fIndenter.setup((su instanceof IRSourceUnit) ? ((IRSourceUnit) su).getRCoreAccess() : RCore.getWorkbenchAccess());
-				final TextEdit rEdits= fIndenter.getIndentEdits(document, ast.root,
-						range.getOffset(), rStartLine, rEndLine );
-				if (rEdits.getChildrenSize() > 0) {
-					edits.addChild(rEdits);
+		if (isCompleteSelection(selection, codeRanges)) {
+			// all code is indented: compute all lines at once
+			fIndenter.setup((su instanceof IRSourceUnit) ? ((IRSourceUnit) su).getRCoreAccess() : RCore.getWorkbenchAccess());
+			edits= fIndenter.getIndentEdits(document, ast.root, codeRanges);
+		}
+		else {
+			edits= new MultiTextEdit();
+			for (final IRegion range : codeRanges) {
+				final int rStartLine= document.getLineOfOffset(Math.max(selection.getOffset(), range.getOffset()));
+				int rEndLine= document.getLineOfOffset(Math.min(selection.getOffset()+selection.getLength(), range.getOffset()+range.getLength()));
+				final int rEndLineOffset= document.getLineOffset(rEndLine);
+				if (rEndLineOffset == range.getOffset()+range.getLength()
+						|| (rStartLine < rEndLine && rEndLineOffset == selection.getOffset()+selection.getLength())) {
+					rEndLine--;
+				}
+				if (rStartLine <= rEndLine) {
+					fIndenter.setup((su instanceof IRSourceUnit) ? ((IRSourceUnit) su).getRCoreAccess() : RCore.getWorkbenchAccess());
+					final TextEdit rEdits= fIndenter.getIndentEdits(document, ast.root,
+							range.getOffset(), rStartLine, rEndLine );
+					if (rEdits.getChildrenSize() > 0) {
+						edits.addChild(rEdits);
+					}
 				}
 			}
 		}
@@ -138,6 +146,17 @@ public class RCorrectIndentHandler extends SourceEditorProgressHandler {
 		}
 	}
 	
+	private boolean isCompleteSelection(final ITextSelection selection,
+			final List<? extends IRegion> codeRanges) {
+		if (codeRanges.isEmpty()) {
+			return false;
+		}
+		final IRegion first= codeRanges.get(0);
+		final IRegion last= codeRanges.get(codeRanges.size() - 1);
+		return (selection.getOffset() <= first.getOffset()
+				&& selection.getOffset() + selection.getLength() >= last.getOffset() + last.getLength() );
+	}
+	
 	protected List<? extends IRegion> getCodeRanges(final AbstractDocument document,
 			final ITextSelection selection) throws BadLocationException {
 		final List<IRegion> regions= new ArrayList<>(1);
@@ -12,9 +12,10 @@
 package de.walware.statet.r.internal.objectbrowser;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import de.walware.ecommons.ltk.core.model.IModelElement;
 
@@ -29,26 +30,30 @@ class ContentInput {
 	boolean processChanged;
 	boolean inputChanged;
 	final boolean showCondensedUserspace;
+	final boolean sortByType;
 	
 	final IModelElement.Filter otherFilter;
 	
-	private final IModelElement.Filter envFilter;
-	private final Map<ICombinedRElement, Object[]> envFiltered;
+	/** filter instances are not thread-safe, each thread uses its own */
+	private final ThreadLocal<IModelElement.Filter> envFilter;
+	/** the (filtered and sorted) children of environments */
+	private final ConcurrentHashMap<ICombinedRElement, Object[]> envChildren;
 	
 	ICombinedRElement[] rootElements;
 	
 	
 	public ContentInput(final boolean processChanged, final boolean inputChanged,
-			final boolean showCondensedUserspace,
-			final IModelElement.Filter envFilter, final IModelElement.Filter otherFilter) {
+			final boolean showCondensedUserspace, final boolean sortByType,
+			final Supplier<IModelElement.Filter> envFilter, final IModelElement.Filter otherFilter) {
 		this.processChanged = processChanged;
 		this.inputChanged = inputChanged;
 		this.showCondensedUserspace = showCondensedUserspace;
+		this.sortByType = sortByType;
 		
 		this.otherFilter = otherFilter;
 		
-		this.envFilter = envFilter;
-		this.envFiltered = (envFilter != null) ? new HashMap<ICombinedRElement, Object[]>() : null;
+		this.envFilter = (envFilter != null) ? ThreadLocal.withInitial(envFilter) : null;
+		this.envChildren = new ConcurrentHashMap<>();
 	}
 	
 	
@@ -56,19 +61,37 @@ class ContentInput {
 		return (this.envFilter != null);
 	}
 	
-	public Object[] getEnvFilterChildren(final ICombinedRElement rElement) {
-		Object[] children = this.envFiltered.get(rElement);
+	/**
+	 * Returns the children of the environment, filtered and, if sort by type is enabled, sorted.
+	 * 
+	 * The children are computed only once per input; the method can be called by multiple
+	 * threads concurrently.
+	 * 
+	 * @param rElement the environment
+	 * @return the children
+	 */
+	public Object[] getEnvChildren(final ICombinedRElement rElement) {
+		Object[] children = this.envChildren.get(rElement);
 		if (children == null) {
-			children = rElement.getModelChildren(this.envFilter).toArray();
-			this.envFiltered.put(rElement, children);
+			children = rElement.getModelChildren(
+					(this.envFilter != null) ? this.envFilter.get() : null ).toArray();
+			if (this.sortByType && children.length > 1) {
+				// the comparator (collator) is not thread-safe
+				Arrays.sort(children, new SortByTypeComparator());
+			}
+			final Object[] existing = this.envChildren.putIfAbsent(rElement, children);
+			if (existing != null) {
+				children = existing;
+			}
 		}
 		return children;
 	}
 	
 	public List<ICombinedRElement> filterEnvChildren(final List<? extends ICombinedRElement> children) {
+		final IModelElement.Filter filter = this.envFilter.get();
 		final List<ICombinedRElement> list= new ArrayList<>(children.size());
 		for (final ICombinedRElement rElement : children) {
-			if (this.envFilter.include(rElement)) {
+			if (filter.include(rElement)) {
 				list.add(rElement);
 			}
 		}
@@ -17,6 +17,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -90,6 +91,8 @@ class ContentJob extends Job implements ToolWorkspace.Listener {
 	
 	private List<? extends ICombinedREnvironment> rawInput;
 	private List<? extends ICombinedRElement> userspaceInput;
+	/** the input shown in the viewer */
+	private ContentInput lastInput;
 	
 	private volatile boolean isScheduled;
 	
@@ -217,20 +220,24 @@ class ContentJob extends Job implements ToolWorkspace.Listener {
 			final ContentInput input = createHandler(process, updateInput);
 			
 			// Update input and refresh
-			final List<ICombinedREnvironment> toUpdate;
+			List<ICombinedREnvironment> updateEntries;
 			if (updateInput) {
-				toUpdate = updateInput((!force) ? updateList : null, process, input);
+				updateEntries = updateInput((!force) ? updateList : null, process, input);
 			}
 			else {
-				toUpdate = null;
+				updateEntries = null;
 			}
 			
 			if (this.rawInput != null) {
 				prescan(input);
+				if (updateEntries == null) {
+					updateEntries = diffInput(input);
+				}
 			}
 			else if (process != null) {
 				input.processChanged = false;
 			}
+			final List<ICombinedREnvironment> toUpdate = updateEntries;
 			
 			synchronized (this.view.processLock) {
 				if (process != this.view.getTool()) {
@@ -257,9 +264,11 @@ class ContentJob extends Job implements ToolWorkspace.Listener {
 			
 			if (this.rawInput != null) {
 				this.lastProcess = process;
+				this.lastInput = input;
 			}
 			else {
 				this.lastProcess = null;
+				this.lastInput = null;
 			}
 			return Status.OK_STATUS;
 		}
@@ -274,16 +283,26 @@ class ContentJob extends Job implements ToolWorkspace.Listener {
 		final boolean processChanged = ((process != null) ? process != this.lastProcess : this.lastProcess != null);
 		final boolean filterInternal = !this.view.getShowInternal();
 		final String filterText = this.view.getSearchText();
-		IModelElement.Filter envFilter;
+		Supplier<IModelElement.Filter> envFilter;
 		IModelElement.Filter otherFilter;
 		if (filterText != null && filterText.length() > 0) {
-			final SearchPattern filterPattern = new RNameSearchPattern();
-			filterPattern.setPattern(filterText);
-			envFilter = new ContentFilter(filterInternal, filterPattern);
+			envFilter = new Supplier<IModelElement.Filter>() {
+				@Override
+				public IModelElement.Filter get() {
+					final SearchPattern filterPattern = new RNameSearchPattern();
+					filterPattern.setPattern(filterText);
+					return new ContentFilter(filterInternal, filterPattern);
+				}
+			};
 			otherFilter = (filterInternal) ? new ContentFilter(filterInternal, null) : null;
 		}
 		else if (filterInternal) {
-			envFilter = new ContentFilter(filterInternal, null);
+			envFilter = new Supplier<IModelElement.Filter>() {
+				@Override
+				public IModelElement.Filter get() {
+					return new ContentFilter(filterInternal, null);
+				}
+			};
 			otherFilter = new ContentFilter(filterInternal, null);
 		}
 		else {
@@ -291,7 +310,7 @@ class ContentJob extends Job implements ToolWorkspace.Listener {
 			otherFilter = null;
 		}
 		return new ContentInput(processChanged, updateInput, this.view.getShowConsenseUserspace(),
-				envFilter, otherFilter );
+				this.view.getSortByType(), envFilter, otherFilter );
 	}
 	
 	private List<ICombinedREnvironment> updateInput(final List<ICombinedREnvironment> updateList, 
@@ -363,13 +382,12 @@ class ContentJob extends Job implements ToolWorkspace.Listener {
 	}
 	
 	private void prescan(final ContentInput input) {
-		// Prescan filter
+		// Prescan filter and sort
 		if (!input.showCondensedUserspace) {
 			final ICombinedRElement[] array = this.rawInput.toArray(new ICombinedRElement[this.rawInput.size()]);
-			if (input.hasEnvFilter()) {
-				for (int i = 0; i < array.length; i++) {
-					input.getEnvFilterChildren(array[i]);
-				}
+			if (input.hasEnvFilter() || input.sortByType) {
+				// the environments are independent, large ones (packages) dominate
+				Arrays.stream(array).parallel().forEach(input::getEnvChildren);
 			}
 			input.rootElements = array;
 		}
@@ -385,4 +403,56 @@ class ContentJob extends Job implements ToolWorkspace.Listener {
 		}
 	}
 	
+	/**
+	 * Computes the environments to refresh by comparing the content with the input currently
+	 * shown in the viewer.
+	 * 
+	 * @return the changed environments or <code>null</code>, if a full refresh is required
+	 */
+	private List<ICombinedREnvironment> diffInput(final ContentInput input) {
+		final ContentInput lastInput = this.lastInput;
+		if (lastInput == null || input.processChanged
+				|| input.showCondensedUserspace || lastInput.showCondensedUserspace
+				|| (input.otherFilter != null) != (lastInput.otherFilter != null)
+				|| input.rootElements == null || lastInput.rootElements == null
+				|| input.rootElements.length != lastInput.rootElements.length ) {
+			return null;
+		}
+		final boolean compareChildren = (input.hasEnvFilter() || input.sortByType
+				|| lastInput.hasEnvFilter() || lastInput.sortByType );
+		final List<ICombinedREnvironment> updateEntries= new ArrayList<>();
+		for (int i = 0; i < input.rootElements.length; i++) {
+			final ICombinedRElement envir = input.rootElements[i];
+			final ICombinedRElement lastEnvir = lastInput.rootElements[i];
+			if (envir == lastEnvir) {
+				// same object, check if filter or sorting has changed the children
+				if (compareChildren && !isIdentical(input.getEnvChildren(envir), lastInput.getEnvChildren(lastEnvir))) {
+					updateEntries.add((ICombinedREnvironment) envir);
+				}
+			}
+			else if (envir.equals(lastEnvir)) {
+				updateEntries.add((ICombinedREnvironment) envir);
+			}
+			else { // search path is changed
+				return null;
+			}
+		}
+		return updateEntries;
+	}
+	
+	private static boolean isIdentical(final Object[] children1, final Object[] children2) {
+		if (children1 == children2) {
+			return true;
+		}
+		if (children1.length != children2.length) {
+			return false;
+		}
+		for (int i = 0; i < children1.length; i++) {
+			if (children1[i] != children2[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
 }
@@ -104,9 +104,8 @@ class ContentProvider implements ITreeContentProvider {
 		
 		@Override
 		protected Object[] getChildren(final ICombinedRList value, final long start, final int length) {
-			if (ContentProvider.this.activeInput.hasEnvFilter()
-					&& value instanceof ICombinedREnvironment) {
-				final Object[] all = ContentProvider.this.activeInput.getEnvFilterChildren(value);
+			if (value instanceof ICombinedREnvironment) {
+				final Object[] all = ContentProvider.this.activeInput.getEnvChildren(value);
 				if (start == 0 && length == all.length) {
 					return all;
 				}
@@ -198,7 +197,7 @@ class ContentProvider implements ITreeContentProvider {
 			return (rElement.getLength() > 0);
 		case RObject.TYPE_ENV:
 			if (this.activeInput.hasEnvFilter()) {
-				return (this.activeInput.getEnvFilterChildren(rElement).length > 0);
+				return (this.activeInput.getEnvChildren(rElement).length > 0);
 			}
 			return (rElement.getLength() > 0);
 		case RObject.TYPE_REFERENCE: {
@@ -224,18 +223,12 @@ class ContentProvider implements ITreeContentProvider {
 				return this.partitionFactory.getElements((ICombinedRList) rElement, rElement.getLength());
 			}
 			return NO_CHILDREN;
-		case RObject.TYPE_ENV:
-			if (this.activeInput.hasEnvFilter()) {
-				final Object[] children = this.activeInput.getEnvFilterChildren(rElement);
-				if (children.length > 5000) {
-					return this.partitionFactory.getElements((ICombinedRList) rElement, children.length);
-				}
-				return children;
+		case RObject.TYPE_ENV: {
+			final Object[] children = this.activeInput.getEnvChildren(rElement);
+			if (children.length > 5000) {
+				return this.partitionFactory.getElements((ICombinedRList) rElement, children.length);
 			}
-			if (rElement.getLength() > 5000 && rElement.hasModelChildren(null)) {
-				return this.partitionFactory.getElements((ICombinedRList) rElement, rElement.getLength());
-			}
-			return rElement.getModelChildren(null).toArray();
+			return children; }
 		case RObject.TYPE_REFERENCE: {
 			final RObject realObject = ((RReference) rElement).getResolvedRObject();
 			if (realObject != null) {
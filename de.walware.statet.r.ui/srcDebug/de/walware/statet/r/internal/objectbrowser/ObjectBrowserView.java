@@ -235,6 +235,7 @@ public class ObjectBrowserView extends ViewPart implements IToolProvider {
 			fSortByType = !fSortByType;
 			fSettings.put(SORT_BYTYPE_SETTINGS_KEY, fSortByType);
 			updateSorter();
+			updateFilter(); // children are presorted by the update job
 			return null;
 		}
 		
@@ -731,6 +732,10 @@ public class ObjectBrowserView extends ViewPart implements IToolProvider {
 		return fFilterText;
 	}
 	
+	public boolean getSortByType() {
+		return fSortByType;
+	}
+	
 	
 	@Override
 	public void addToolRetargetable(final IToolRetargetable action) {